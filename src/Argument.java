@@ -3,9 +3,11 @@
  */
 
 /**
- * Simple enum to help interpret arguments
+ * Simple enum to help interpret arguments. SIZE is a byte count such as
+ * '4G', DURATION a time such as '90s' or '5m' (seconds without a unit), ENUM
+ * one of a fixed set of choices and LIST a comma separated list of strings
  */
-enum Argtype{ FLAG,STRING,INTEGER }
+enum Argtype{ FLAG,STRING,INTEGER,LONG,SIZE,DURATION,ENUM,LIST }
 
 /**
  * Represents an argument type
@@ -18,7 +20,8 @@ public class Argument {
 
     // Instance variables
     private Argtype type;
-    private Object val;
+    private int id;
+    private String[] choices;
     private String argFullName;
     private String argShortName;
     private String description;
@@ -35,15 +38,7 @@ public class Argument {
         this.type = type;
         this.argFullName = argFullName;
         this.argShortName = argShortName;
-
-        // if this argument is a flag it will be null by default
-        if(type == Argtype.FLAG)
-            this.val = false;
-        else
-
-            // Default values are null otherwise
-            this.val = null;
-
+        this.choices = new String[0];
         this.description = description;
         this.required = false;
     }
@@ -58,15 +53,7 @@ public class Argument {
         this.type = type;
         this.argFullName = argFullName;
         this.argShortName = argShortName;
-
-        // if this argument is a flag it will be null by default
-        if(type == Argtype.FLAG)
-            this.val = false;
-        else
-
-            // Default values are null otherwise
-            this.val = null;
-
+        this.choices = new String[0];
         this.description = "";
         this.required = false;
     }
@@ -112,19 +99,31 @@ public class Argument {
     }
 
     /**
-     * Val setter
-     * @param val The value derived from the command line
+     * Id setter, the parser numbers its arguments in the order they were added
+     * @param id Position of this argument in its parser
      */
-    public void setVal(Object val) {
-        this.val = val;
-    }
+    void setId(int id) { this.id = id; }
+
+
+    /**
+     * Id getter
+     * @return Position of this argument in its parser, where its value is kept
+     */
+    public int getId() { return this.id; }
+
+
+    /**
+     * Sets the values an ENUM argument may take
+     * @param choices Every value allowed
+     */
+    public void setChoices(String... choices) { this.choices = choices.clone(); }
 
 
     /**
-     * val getter
-     * @return Value of this argument
+     * Choices getter
+     * @return Every value an ENUM argument may take
      */
-    public Object getVal() { return this.val; }
+    public String[] getChoices() { return this.choices.clone(); }
 
 
     /**
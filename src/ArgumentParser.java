@@ -1,10 +1,14 @@
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
 
 /**
- * Parse the commandline arguments for the supplied program
+ * Parse the commandline arguments for the supplied program. Parsing is a
+ * single pass that collects every problem with the command line as an
+ * error in the result instead of exiting, so it can be used in process
  * Author: Grant Miller <gem1086.rit.edu>
  * File: ArgumentParser.java
  * Date: 25 February 2019
@@ -12,9 +16,12 @@ import java.util.Properties;
  */
 public class ArgumentParser {
 
+    // Size suffixes, each 1024 times the one before
+    private static final String SIZE_UNITS = "KMGTPE";
+
     // Instance variables
-    private HashMap<String, Argument> argShortList;
-    private HashMap<String, Argument> argLongList;
+    private HashMap<String, Argument> names;
+    private ArrayList<Argument> arguments;
     private ArrayList<Argument> requiredArgs;
 
 
@@ -22,8 +29,8 @@ public class ArgumentParser {
      * ArgumentParser constructor
      */
     ArgumentParser() {
-        this.argShortList = new HashMap<>();
-        this.argLongList = new HashMap<>();
+        this.names = new HashMap<>();
+        this.arguments = new ArrayList<>();
         this.requiredArgs = new ArrayList<>();
     }
 
@@ -34,11 +41,7 @@ public class ArgumentParser {
      * @param argShortName The short name of the argument (o)
      */
     public void addArgument(Argtype type, String argFullName, String argShortName) {
-
-        // Create and add the new argument
-        Argument arg = new Argument(type, argFullName, argShortName);
-        this.argLongList.put(argFullName, arg);
-        this.argShortList.put(argShortName, arg);
+        this.addArgument(type, argFullName, argShortName, "");
     }
 
 
@@ -51,10 +54,12 @@ public class ArgumentParser {
      */
     public void addArgument(Argtype type, String argFullName, String argShortName, String description) {
 
-        // Create and add the new argument
+        // Create and add the new argument, numbered in the order they're added
         Argument arg = new Argument(type, argFullName, argShortName, description);
-        this.argLongList.put(argFullName, arg);
-        this.argShortList.put(argShortName, arg);
+        arg.setId(this.arguments.size());
+        this.arguments.add(arg);
+        this.names.put(argFullName, arg);
+        this.names.put(argShortName, arg);
     }
 
 
@@ -65,7 +70,7 @@ public class ArgumentParser {
 
         // Get the main class of this program
         final Properties properties = System.getProperties();
-        String mainClassName = properties.getProperty("sun.java.command").split(" ")[0];
+        String mainClassName = properties.getProperty("sun.java.command", "Main").split(" ")[0];
 
         // If this program has no required arguments then don't print them on top
         // of usage message
@@ -86,10 +91,9 @@ public class ArgumentParser {
         }
 
         // Iterate over the list of arguments
-        for(String argKey : this.argLongList.keySet()) {
+        for(Argument arg : this.arguments) {
 
-            // Get the argument and print the argument names
-            Argument arg = this.argLongList.get(argKey);
+            // Print the argument names
             System.out.print(String.format(
                     "\t-%s, --%s\t\t",
                     arg.getArgFullName(), arg.getArgShortName()));
@@ -116,116 +120,77 @@ public class ArgumentParser {
 
 
     /**
-     * Parse the command string based on the Argument objects
-     * in this parsing object
+     * Parse the command string based on the Argument objects in this
+     * parsing object. Values are converted to their argument's type as they
+     * are read, and unknown arguments, arguments supplied more than once,
+     * missing or malformed values and missing required arguments are all
+     * reported in the result's errors
      * @param argString The arguments string
-     * @param retLongNameMap True if callee wants the long named map, false if short named map
-     * @exception IllegalArgumentException thrown if an argument supplied is not found
-     *                                      or if an argument supplied is supplied more than once
+     * @return The values of the arguments, extra arguments and any errors
      */
-    public ParserResult parseArgs(String[] argString, boolean retLongNameMap) {
+    public ParserResult parseArgs(String[] argString) {
+
+        int n = this.arguments.size();
+        boolean[] present = new boolean[n];
+        long[] numbers = new long[n];
+        String[][] strings = new String[n][];
+        List<String> extraArgs = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
 
         Argument prevArg = null;
-        ArrayList<String> extraArgs = new ArrayList<>();
 
         // Iterate over the strings in the command line
         for(String s : argString) {
 
-            // Check if this is an argument
-            if(s.charAt(0) == '-') {
-
-                // Strip any leading -'s
-                while(s.charAt(0) == '-')
-                    s = s.substring(1);
-
-                // try and get this by full name
-                if(!this.argLongList.containsKey(s)) {
-
-                    // check if this key exists as the short hand
-                    if(!this.argShortList.containsKey(s)) {
-
-                        // If the argument is not in the short list
-                        // or long list throw an exception
-                        System.err.println(String.format(
-                                "Unknown argument (%s) supplied", s));
-                        System.exit(1);
-                    } else {
-
-                        // If this argument is a flag set it to true
-                        if(this.argShortList.get(s).getType() == Argtype.FLAG) {
-                            this.argShortList.get(s).setVal(true);
-                            continue;
-                        }
+            // Anything that isn't an argument is its value or an extra argument
+            if(s.isEmpty() || s.charAt(0) != '-' || s.length() == 1) {
 
-                        // Set the previous arg to the recent argument
-                        prevArg = this.argShortList.get(s);
-                    }
-                } else {
-
-                    // If this argument is a flag set it to true
-                    if(this.argLongList.get(s).getType() == Argtype.FLAG) {
-                        this.argLongList.get(s).setVal(true);
-                        continue;
-                    }
-
-                    // Set the previous arg to the recent argument
-                    prevArg = this.argLongList.get(s);
+                if(prevArg == null) {
+                    extraArgs.add(s);
+                    continue;
                 }
-            } else {
-
-                // This is not a flag, handle it
-                if(prevArg != null) {
 
-                    // arguments should only be supplied once
-                    if(prevArg.getVal() != null) {
-                        throw new IllegalArgumentException();
-                    }
-
-                    // Set the value of the argument then reset prevArg back to null
-                    if(prevArg.getType() == Argtype.INTEGER) {
-
-                        try {
-                            // parse the int
-                            prevArg.setVal(Integer.parseInt(s));
-                        } catch (NumberFormatException e) {
-                            // Set the value to null if a number is not supplied
-                            prevArg.setVal(null);
-                        }
-                    } else
-
-                        // Just save the string
-                        prevArg.setVal(s);
+                // Set the value of the argument then reset prevArg back to null
+                String error = this.setValue(prevArg, s, numbers, strings);
+                if(error != null)
+                    errors.add(error);
 
-                    // Save the newly updated argument
-                    this.argShortList.put(prevArg.getArgShortName(), prevArg);
-                    this.argLongList.put(prevArg.getArgFullName(), prevArg);
+                prevArg = null;
+                continue;
+            }
 
-                    // Set previous argument to null
-                    prevArg = null;
-                } else
+            if(prevArg != null)
+                errors.add(String.format("--%s needs a value", prevArg.getArgFullName()));
+            prevArg = null;
 
-                    // Otherwise add the unknown argument to extraArgs
-                    extraArgs.add(s);
+            // Strip any leading -'s and look the argument up by either name
+            int start = s.charAt(1) == '-' ? 2 : 1;
+            Argument arg = this.names.get(s.substring(start));
+            if(arg == null) {
+                errors.add(String.format("Unknown argument (%s) supplied", s.substring(start)));
+                continue;
             }
-        }
 
-        // Check if all required args have a value
-        for(Argument reqArg : this.requiredArgs) {
-
-            if(reqArg.getVal() == null) {
-                this.usage();
-                System.exit(1);
+            // arguments should only be supplied once
+            if(present[arg.getId()]) {
+                errors.add(String.format("--%s supplied more than once", arg.getArgFullName()));
+                continue;
             }
+
+            present[arg.getId()] = true;
+            if(arg.getType() != Argtype.FLAG)
+                prevArg = arg;
         }
 
-        if(retLongNameMap)
+        if(prevArg != null)
+            errors.add(String.format("--%s needs a value", prevArg.getArgFullName()));
 
-            // returns a new ParserResult with the long list
-            return new ParserResult(extraArgs, this.argLongList);
-        else
+        // Check if all required args have a value
+        for(Argument reqArg : this.requiredArgs)
+            if(!present[reqArg.getId()])
+                errors.add(String.format("--%s is required", reqArg.getArgFullName()));
 
-            // returns a new ParserResult with the short list
-            return new ParserResult(extraArgs, this.argShortList);
+        return new ParserResult(extraArgs, errors, this.names, present, numbers, strings);
     }
 
 
@@ -234,15 +199,7 @@ public class ArgumentParser {
      * @param key Name of the argument desired
      * @return Argument if it exists, null otherwise
      */
-    public Argument getArg(String key) {
-
-        if(this.argLongList.containsKey(key))
-            return this.argLongList.get(key);
-        else if(this.argShortList.containsKey(key))
-            return this.argShortList.get(key);
-        else
-            return null;
-    }
+    public Argument getArg(String key) { return this.names.get(key); }
 
 
     /**
@@ -257,6 +214,133 @@ public class ArgumentParser {
     }
 
 
+    /**
+     * Converts the value of an argument to its type
+     * @param arg The argument
+     * @param s Value from the command line
+     * @param numbers Where numeric values go, by id
+     * @param strings Where every other value goes, by id
+     * @return Why the value is malformed, or null if it isn't
+     */
+    private String setValue(Argument arg, String s, long[] numbers, String[][] strings) {
+
+        int id = arg.getId();
+        switch(arg.getType()) {
+
+            case INTEGER:
+            case LONG:
+                try {
+                    numbers[id] = arg.getType() == Argtype.INTEGER ? Integer.parseInt(s) : Long.parseLong(s);
+                    return null;
+                } catch (NumberFormatException e) {
+                    return String.format("--%s expects a whole number, got %s", arg.getArgFullName(), s);
+                }
+
+            case SIZE:
+                numbers[id] = parseSize(s);
+                return numbers[id] >= 0 ? null : String.format(
+                        "--%s expects a size such as 512K or 4G, got %s", arg.getArgFullName(), s);
+
+            case DURATION:
+                numbers[id] = parseDuration(s);
+                return numbers[id] >= 0 ? null : String.format(
+                        "--%s expects a duration such as 90s, 5m or 2h, got %s", arg.getArgFullName(), s);
+
+            case ENUM:
+                for(String choice : arg.getChoices()) {
+                    if(normalize(choice).equals(normalize(s))) {
+                        strings[id] = new String[]{choice};
+                        return null;
+                    }
+                }
+                return String.format("--%s expects one of %s, got %s",
+                        arg.getArgFullName(), String.join(", ", arg.getChoices()), s);
+
+            case LIST:
+                strings[id] = s.split(",");
+                for(int i = 0; i < strings[id].length; i++)
+                    strings[id][i] = strings[id][i].trim();
+                return null;
+
+            default:
+                strings[id] = new String[]{s};
+                return null;
+        }
+    }
+
+
+    /**
+     * Parses a size, a whole number of bytes with an optional K, M, G, T, P
+     * or E suffix (powers of 1024), optionally followed by a B
+     * @param s Size to parse
+     * @return Number of bytes, or -1 if it is malformed
+     */
+    static long parseSize(String s) {
+
+        String upper = s.toUpperCase(Locale.ROOT);
+        int end = upper.endsWith("B") ? upper.length() - 1 : upper.length();
+        int shift = 0;
+        if(end > 0) {
+            int unit = SIZE_UNITS.indexOf(upper.charAt(end - 1));
+            if(unit >= 0) {
+                shift = 10 * (unit + 1);
+                end--;
+            }
+        }
+
+        try {
+            long value = Long.parseLong(upper.substring(0, end));
+            if(value < 0 || value > (Long.MAX_VALUE >> shift))
+                return -1;
+            return value << shift;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    /**
+     * Parses a duration, a whole number with an optional unit of ms, s, m,
+     * h or d. A bare number is seconds
+     * @param s Duration to parse
+     * @return Milliseconds, or -1 if it is malformed
+     */
+    static long parseDuration(String s) {
+
+        String lower = s.toLowerCase(Locale.ROOT);
+        int end = lower.length();
+        while(end > 0 && !Character.isDigit(lower.charAt(end - 1)))
+            end--;
+
+        long unit;
+        switch(lower.substring(end)) {
+            case "ms": unit = 1; break;
+            case "":
+            case "s": unit = 1000; break;
+            case "m": unit = 60_000; break;
+            case "h": unit = 3_600_000; break;
+            case "d": unit = 86_400_000; break;
+            default: return -1;
+        }
+
+        try {
+            return Math.multiplyExact(Long.parseLong(lower.substring(0, end)), unit);
+        } catch (NumberFormatException | ArithmeticException e) {
+            return -1;
+        }
+    }
+
+
+    /**
+     * Normalizes an ENUM value, case, '-' and '_' don't matter
+     * @param s Value to normalize
+     * @return Lower case value without '-' or '_'
+     */
+    private static String normalize(String s) {
+        return s.toLowerCase(Locale.ROOT).replace("-", "").replace("_", "");
+    }
+
+
     /**
      * Used for debugging
      */
@@ -269,7 +353,7 @@ public class ArgumentParser {
         // TEST 1, test empty parser and empty arg list
         ArgumentParser parser = new ArgumentParser();
         parser.usage();
-        ParserResult res1 = parser.parseArgs(new String[]{}, true);
+        ParserResult res1 = parser.parseArgs(new String[]{});
 
 
         System.out.println("TEST 2 - should work normally");
@@ -282,10 +366,11 @@ public class ArgumentParser {
         parser.usage();
         parser.getArg("useTLS").setDescription("Forces program to use TLS");
         parser.usage();
+        System.out.println(parser.parseArgs(myArgs).getErrors());
 
 
-        System.out.println("TEST 3 - should error out");
-        // TEST 3, required flag which shouldn't throw an error
+        System.out.println("TEST 3 - should report an error");
+        // TEST 3, output supplied twice
         String[] myArgs2 = {"-o", "output.txt", "--input", "3", "--output", "someOtherFile.txt"};
 
         ArgumentParser parser2 = new ArgumentParser();
@@ -295,16 +380,14 @@ public class ArgumentParser {
         parser2.addArgument(Argtype.INTEGER, "input", "i",
                 "input number");
         parser2.addArgument(Argtype.FLAG, "useTLS", "t");
-        parser2.setRequired("useTLS");
         parser2.usage();
 
-        // exclude required value to try and throw an exception (which it shouldn't
-        // because useTLS is a boolean which defaults to false so it is not null
-        ParserResult res = parser2.parseArgs(myArgs2, true);
+        ParserResult res = parser2.parseArgs(myArgs2);
+        System.out.println(res.getErrors());
 
 
-        System.out.println("TEST 4 - should error out");
-        // TEST 4, required string which SHOULD throw an error
+        System.out.println("TEST 4 - should report an error");
+        // TEST 4, required string which is missing
         String[] myArgs3 = {"--input", "3"};
 
         ArgumentParser parser3 = new ArgumentParser();
@@ -319,7 +402,22 @@ public class ArgumentParser {
         parser3.setRequired("output");
         parser3.usage();
 
-        ParserResult res2 = parser3.parseArgs(myArgs3, true);
+        ParserResult res2 = parser3.parseArgs(myArgs3);
+        System.out.println(res2.getErrors());
+
+
+        System.out.println("TEST 5 - should work normally");
+        // TEST 5, typed values
+        ArgumentParser parser4 = new ArgumentParser();
+        parser4.addArgument(Argtype.SIZE, "memory", "m");
+        parser4.addArgument(Argtype.DURATION, "timeout", "t");
+        parser4.addArgument(Argtype.ENUM, "mode", "d");
+        parser4.addArgument(Argtype.LIST, "files", "f");
+        parser4.getArg("mode").setChoices("fast", "slow");
+        ParserResult res3 = parser4.parseArgs(
+                new String[]{"-m", "4G", "-t", "5m", "-d", "SLOW", "-f", "a, b,c"});
+        System.out.println(String.format("%d %d %s %s %s", res3.getLong("memory", 0),
+                res3.getLong("timeout", 0), res3.getString("mode"), res3.getList("files"), res3.getErrors()));
 
         res.getExtraArgs();
     }
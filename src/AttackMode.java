@@ -0,0 +1,57 @@
+/**
+ * A way of producing password candidates. Every candidate has a position in
+ * a keyspace of getKeyspace() indices, so the keyspace can be split into
+ * ranges and handed to different workers
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: AttackMode.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public interface AttackMode {
+
+    /**
+     * Name getter
+     * @return Name of this attack mode
+     */
+    String getName();
+
+
+    /**
+     * Keyspace getter
+     * @return Number of indices in the keyspace
+     */
+    long getKeyspace();
+
+
+    /**
+     * Creates a generator over this keyspace for a single worker
+     * @return A new generator
+     */
+    CandidateGenerator newGenerator();
+
+
+    /**
+     * Gets the rough cost of an index, for attacks where an index takes more
+     * work than producing a single candidate
+     * @return Cost of an index in hashes of a fast algorithm
+     */
+    default long getCost() { return 1; }
+
+
+    /**
+     * Whether candidates are read out of files, in which case a
+     * CrackScheduler reads ranges ahead of the Crackers with prefetch()
+     * @return True if generating candidates can stall on the disk
+     */
+    default boolean usesFiles() { return false; }
+
+
+    /**
+     * Brings everything needed to generate a range of candidates into
+     * memory, so the Cracker given the range never waits on the disk
+     * @param from First index of the range
+     * @param to End of the range (exclusive)
+     * @return Value read from the data, only there so the reads aren't optimized away
+     */
+    default long prefetch(long from, long to) { return 0; }
+}
@@ -0,0 +1,193 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Hashes a whole CandidateBatch at once. Candidates that fit in a single
+ * block are loaded into a lane major copy of the message words and every
+ * round is run across all lanes in a tight loop the JIT can vectorize;
+ * longer candidates go through the scalar algorithm
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: BatchHasher.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public abstract class BatchHasher {
+
+    static final int LANES = CandidateBatch.LANES;
+
+    // Instance variables
+    protected int[] x;
+    protected boolean[] loaded;
+    private HashAlgorithm scalar;
+
+
+    /**
+     * BatchHasher constructor
+     * @param scalar Algorithm used for lanes that don't fit in one block
+     */
+    BatchHasher(HashAlgorithm scalar) {
+        this.x = new int[16 * LANES];
+        this.loaded = new boolean[LANES];
+        this.scalar = scalar;
+    }
+
+
+    /**
+     * Digest length getter
+     * @return Length of a digest in bytes
+     */
+    public int getDigestLength() { return this.scalar.getDigestLength(); }
+
+
+    /**
+     * Hashes every candidate in a batch
+     * @param batch Batch of candidates
+     * @param out Buffer the digests are written to, lane i at i * getDigestLength()
+     */
+    public void hash(CandidateBatch batch, byte[] out) {
+
+        int count = batch.getCount();
+        int width = this.getDigestLength();
+
+        // Zero the message words and load every lane that fits in a block
+        Arrays.fill(this.x, 0);
+        for(int lane = 0; lane < count; lane++)
+            this.loaded[lane] = this.load(batch.getCandidate(lane), batch.getLength(lane), lane);
+
+        this.compress();
+
+        for(int lane = 0; lane < count; lane++) {
+
+            if(this.loaded[lane])
+                this.store(lane, out, lane * width);
+            else
+                this.scalar.hash(batch.getCandidate(lane), 0, batch.getLength(lane), out, lane * width);
+        }
+    }
+
+
+    /**
+     * Loads a candidate, padded, into the message words of a lane
+     * @param candidate Buffer holding the candidate
+     * @param len Length of the candidate
+     * @param lane Lane to load it into
+     * @return False if the candidate doesn't fit in a single block
+     */
+    abstract boolean load(byte[] candidate, int len, int lane);
+
+
+    /**
+     * Runs the compression function over every lane
+     */
+    abstract void compress();
+
+
+    /**
+     * Writes the digest of a lane
+     * @param lane Lane number
+     * @param out Buffer to write to
+     * @param off Offset to write at
+     */
+    abstract void store(int lane, byte[] out, int off);
+
+
+    /**
+     * Loads a padded message into a lane in little endian word order
+     * @param x Lane major message words
+     * @param candidate Buffer holding the message
+     * @param len Length of the message, at most 55 bytes
+     * @param lane Lane to load it into
+     */
+    static void loadLittleEndian(int[] x, byte[] candidate, int len, int lane) {
+
+        for(int i = 0; i < len; i++)
+            x[(i >>> 2) * LANES + lane] |= (candidate[i] & 0xff) << ((i & 3) << 3);
+
+        x[(len >>> 2) * LANES + lane] |= 0x80 << ((len & 3) << 3);
+        x[14 * LANES + lane] = len << 3;
+    }
+
+
+    /**
+     * Writes an int in little endian order
+     * @param out Buffer to write to
+     * @param pos Offset to write at
+     * @param v Value to write
+     */
+    static void putIntLittleEndian(byte[] out, int pos, int v) {
+        out[pos] = (byte)v;
+        out[pos + 1] = (byte)(v >>> 8);
+        out[pos + 2] = (byte)(v >>> 16);
+        out[pos + 3] = (byte)(v >>> 24);
+    }
+
+
+    /**
+     * Used for debugging, hashes random batches with every batched algorithm
+     * and compares each lane with the scalar hash of the same candidate
+     */
+    public static void main(String[] args) {
+
+        Random random = new Random(1);
+        byte[][] candidates = new byte[LANES][];
+
+        // Hands out the candidates above, a batch at a time
+        CandidateGenerator generator = new CandidateGenerator() {
+
+            private int next;
+
+            @Override
+            public void seek(long index) { this.next = (int)index; }
+
+            @Override
+            public int next(byte[] buf, long end) {
+
+                if(this.next >= end)
+                    return -1;
+
+                byte[] candidate = candidates[this.next++];
+                System.arraycopy(candidate, 0, buf, 0, candidate.length);
+                return candidate.length;
+            }
+        };
+
+        for(String name : HashAlgorithms.getNames().split(", ")) {
+
+            HashAlgorithm algorithm = HashAlgorithms.forName(name);
+            BatchHasher batchHasher = algorithm == null ? null : algorithm.newBatchHasher();
+            if(batchHasher == null)
+                continue;
+
+            System.out.println(String.format("TEST %s - every lane should match the scalar hash", name));
+            int width = algorithm.getDigestLength();
+            CandidateBatch batch = new CandidateBatch();
+            byte[] out = new byte[LANES * width];
+            byte[] expected = new byte[width];
+            int wrong = 0;
+
+            for(int round = 0; round < 2000; round++) {
+
+                // Partial batches, lengths either side of a single block, and
+                // every third round bytes outside ASCII
+                int count = 1 + random.nextInt(LANES);
+                for(int lane = 0; lane < count; lane++) {
+                    candidates[lane] = new byte[random.nextInt(80)];
+                    for(int i = 0; i < candidates[lane].length; i++)
+                        candidates[lane][i] = (byte)(round % 3 == 0 ? random.nextInt(256) : 32 + random.nextInt(95));
+                }
+
+                generator.seek(0);
+                batch.fill(generator, count);
+                batchHasher.hash(batch, out);
+
+                for(int lane = 0; lane < count; lane++) {
+                    algorithm.hash(candidates[lane], 0, candidates[lane].length, expected, 0);
+                    if(!Arrays.equals(expected, 0, width, out, lane * width, (lane + 1) * width))
+                        wrong++;
+                }
+            }
+
+            System.out.println(String.format("%d lanes differ", wrong));
+        }
+    }
+}
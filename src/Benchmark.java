@@ -0,0 +1,320 @@
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmarks of the cracking hot path. Every benchmark warms up first
+ * and then reports its best measured rate, per core where it is
+ * multithreaded, so runs of different releases can be compared
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Benchmark.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Benchmark {
+
+    // Time spent on each warmup and measurement round
+    static final long ROUND_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    static final int WARMUP_ROUNDS = 3;
+    static final int MEASURE_ROUNDS = 5;
+
+    // Results are folded into this so the JIT can't drop the work
+    static volatile long sink;
+
+
+    /**
+     * A piece of work that is run over and over
+     */
+    interface Op {
+
+        /**
+         * Runs the work a number of times
+         * @param n Number of operations to run
+         * @return Anything derived from the work
+         */
+        long run(int n);
+    }
+
+
+    /**
+     * Measures an operation
+     * @param name Name printed next to the result
+     * @param op Operation to measure
+     * @return Best rate seen, in operations per second
+     */
+    static double measure(String name, Op op) {
+
+        double best = 0;
+        int batch = 1024;
+
+        for(int round = 0; round < WARMUP_ROUNDS + MEASURE_ROUNDS; round++) {
+
+            long ops = 0;
+            long start = System.nanoTime();
+            long elapsed;
+
+            // Run batches until the round is over
+            do {
+                sink += op.run(batch);
+                ops += batch;
+                elapsed = System.nanoTime() - start;
+            } while(elapsed < ROUND_NANOS);
+
+            if(round >= WARMUP_ROUNDS)
+                best = Math.max(best, ops * 1e9 / elapsed);
+        }
+
+        System.out.println(String.format("%-40s %,15.0f ops/s", name, best));
+        return best;
+    }
+
+
+    /**
+     * Hash throughput of every registered algorithm on 8 byte candidates
+     */
+    static void hashAlgorithms() {
+
+        for(String name : HashAlgorithms.getNames().split(", ")) {
+
+            // Salted algorithms need targets to hash against
+            HashAlgorithm algorithm = HashAlgorithms.forName(name);
+            if(algorithm == null)
+                continue;
+
+            byte[] in = "passw0rd".getBytes(StandardCharsets.US_ASCII);
+            byte[] out = new byte[algorithm.getDigestLength()];
+
+            measure("hash " + name, n -> {
+                for(int i = 0; i < n; i++) {
+                    in[7] = (byte)i;
+                    algorithm.hash(in, 0, in.length, out, 0);
+                }
+                return out[0];
+            });
+
+            // The same candidates a batch at a time, ops are still single hashes
+            BatchHasher batchHasher = algorithm.newBatchHasher();
+            if(batchHasher == null)
+                continue;
+
+            CandidateBatch batch = new CandidateBatch();
+            byte[] batchOut = new byte[CandidateBatch.LANES * algorithm.getDigestLength()];
+            MaskAttack mask = new MaskAttack("passw?a?a?a");
+            CandidateGenerator generator = mask.newGenerator();
+            generator.seek(0);
+
+            measure("hash " + name + " batched x" + CandidateBatch.LANES, n -> {
+                for(int i = 0; i < n; i += CandidateBatch.LANES) {
+                    if(batch.fill(generator, mask.getKeyspace()) == 0) {
+                        generator.seek(0);
+                        batch.fill(generator, mask.getKeyspace());
+                    }
+                    batchHasher.hash(batch, batchOut);
+                }
+                return batchOut[0];
+            });
+        }
+    }
+
+
+    /**
+     * Candidate generation of the mask and wordlist modes
+     * @throws IOException if the temporary wordlist cannot be written
+     */
+    static void generators() throws IOException {
+
+        byte[] buf = new byte[CandidateGenerator.MAX_CANDIDATE];
+
+        // Mask odometer
+        MaskAttack mask = new MaskAttack("?a?a?a?a?a?a?a?a");
+        CandidateGenerator maskGen = mask.newGenerator();
+        maskGen.seek(0);
+        measure("generate mask ?a x8", n -> {
+            long len = 0;
+            for(int i = 0; i < n; i++)
+                len += maskGen.next(buf, Long.MAX_VALUE);
+            return len;
+        });
+
+        // Wordlist slicing over a 1M word temporary list
+        File file = File.createTempFile("liquidcrack", ".txt");
+        file.deleteOnExit();
+        try(OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            for(int i = 0; i < 1 << 20; i++)
+                out.write(String.format("word%d\n", i).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        WordlistAttack wordlist = new WordlistAttack(file);
+        CandidateGenerator wordGen = wordlist.newGenerator();
+        long[] pos = {0};
+        measure("generate wordlist (64KB slices)", n -> {
+            long len = 0;
+            for(int i = 0; i < n; i++) {
+
+                // Start a new slice whenever the current one runs out
+                int l = wordGen.next(buf, pos[0]);
+                if(l < 0) {
+                    long start = pos[0] >= wordlist.getKeyspace() ? 0 : pos[0];
+                    pos[0] = start + 65536;
+                    wordGen.seek(start);
+                    l = 0;
+                }
+                len += l;
+            }
+            return len;
+        });
+    }
+
+
+    /**
+     * Target index lookups of digests that miss, which is nearly every
+     * candidate in a real run
+     * @param sizes Number of targets to benchmark with
+     */
+    static void targetIndex(int[] sizes) {
+
+        for(int size : sizes) {
+
+            TargetIndex index = randomTargets(size, 16);
+            BloomFilter filter = BloomFilter.build(index, 16);
+            byte[][] probes = randomDigests(1024, 16, 2);
+
+            measure(String.format("index miss, %,d targets", size), n -> {
+                long hits = 0;
+                for(int i = 0; i < n; i++)
+                    hits += index.find(probes[i & 1023], 0);
+                return hits;
+            });
+
+            measure(String.format("bloom + index miss, %,d targets", size), n -> {
+                long hits = 0;
+                for(int i = 0; i < n; i++) {
+                    byte[] probe = probes[i & 1023];
+                    if(filter.mightContain(probe, 0))
+                        hits += index.find(probe, 0);
+                }
+                return hits;
+            });
+        }
+    }
+
+
+    /**
+     * End to end throughput of a mask attack through the scheduler
+     * @param maxThreads Largest number of workers to run with
+     * @throws InterruptedException if interrupted while waiting for a run
+     */
+    static void endToEnd(int maxThreads) throws InterruptedException {
+
+        TargetIndex targets = randomTargets(1000, 16);
+        MaskAttack attack = new MaskAttack("?l?l?l?l?l?l");
+
+        for(int threads = 1; threads <= maxThreads; threads *= 2) {
+
+            Progress progress = new Progress(attack.getKeyspace(), targets.size());
+            ResultWriter results;
+            try {
+                results = new ResultWriter(targets::toHex, null);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+
+            CrackScheduler scheduler = new CrackScheduler(threads, HashAlgorithms.forName("md5"),
+                    attack, targets, null, progress, results,
+                    new Checkpoint("md5", attack.getName(), attack.getKeyspace(), targets.size(), new byte[0]));
+            scheduler.start();
+
+            // Skip the first round to let the JIT settle
+            Thread.sleep(1000);
+            long start = System.nanoTime();
+            long before = progress.getCandidates();
+            Thread.sleep(3000);
+            double rate = (progress.getCandidates() - before) * 1e9 / (System.nanoTime() - start);
+
+            // Shutting down waits for the Crackers, so none of them is still
+            // hashing into the next measurement
+            scheduler.shutdown();
+            results.close();
+
+            System.out.println(String.format("%-40s %,15.0f H/s, %,.0f H/s per core",
+                    String.format("end to end md5 mask, %d threads", threads), rate, rate / threads));
+        }
+    }
+
+
+    /**
+     * Builds an index of random digests
+     * @param count Number of digests
+     * @param width Length of a digest in bytes
+     * @return The index
+     */
+    static TargetIndex randomTargets(int count, int width) {
+
+        ArrayList<HashChunk> chunks = new ArrayList<>();
+        HashChunk chunk = null;
+        Random random = new Random(1);
+        byte[] digest = new byte[width];
+
+        for(int i = 0; i < count; i++) {
+
+            if(chunk == null || chunk.isFull()) {
+                chunk = new HashChunk(width, HashChunk.DEFAULT_CAPACITY);
+                chunks.add(chunk);
+            }
+
+            random.nextBytes(digest);
+            System.arraycopy(digest, 0, chunk.getDigests(), chunk.reserve(), width);
+            chunk.commit();
+        }
+
+        return TargetIndex.build(width, chunks);
+    }
+
+
+    /**
+     * Makes random digests
+     * @param count Number of digests
+     * @param width Length of a digest in bytes
+     * @param seed Random seed, different from the one used for the targets
+     * @return The digests
+     */
+    static byte[][] randomDigests(int count, int width, long seed) {
+
+        Random random = new Random(seed);
+        byte[][] digests = new byte[count][width];
+        for(byte[] digest : digests)
+            random.nextBytes(digest);
+
+        return digests;
+    }
+
+
+    /**
+     * Runs the benchmarks
+     * @param args Optional list of target index sizes, i.e. 1 1000 1000000 50000000
+     * @throws Exception if a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+
+        int[] sizes = {1, 1000, 1000000};
+        if(args.length > 0) {
+            sizes = new int[args.length];
+            for(int i = 0; i < args.length; i++)
+                sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.println(String.format("%d cores, %s", Runtime.getRuntime().availableProcessors(),
+                System.getProperty("java.vm.version")));
+
+        hashAlgorithms();
+        generators();
+        targetIndex(sizes);
+        endToEnd(Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,165 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.stream.IntStream;
+
+/**
+ * Cache line blocked Bloom filter over the target digests. Each digest maps
+ * to one 512 bit block and all of its bits live in that block, so a miss
+ * costs at most one cache line load before the exact lookup is skipped
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: BloomFilter.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class BloomFilter {
+
+    // A block is one 64 byte cache line
+    static final int BLOCK_BITS = 512;
+    static final int WORDS_PER_BLOCK = BLOCK_BITS / 64;
+
+    // Each probe takes 9 bits of the second digest word
+    static final int MAX_PROBES = 7;
+
+    // Lets build threads set bits in the plain long[] atomically
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Instance variables
+    private long[] bits;
+    private int numBlocks;
+    private int probes;
+    private int width;
+    private long count;
+
+
+    /**
+     * BloomFilter constructor, use build() to fill one
+     * @param width Length of a digest in bytes, at least 16
+     * @param count Number of digests that will be added
+     * @param bitsPerTarget Number of filter bits to spend on each digest
+     */
+    BloomFilter(int width, long count, int bitsPerTarget) {
+
+        long blocks = Math.max(1, (count * bitsPerTarget + BLOCK_BITS - 1) / BLOCK_BITS);
+        if(blocks * WORDS_PER_BLOCK > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException(String.format(
+                    "Bloom filter of %d bits per target is too large", bitsPerTarget));
+
+        this.numBlocks = (int)blocks;
+        this.bits = new long[this.numBlocks * WORDS_PER_BLOCK];
+        this.width = width;
+        this.count = count;
+
+        // The optimal number of probes is ln(2) bits per target
+        this.probes = (int)Math.max(1, Math.min(MAX_PROBES, Math.round(bitsPerTarget * Math.log(2))));
+    }
+
+
+    /**
+     * Builds a filter over every target in an index. The targets are split
+     * between threads, which set their bits with an atomic or
+     * @param targets Index holding the target digests
+     * @param bitsPerTarget Number of filter bits to spend on each digest
+     * @return The new filter
+     */
+    public static BloomFilter build(TargetIndex targets, int bitsPerTarget) {
+
+        int width = targets.getWidth();
+        int count = targets.size();
+        BloomFilter filter = new BloomFilter(width, count, bitsPerTarget);
+        int parts = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), count / 4096));
+
+        IntStream.range(0, parts).parallel().forEach(part -> {
+
+            int first = (int)((long)count * part / parts);
+            int last = (int)((long)count * (part + 1) / parts);
+
+            byte[] digest = new byte[width];
+            for(int t = first; t < last; t++) {
+                targets.getDigest(t, digest, 0);
+                filter.set(digest, 0);
+            }
+        });
+
+        return filter;
+    }
+
+
+    /**
+     * Checks if a digest might be a target
+     * @param digest Buffer holding the digest
+     * @param off Offset of the digest
+     * @return False if the digest is definitely not a target
+     */
+    public boolean mightContain(byte[] digest, int off) {
+
+        int base = this.block(TargetIndex.key(digest, off, 8)) * WORDS_PER_BLOCK;
+        long h2 = TargetIndex.key(digest, off + 8, this.width - 8);
+
+        for(int i = 0; i < this.probes; i++) {
+
+            int bit = (int)(h2 >>> (9 * i)) & (BLOCK_BITS - 1);
+            if((this.bits[base + (bit >>> 6)] & (1L << bit)) == 0)
+                return false;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Memory getter
+     * @return Size of the filter in bytes
+     */
+    public long getMemory() { return (long)this.bits.length * 8; }
+
+
+    /**
+     * Estimates the false positive rate. Block loads follow a Poisson
+     * distribution, which is what makes a blocked filter slightly worse than
+     * a classic one of the same size
+     * @return Expected fraction of non-targets that pass the filter
+     */
+    public double getFalsePositiveRate() {
+
+        double lambda = (double)this.count / this.numBlocks;
+        double rate = 0;
+        double p = Math.exp(-lambda);
+        int limit = (int)(lambda + 10 * Math.sqrt(lambda) + 20);
+
+        // Sum the false positive rate of a block holding i digests over i
+        for(int i = 0; i <= limit; i++) {
+
+            double fill = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double)this.probes * i);
+            rate += p * Math.pow(fill, this.probes);
+            p = p * lambda / (i + 1);
+        }
+
+        return rate;
+    }
+
+
+    /**
+     * Sets the bits of a digest
+     * @param digest Buffer holding the digest
+     * @param off Offset of the digest
+     */
+    private void set(byte[] digest, int off) {
+
+        int base = this.block(TargetIndex.key(digest, off, 8)) * WORDS_PER_BLOCK;
+        long h2 = TargetIndex.key(digest, off + 8, this.width - 8);
+
+        for(int i = 0; i < this.probes; i++) {
+
+            int bit = (int)(h2 >>> (9 * i)) & (BLOCK_BITS - 1);
+            BITS.getAndBitwiseOr(this.bits, base + (bit >>> 6), 1L << bit);
+        }
+    }
+
+
+    /**
+     * Maps the first digest word to a block without a division
+     * @param h1 First word of the digest
+     * @return Block number
+     */
+    private int block(long h1) { return (int)(((h1 >>> 32) * this.numBlocks) >>> 32); }
+}
@@ -0,0 +1,75 @@
+/**
+ * A fixed number of candidates hashed together by a BatchHasher. Every lane
+ * has its own buffer so generators can fill the batch without allocating
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: CandidateBatch.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class CandidateBatch {
+
+    // Number of candidates in a full batch
+    static final int LANES = 16;
+
+    // Instance variables
+    private byte[][] candidates;
+    private int[] lengths;
+    private byte[] scratch;
+    private int count;
+
+
+    /**
+     * CandidateBatch constructor
+     */
+    CandidateBatch() {
+        this.candidates = new byte[LANES][CandidateGenerator.MAX_CANDIDATE];
+        this.lengths = new int[LANES];
+        this.scratch = new byte[CandidateGenerator.MAX_CANDIDATE];
+        this.count = 0;
+    }
+
+
+    /**
+     * Fills the batch from a generator. The candidate is generated into the
+     * same scratch buffer every time, as generators expect, and copied into
+     * its lane
+     * @param generator Generator to take candidates from
+     * @param end Index the generator should stop at (exclusive)
+     * @return Number of candidates in the batch, 0 once end is reached
+     */
+    public int fill(CandidateGenerator generator, long end) {
+
+        int n = 0;
+        int len;
+        while(n < LANES && (len = generator.next(this.scratch, end)) >= 0) {
+            System.arraycopy(this.scratch, 0, this.candidates[n], 0, len);
+            this.lengths[n++] = len;
+        }
+
+        this.count = n;
+        return n;
+    }
+
+
+    /**
+     * Gets the buffer of a lane
+     * @param lane Lane number
+     * @return Buffer holding the lane's candidate
+     */
+    public byte[] getCandidate(int lane) { return this.candidates[lane]; }
+
+
+    /**
+     * Gets the length of a lane's candidate
+     * @param lane Lane number
+     * @return Length of the candidate
+     */
+    public int getLength(int lane) { return this.lengths[lane]; }
+
+
+    /**
+     * Count getter
+     * @return Number of lanes holding a candidate
+     */
+    public int getCount() { return this.count; }
+}
@@ -0,0 +1,31 @@
+/**
+ * Walks part of an attack mode's keyspace, writing each candidate into a
+ * buffer owned by the caller. Generators are used by a single worker, which
+ * passes the same buffer on every call after a seek so generators can update
+ * the previous candidate in place
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: CandidateGenerator.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public interface CandidateGenerator {
+
+    // Longest candidate any generator will produce
+    int MAX_CANDIDATE = 256;
+
+
+    /**
+     * Moves the generator to a position in the keyspace
+     * @param index Index the next candidate should come from
+     */
+    void seek(long index);
+
+
+    /**
+     * Writes the next candidate into the buffer
+     * @param buf Buffer of at least MAX_CANDIDATE bytes
+     * @param end Index the generator should stop at (exclusive)
+     * @return Length of the candidate, or -1 once end is reached
+     */
+    int next(byte[] buf, long end);
+}
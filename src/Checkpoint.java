@@ -0,0 +1,184 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Saved state of a run: what is being attacked, which keyspace ranges are
+ * done and which targets are cracked. Saving writes a temporary file and
+ * renames it over the old one, so a crash mid save never loses the last
+ * good checkpoint
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Checkpoint.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Checkpoint {
+
+    // File header
+    static final int MAGIC = 0x4c51434b;
+    static final int VERSION = 3;
+
+    // Instance variables
+    private String hashMethod;
+    private String attackName;
+    private long keyspace;
+    private byte[] fingerprint;
+    private RangeSet done;
+    private CrackedSet cracked;
+
+
+    /**
+     * Checkpoint constructor
+     * @param hashMethod Name of the hash algorithm
+     * @param attackName Name of the attack mode, including its parameters
+     * @param keyspace Number of indices in the keyspace
+     * @param targets Number of targets
+     * @param fingerprint Fingerprint of the targets, in target number order
+     */
+    Checkpoint(String hashMethod, String attackName, long keyspace, int targets, byte[] fingerprint) {
+        this.hashMethod = hashMethod;
+        this.attackName = attackName;
+        this.keyspace = keyspace;
+        this.fingerprint = fingerprint;
+        this.done = new RangeSet();
+        this.cracked = new CrackedSet(targets);
+    }
+
+
+    /**
+     * Loads a checkpoint
+     * @param file File the checkpoint was saved to
+     * @return The loaded checkpoint
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     */
+    public static Checkpoint load(File file) throws IOException {
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+
+            if(in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException(String.format("%s is not a checkpoint file", file));
+
+            String hashMethod = in.readUTF();
+            String attackName = in.readUTF();
+            long keyspace = in.readLong();
+            int targets = in.readInt();
+            byte[] fingerprint = new byte[in.readUnsignedShort()];
+            in.readFully(fingerprint);
+            Checkpoint checkpoint = new Checkpoint(hashMethod, attackName, keyspace, targets, fingerprint);
+
+            // Completed ranges
+            int numRanges = in.readInt();
+            for(int i = 0; i < numRanges; i++)
+                checkpoint.done.add(in.readLong(), in.readLong());
+
+            // Cracked bitmap
+            long[] words = new long[in.readInt()];
+            for(int i = 0; i < words.length; i++)
+                words[i] = in.readLong();
+            checkpoint.cracked.addAll(words);
+
+            return checkpoint;
+        }
+    }
+
+
+    /**
+     * Saves this checkpoint, replacing the file atomically
+     * @param file File to save to
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(this.hashMethod);
+            out.writeUTF(this.attackName);
+            out.writeLong(this.keyspace);
+            out.writeInt(this.cracked.size());
+            out.writeShort(this.fingerprint.length);
+            out.write(this.fingerprint);
+
+            ArrayList<long[]> ranges = this.done.getRanges();
+            out.writeInt(ranges.size());
+            for(long[] range : ranges) {
+                out.writeLong(range[0]);
+                out.writeLong(range[1]);
+            }
+
+            long[] words = this.cracked.toArray();
+            out.writeInt(words.length);
+            for(long word : words)
+                out.writeLong(word);
+        }
+
+        Files.move(tmp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /**
+     * Checks if this checkpoint belongs to a run
+     * @param other Checkpoint describing the run
+     * @return True if both describe the same attack on the same targets,
+     * numbered the same way
+     */
+    public boolean matches(Checkpoint other) {
+        return this.hashMethod.equals(other.hashMethod) && this.attackName.equals(other.attackName) &&
+                this.keyspace == other.keyspace && this.cracked.size() == other.cracked.size() &&
+                Arrays.equals(this.fingerprint, other.fingerprint);
+    }
+
+
+    /**
+     * Hash method getter
+     * @return Name of the hash algorithm
+     */
+    public String getHashMethod() { return this.hashMethod; }
+
+
+    /**
+     * Attack name getter
+     * @return Name of the attack mode, including its parameters
+     */
+    public String getAttackName() { return this.attackName; }
+
+
+    /**
+     * Keyspace getter
+     * @return Number of indices in the keyspace
+     */
+    public long getKeyspace() { return this.keyspace; }
+
+
+    /**
+     * Fingerprint getter
+     * @return Fingerprint of the targets, in target number order
+     */
+    public byte[] getFingerprint() { return this.fingerprint; }
+
+
+    /**
+     * Done getter
+     * @return Keyspace ranges that have been searched
+     */
+    public RangeSet getDone() { return this.done; }
+
+
+    /**
+     * Cracked getter
+     * @return Targets that have been cracked
+     */
+    public CrackedSet getCracked() { return this.cracked; }
+}
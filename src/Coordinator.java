@@ -0,0 +1,694 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Hands the keyspace out to RemoteWorkers as leases. A lease stays with a
+ * worker for as long as it keeps reporting progress; leases of workers that
+ * time out or disconnect go back to the front of the queue for the next
+ * worker that asks. Everything runs on one thread around a non-blocking
+ * selector, so the lease bookkeeping needs no locking
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Coordinator.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Coordinator implements Closeable {
+
+    // Longest the selector waits before checking for expired leases
+    static final long TICK_MILLIS = 200;
+
+    // Smallest lease handed out unless less is left
+    static final long MIN_LEASE = 1024;
+
+    // Instance variables
+    private ServerSocketChannel server;
+    private Selector selector;
+    private Checkpoint checkpoint;
+    private Progress progress;
+    private ResultWriter results;
+    private long leaseTimeout;
+    private ArrayDeque<long[]> pending;
+    private HashMap<Long, Lease> leases;
+    private HashMap<Long, Lease> expired;
+    private ArrayList<Connection> connections;
+    private long nextLease;
+    private boolean finished;
+    private long finishedAt;
+    private volatile int waiting;
+    private volatile int leased;
+
+
+    /**
+     * Coordinator constructor
+     * @param port Port to listen on, 0 for any free port
+     * @param checkpoint State of the run, only its gaps are leased out
+     * @param progress Progress of the run, every worker gets a counter from it
+     * @param results Receives the hashes cracked by workers
+     * @param leaseTimeout Milliseconds a lease survives without progress reports
+     * @throws IOException if the port cannot be bound
+     */
+    Coordinator(int port, Checkpoint checkpoint, Progress progress, ResultWriter results,
+                long leaseTimeout) throws IOException {
+        this.checkpoint = checkpoint;
+        this.progress = progress;
+        this.results = results;
+        this.leaseTimeout = leaseTimeout;
+        this.pending = new ArrayDeque<>(checkpoint.getDone().getGaps(checkpoint.getKeyspace()));
+        this.leases = new HashMap<>();
+        this.expired = new HashMap<>();
+        this.connections = new ArrayList<>();
+        this.nextLease = 1;
+
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        this.server.bind(new InetSocketAddress(port));
+        this.server.configureBlocking(false);
+        this.server.register(this.selector, SelectionKey.OP_ACCEPT);
+    }
+
+
+    /**
+     * Gets the port being listened on
+     * @return The bound port
+     * @throws IOException if the port cannot be read
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress)this.server.getLocalAddress()).getPort();
+    }
+
+
+    /**
+     * Serves workers until the whole keyspace is searched or every target
+     * is cracked, and every worker has disconnected
+     * @throws IOException if the selector fails
+     */
+    public void run() throws IOException {
+
+        this.progress.rangeRestored(this.checkpoint.getDone().getTotal());
+
+        while(!this.finished || !this.connections.isEmpty()) {
+
+            this.selector.select(TICK_MILLIS);
+
+            Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+            while(keys.hasNext()) {
+
+                SelectionKey key = keys.next();
+                keys.remove();
+
+                if(!key.isValid())
+                    continue;
+
+                if(key.isAcceptable()) {
+                    this.accept();
+                    continue;
+                }
+
+                Connection conn = (Connection)key.attachment();
+                try {
+                    if(key.isReadable())
+                        this.read(conn);
+                    if(key.isValid() && key.isWritable())
+                        this.flush(conn);
+                } catch (IOException | RuntimeException e) {
+                    this.drop(conn, e.getMessage());
+                }
+            }
+
+            this.tick();
+        }
+    }
+
+
+    /**
+     * Gets the number of ranges waiting to be leased, as of the last tick
+     * @return Ranges not leased to any worker
+     */
+    public long getWaiting() { return this.waiting; }
+
+
+    /**
+     * Gets the number of leases out with workers, as of the last tick
+     * @return Active leases
+     */
+    public long getLeased() { return this.leased; }
+
+
+    @Override
+    public void close() throws IOException {
+
+        for(Connection conn : new ArrayList<>(this.connections))
+            conn.channel.close();
+
+        this.server.close();
+        this.selector.close();
+    }
+
+
+    /**
+     * Accepts a new worker
+     * @throws IOException if the connection cannot be set up
+     */
+    private void accept() throws IOException {
+
+        SocketChannel channel = this.server.accept();
+        if(channel == null)
+            return;
+
+        channel.configureBlocking(false);
+        Connection conn = new Connection(channel);
+        conn.key = channel.register(this.selector, SelectionKey.OP_READ, conn);
+        this.connections.add(conn);
+    }
+
+
+    /**
+     * Reads whatever a worker sent and handles every complete frame
+     * @param conn Connection to read from
+     * @throws IOException if the connection fails or sends a bad frame
+     */
+    private void read(Connection conn) throws IOException {
+
+        if(conn.channel.read(conn.in) < 0) {
+            this.drop(conn, null);
+            return;
+        }
+
+        conn.in.flip();
+        while(conn.in.remaining() >= 4) {
+
+            int len = conn.in.getInt(conn.in.position());
+            if(len < 1 || len > Protocol.MAX_FRAME)
+                throw new IOException(String.format("Bad frame length %d", len));
+
+            // Wait for the rest of the frame, growing the buffer if it can't hold it
+            if(conn.in.remaining() < 4 + len) {
+                if(conn.in.capacity() < 4 + len) {
+                    ByteBuffer bigger = ByteBuffer.allocate(4 + len);
+                    bigger.put(conn.in);
+                    bigger.flip();
+                    conn.in = bigger;
+                }
+                break;
+            }
+
+            ByteBuffer frame = conn.in.slice();
+            frame.position(4).limit(4 + len);
+            conn.in.position(conn.in.position() + 4 + len);
+
+            try {
+                this.handle(conn, frame.get(), frame);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Malformed message", e);
+            }
+
+            if(!conn.channel.isOpen())
+                return;
+        }
+
+        conn.in.compact();
+    }
+
+
+    /**
+     * Handles one message from a worker
+     * @param conn Connection the message came from
+     * @param type Type of the message
+     * @param payload Payload of the message
+     * @throws IOException if the message breaks the protocol
+     */
+    private void handle(Connection conn, byte type, ByteBuffer payload) throws IOException {
+
+        // Nothing but a hello is accepted until the worker has introduced itself
+        if(conn.counter == null && type != Protocol.HELLO)
+            throw new IOException("Expected a hello");
+
+        switch(type) {
+
+            case Protocol.HELLO: {
+
+                int version = payload.getInt();
+                Checkpoint theirs = new Checkpoint(Protocol.getString(payload), Protocol.getString(payload),
+                        payload.getLong(), payload.getInt(), Protocol.getBytes(payload));
+
+                if(version != Protocol.VERSION || !this.checkpoint.matches(theirs)) {
+                    this.send(conn, new Protocol.Frame(Protocol.ERROR).putString(
+                            "Worker is running a different attack or set of hashes"));
+                    this.drop(conn, null);
+                    return;
+                }
+
+                conn.counter = this.progress.newCounter();
+                this.send(conn, new Protocol.Frame(Protocol.WELCOME).putLong(this.leaseTimeout)
+                        .putBytes(Protocol.pack(this.checkpoint.getCracked().toArray())));
+                break;
+            }
+
+            case Protocol.REQUEST:
+                conn.wanted = Math.max(MIN_LEASE, payload.getLong());
+                this.serve(conn);
+                break;
+
+            case Protocol.PROGRESS: {
+
+                Lease lease = this.leases.get(payload.getLong());
+                if(lease != null && lease.owner == conn)
+                    lease.deadline = System.currentTimeMillis() + this.leaseTimeout;
+
+                conn.counter.addCandidates(payload.getLong());
+                break;
+            }
+
+            case Protocol.COMPLETE: {
+
+                long id = payload.getLong();
+                long from = payload.getLong();
+                long to = payload.getLong();
+
+                // A late completion of an expired lease still counts, the range was searched,
+                // so the copy of it that went back in the queue is taken out again
+                Lease lease = this.leases.get(id);
+                boolean late = lease == null;
+                if(late)
+                    lease = this.expired.get(id);
+                if(lease == null || lease.owner != conn || lease.from != from || lease.to != to)
+                    throw new IOException(String.format("Completion of unknown lease %d [%d, %d)", id, from, to));
+
+                if(late) {
+                    this.expired.remove(id);
+                    this.unqueue(from, to);
+                } else {
+                    this.leases.remove(id);
+                }
+
+                long before = this.checkpoint.getDone().getTotal();
+                this.checkpoint.getDone().add(from, to);
+                this.progress.rangeDone(this.checkpoint.getDone().getTotal() - before);
+                break;
+            }
+
+            case Protocol.CRACKED: {
+
+                int target = payload.getInt();
+                byte[] plain = Protocol.getBytes(payload);
+                if(target < 0 || target >= this.checkpoint.getCracked().size())
+                    throw new IOException(String.format("Bad target %d", target));
+
+                // Only the first report counts, and every other worker is told to stop looking
+                if(!this.checkpoint.getCracked().add(target))
+                    break;
+
+                conn.counter.addCracked(1);
+                this.results.add(target, plain, plain.length);
+                for(Connection other : new ArrayList<>(this.connections))
+                    if(other != conn && other.counter != null)
+                        this.send(other, new Protocol.Frame(Protocol.CRACKED).putInt(target).putBytes(plain));
+                break;
+            }
+
+            default:
+                throw new IOException(String.format("Unknown message type %d", type));
+        }
+    }
+
+
+    /**
+     * Gives a waiting worker a lease if there is one to give
+     * @param conn Connection of the worker
+     */
+    private void serve(Connection conn) {
+
+        if(conn.wanted == 0)
+            return;
+
+        if(this.finished) {
+            conn.wanted = 0;
+            this.send(conn, new Protocol.Frame(Protocol.FINISHED));
+            return;
+        }
+
+        // Everything is leased out, the worker waits until something expires or is done
+        long[] range = this.pending.poll();
+        if(range == null)
+            return;
+
+        // Split the range if it's more than the worker asked for
+        long to = range[1];
+        if(to - range[0] > conn.wanted) {
+            to = range[0] + conn.wanted;
+            this.pending.addFirst(new long[]{to, range[1]});
+        }
+
+        Lease lease = new Lease(this.nextLease++, range[0], to, conn);
+        lease.deadline = System.currentTimeMillis() + this.leaseTimeout;
+        this.leases.put(lease.id, lease);
+        conn.wanted = 0;
+
+        this.send(conn, new Protocol.Frame(Protocol.LEASE).putLong(lease.id).putLong(lease.from).putLong(lease.to));
+    }
+
+
+    /**
+     * Takes a range out of the queue once it has been searched. Any part of it
+     * already leased out again is still searched, and its completion only
+     * counts what the done ranges don't already cover
+     * @param from First index of the range
+     * @param to End of the range (exclusive)
+     */
+    private void unqueue(long from, long to) {
+
+        ArrayDeque<long[]> kept = new ArrayDeque<>();
+        for(long[] range : this.pending) {
+
+            if(range[1] <= from || range[0] >= to) {
+                kept.add(range);
+                continue;
+            }
+
+            // Keep whatever sticks out either side
+            if(range[0] < from)
+                kept.add(new long[]{range[0], from});
+            if(range[1] > to)
+                kept.add(new long[]{to, range[1]});
+        }
+
+        this.pending = kept;
+    }
+
+
+    /**
+     * Reclaims expired leases, serves waiting workers and notices when the
+     * run is over
+     */
+    private void tick() {
+
+        long now = System.currentTimeMillis();
+        Iterator<Lease> it = this.leases.values().iterator();
+        while(it.hasNext()) {
+
+            Lease lease = it.next();
+            if(lease.deadline < now) {
+                it.remove();
+                this.expired.put(lease.id, lease);
+                this.pending.addFirst(new long[]{lease.from, lease.to});
+            }
+        }
+
+        if(!this.finished && (this.checkpoint.getCracked().isComplete() ||
+                (this.pending.isEmpty() && this.leases.isEmpty()))) {
+            this.finished = true;
+            this.finishedAt = now;
+        }
+
+        // Finished also tells workers still in the middle of a lease to stop,
+        // they get a lease timeout to send their last results and hang up
+        for(Connection conn : new ArrayList<>(this.connections)) {
+
+            if(this.finished && now - this.finishedAt > this.leaseTimeout) {
+                this.drop(conn, "did not disconnect after finishing");
+            } else if(this.finished && conn.counter != null && !conn.told) {
+                conn.told = true;
+                conn.wanted = 0;
+                this.send(conn, new Protocol.Frame(Protocol.FINISHED));
+            } else {
+                this.serve(conn);
+            }
+        }
+
+        // Published for metrics, the queues themselves belong to this thread
+        this.waiting = this.pending.size();
+        this.leased = this.leases.size();
+    }
+
+
+    /**
+     * Queues a message to a worker and writes as much of it as the socket takes,
+     * a worker that can't be written to is dropped
+     * @param conn Connection to send on
+     * @param frame Message to send
+     */
+    private void send(Connection conn, Protocol.Frame frame) {
+
+        if(!conn.channel.isOpen())
+            return;
+
+        conn.out.add(frame.finish());
+        try {
+            this.flush(conn);
+        } catch (IOException e) {
+            this.drop(conn, e.getMessage());
+        }
+    }
+
+
+    /**
+     * Writes queued messages until the socket stops taking them
+     * @param conn Connection to write to
+     * @throws IOException if the connection fails
+     */
+    private void flush(Connection conn) throws IOException {
+
+        while(!conn.out.isEmpty()) {
+
+            ByteBuffer buf = conn.out.peek();
+            conn.channel.write(buf);
+            if(buf.hasRemaining())
+                break;
+
+            conn.out.poll();
+        }
+
+        // Only ask for write readiness while something is waiting to go out
+        conn.key.interestOps(conn.out.isEmpty() ? SelectionKey.OP_READ :
+                SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+
+    /**
+     * Closes a connection and puts its leases back in the queue
+     * @param conn Connection to drop
+     * @param reason Why it was dropped, null if it closed normally
+     */
+    private void drop(Connection conn, String reason) {
+
+        if(reason != null)
+            System.err.println(String.format("Dropping worker %s: %s", conn.address, reason));
+
+        this.connections.remove(conn);
+        conn.key.cancel();
+        try {
+            conn.channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+
+        Iterator<Lease> it = this.leases.values().iterator();
+        while(it.hasNext()) {
+
+            Lease lease = it.next();
+            if(lease.owner == conn) {
+                it.remove();
+                this.pending.addFirst(new long[]{lease.from, lease.to});
+            }
+        }
+
+        // Expired leases of the worker can no longer be completed
+        this.expired.values().removeIf(lease -> lease.owner == conn);
+    }
+
+
+    /**
+     * A range of the keyspace leased to a worker
+     */
+    static class Lease {
+
+        // Instance variables
+        private long id;
+        private long from;
+        private long to;
+        private Connection owner;
+        private long deadline;
+
+
+        /**
+         * Lease constructor
+         * @param id Id the worker refers to the lease by
+         * @param from First index of the range
+         * @param to End of the range (exclusive)
+         * @param owner Connection of the worker holding the lease
+         */
+        Lease(long id, long from, long to, Connection owner) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+            this.owner = owner;
+        }
+    }
+
+
+    /**
+     * State of a worker's connection
+     */
+    static class Connection {
+
+        // Instance variables
+        private SocketChannel channel;
+        private SelectionKey key;
+        private String address;
+        private ByteBuffer in;
+        private ArrayDeque<ByteBuffer> out;
+        private Progress.Counter counter;
+        private long wanted;
+        private boolean told;
+
+
+        /**
+         * Connection constructor
+         * @param channel Channel of the worker
+         * @throws IOException if the remote address cannot be read
+         */
+        Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.address = String.valueOf(channel.getRemoteAddress());
+            this.in = ByteBuffer.allocate(1 << 16);
+            this.out = new ArrayDeque<>();
+        }
+    }
+
+
+    /**
+     * Connects a worker for debugging and says hello
+     * @param port Port the coordinator listens on
+     * @param checkpoint State of the run the worker claims to be part of
+     * @return The connection, welcomed by the coordinator
+     * @throws IOException if the coordinator turns the worker away
+     */
+    private static SocketChannel debugConnect(int port, Checkpoint checkpoint) throws IOException {
+
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+        debugSend(channel, new Protocol.Frame(Protocol.HELLO).putInt(Protocol.VERSION)
+                .putString(checkpoint.getHashMethod()).putString(checkpoint.getAttackName())
+                .putLong(checkpoint.getKeyspace()).putInt(checkpoint.getCracked().size())
+                .putBytes(checkpoint.getFingerprint()));
+
+        if(debugRead(channel).get() != Protocol.WELCOME)
+            throw new IOException("Not welcomed");
+
+        return channel;
+    }
+
+
+    /**
+     * Sends a message as a debugging worker
+     * @param channel Connection of the worker
+     * @param frame Message to send
+     * @throws IOException if the connection fails
+     */
+    private static void debugSend(SocketChannel channel, Protocol.Frame frame) throws IOException {
+
+        ByteBuffer buf = frame.finish();
+        while(buf.hasRemaining())
+            channel.write(buf);
+    }
+
+
+    /**
+     * Reads a message as a debugging worker
+     * @param channel Connection of the worker
+     * @return The message type followed by its payload, null if the coordinator hung up
+     * @throws IOException if the connection fails
+     */
+    private static ByteBuffer debugRead(SocketChannel channel) throws IOException {
+
+        ByteBuffer length = ByteBuffer.allocate(4);
+        while(length.hasRemaining())
+            if(channel.read(length) < 0)
+                return null;
+
+        ByteBuffer frame = ByteBuffer.allocate(length.getInt(0));
+        while(frame.hasRemaining())
+            if(channel.read(frame) < 0)
+                return null;
+
+        frame.flip();
+        return frame;
+    }
+
+
+    /**
+     * Asks for a lease as a debugging worker
+     * @param channel Connection of the worker
+     * @param wanted Number of indices to ask for
+     * @return Id, from and to of the lease
+     * @throws IOException if the connection fails or no lease is given
+     */
+    private static long[] debugLease(SocketChannel channel, long wanted) throws IOException {
+
+        debugSend(channel, new Protocol.Frame(Protocol.REQUEST).putLong(wanted));
+        ByteBuffer lease = debugRead(channel);
+        if(lease == null || lease.get() != Protocol.LEASE)
+            throw new IOException("No lease");
+
+        return new long[]{lease.getLong(), lease.getLong(), lease.getLong()};
+    }
+
+
+    /**
+     * Used for debugging, plays workers against a coordinator over loopback
+     */
+    public static void main(String[] args) throws Exception {
+
+        Checkpoint checkpoint = new Checkpoint("md5", "debug", 10000, 1, new byte[0]);
+        ResultWriter results = new ResultWriter(target -> "target", null);
+        Coordinator coordinator = new Coordinator(0, checkpoint, new Progress(10000, 1), results, 300);
+        Thread thread = new Thread(() -> {
+            try {
+                coordinator.run();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+
+
+        System.out.println("TEST 1 - should print 2048 [2048, 10000]");
+        // TEST 1, a lease completes after it expired and its front was leased
+        // again, then the second lease completes too
+        SocketChannel first = debugConnect(coordinator.getPort(), checkpoint);
+        long[] late = debugLease(first, 2048);
+        Thread.sleep(3 * 300);
+
+        SocketChannel second = debugConnect(coordinator.getPort(), checkpoint);
+        long[] again = debugLease(second, MIN_LEASE);
+        debugSend(first, new Protocol.Frame(Protocol.COMPLETE).putLong(late[0]).putLong(late[1]).putLong(late[2]));
+        debugSend(second, new Protocol.Frame(Protocol.COMPLETE).putLong(again[0]).putLong(again[1]).putLong(again[2]));
+        Thread.sleep(TICK_MILLIS);
+
+        StringBuilder gaps = new StringBuilder();
+        for(long[] gap : checkpoint.getDone().getGaps(checkpoint.getKeyspace()))
+            gaps.append(String.format("[%d, %d]", gap[0], gap[1]));
+        System.out.println(String.format("%d %s", checkpoint.getDone().getTotal(), gaps));
+
+
+        System.out.println("TEST 2 - should print dropped");
+        // TEST 2, completing a lease that was never given out drops the worker
+        debugSend(first, new Protocol.Frame(Protocol.COMPLETE).putLong(99).putLong(0).putLong(10000));
+        System.out.println(debugRead(first) == null ? "dropped" : "still connected");
+
+        first.close();
+        second.close();
+        results.close();
+    }
+}
@@ -0,0 +1,487 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything a run is configured with, parsed and checked in one pass over
+ * the command line. A config is immutable, so one can be handed to another
+ * thread or kept for later, and parse() reports what is wrong with a command
+ * line as a list of errors rather than exiting, so cracks can be configured
+ * and launched in process with Main.run()
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: CrackConfig.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class CrackConfig {
+
+    // Defaults
+    static final Duration CHECKPOINT_INTERVAL = Duration.ofSeconds(60);
+    static final Duration LEASE_TIMEOUT = Duration.ofSeconds(60);
+    static final int CHAIN_LENGTH = 1000;
+
+    // Instance variables
+    private final List<String> hashes;
+    private final String inputFile;
+    private final String hashStore;
+    private final String outputFile;
+    private final String hashMethod;
+    private final int numWorkers;
+    private final String checkpoint;
+    private final String resume;
+    private final Duration checkpointInterval;
+    private final String wordlist;
+    private final String rules;
+    private final int bloomBits;
+    private final String mask;
+    private final boolean prepend;
+    private final String markov;
+    private final int markovThreshold;
+    private final String trainMarkov;
+    private final List<String> rainbowTables;
+    private final String generateTable;
+    private final int chainLength;
+    private final long chains;
+    private final long tableSize;
+    private final int minLength;
+    private final Integer listen;
+    private final String connectHost;
+    private final int connectPort;
+    private final Duration leaseTimeout;
+    private final Integer metricsPort;
+
+
+    /**
+     * CrackConfig constructor, use parse() to create one
+     * @param res Parsed command line, already checked
+     * @param connectHost Host part of --connect, or null
+     * @param connectPort Port part of --connect
+     */
+    private CrackConfig(ParserResult res, String connectHost, int connectPort) {
+        this.hashes = Collections.unmodifiableList(new ArrayList<>(res.getExtraArgs()));
+        this.inputFile = res.getString("inputFile");
+        this.hashStore = res.getString("hashStore");
+        this.outputFile = res.getString("outputFile");
+        this.hashMethod = res.getString("hashMethod");
+        this.numWorkers = res.getInt("numWorker", Runtime.getRuntime().availableProcessors());
+        this.checkpoint = res.getString("checkpoint");
+        this.resume = res.getString("resume");
+        this.checkpointInterval = Duration.ofMillis(
+                res.getLong("checkpointInterval", CHECKPOINT_INTERVAL.toMillis()));
+        this.wordlist = res.getString("wordlist");
+        this.rules = res.getString("rules");
+        this.bloomBits = res.getInt("bloomBits", 0);
+        this.mask = res.getString("mask");
+        this.prepend = res.getFlag("prepend");
+        this.markov = res.getString("markov");
+        this.markovThreshold = res.getInt("markovThreshold", Integer.MAX_VALUE);
+        this.trainMarkov = res.getString("trainMarkov");
+        this.rainbowTables = res.getList("rainbowTable");
+        this.generateTable = res.getString("generateTable");
+        this.chainLength = res.getInt("chainLength", CHAIN_LENGTH);
+        this.chains = res.getLong("chains", 0);
+        this.tableSize = res.getLong("tableSize", 0);
+        this.minLength = res.getInt("minLength", 0);
+        this.listen = res.has("listen") ? res.getInt("listen", 0) : null;
+        this.connectHost = connectHost;
+        this.connectPort = connectPort;
+        this.leaseTimeout = Duration.ofMillis(res.getLong("leaseTimeout", LEASE_TIMEOUT.toMillis()));
+        this.metricsPort = res.has("metricsPort") ? res.getInt("metricsPort", 0) : null;
+    }
+
+
+    /**
+     * Creates the parser for the command line
+     * @return Parser knowing every argument
+     */
+    static ArgumentParser newParser() {
+
+        // Create arg parser and get number of cores desired to use
+        ArgumentParser parser = new ArgumentParser();
+        parser.addArgument(Argtype.INTEGER, "numWorker", "w",
+                "Number of worker to use. Default is the number of cores available.");
+        parser.addArgument(Argtype.STRING, "inputFile", "i",
+                "File holding a series of hashes (one per line).");
+        parser.addArgument(Argtype.STRING, "hashStore", "h",
+                "Index of the hashes saved for later runs. Mapped back in if it exists, " +
+                "otherwise saved once the hashes are loaded.");
+        parser.addArgument(Argtype.STRING, "outputFile", "o",
+                "Potfile cracked hashes are appended to (hash:plain).");
+        parser.addArgument(Argtype.STRING, "checkpoint", "c",
+                "File the state of the run is saved to periodically.");
+        parser.addArgument(Argtype.STRING, "resume", "r",
+                "Checkpoint file of an interrupted run to resume. Keeps saving to it.");
+        parser.addArgument(Argtype.DURATION, "checkpointInterval", "s",
+                "Time between checkpoints, i.e. 90s or 5m (seconds without a unit). Default is 60s.");
+        parser.addArgument(Argtype.ENUM, "hashMethod", "m",
+                "Method of hashing used on the hashes (" + HashAlgorithms.getNames() + "). " +
+                "Plain digests given as hash:salt are hashed as hash(password + salt).");
+        parser.addArgument(Argtype.STRING, "wordlist", "l",
+                "Wordlist to try against the hashes (one word per line).");
+        parser.addArgument(Argtype.STRING, "rules", "u",
+                "File of hashcat style rules applied to every word of the wordlist (one rule per line).");
+        parser.addArgument(Argtype.INTEGER, "bloomBits", "b",
+                "Bits per hash of a Bloom filter checked before the hash lookup. Off by default.");
+        parser.addArgument(Argtype.STRING, "mask", "k",
+                "Mask to brute force i.e. ?l?l?d?d?d (?l ?u ?d ?s ?a ?h ?H, ?? for '?'). " +
+                "With --wordlist it is appended to every word.");
+        parser.addArgument(Argtype.STRING, "markov", "v",
+                "Markov statistics file to order the --mask candidates by, likeliest first.");
+        parser.addArgument(Argtype.INTEGER, "markovThreshold", "f",
+                "Only try this many of the likeliest characters at each position of the --mask.");
+        parser.addArgument(Argtype.STRING, "trainMarkov", "j",
+                "Wordlist or potfile to train Markov statistics from. " +
+                "They are saved to --markov and the program exits.");
+        parser.addArgument(Argtype.FLAG, "prepend", "a",
+                "Put the mask in front of every word instead when combining --wordlist and --mask.");
+        parser.addArgument(Argtype.LIST, "rainbowTable", "y",
+                "Rainbow tables to look the hashes up in instead of brute forcing (comma separated).");
+        parser.addArgument(Argtype.STRING, "generateTable", "g",
+                "Generate a rainbow table over the plaintexts of --mask into this file and exit.");
+        parser.addArgument(Argtype.INTEGER, "chainLength", "z",
+                "Hashes in every chain of a generated rainbow table. Default is 1000.");
+        parser.addArgument(Argtype.LONG, "chains", "x",
+                "Chains in a generated rainbow table. Default is enough to cover the mask about once.");
+        parser.addArgument(Argtype.SIZE, "tableSize", "d",
+                "Size of a generated rainbow table i.e. 4G, instead of giving --chains.");
+        parser.addArgument(Argtype.INTEGER, "minLength", "q",
+                "Shortest plaintexts of a generated rainbow table, shorter ones are prefixes of --mask. " +
+                "Default is the length of the mask.");
+        parser.addArgument(Argtype.INTEGER, "listen", "p",
+                "Coordinate a distributed run, leasing the keyspace to workers connecting on this port.");
+        parser.addArgument(Argtype.STRING, "connect", "n",
+                "Crack leases for the coordinator at host:port. Takes the same hashes and attack.");
+        parser.addArgument(Argtype.DURATION, "leaseTimeout", "t",
+                "Time a worker may go quiet before its lease is handed to another. Default is 60s.");
+        parser.addArgument(Argtype.INTEGER, "metricsPort", "e",
+                "Serve Prometheus metrics at http://localhost:<port>/metrics.");
+
+        parser.getArg("hashMethod").setChoices(HashAlgorithms.getNames().split(", "));
+
+        // Hash method is required
+        parser.setRequired("hashMethod");
+
+        return parser;
+    }
+
+
+    /**
+     * Prints the usage of the program
+     */
+    public static void usage() { newParser().usage(); }
+
+
+    /**
+     * Parses and checks a command line
+     * @param args Command line to parse
+     * @return The config, or everything wrong with the command line
+     */
+    public static Result parse(String[] args) {
+
+        ParserResult res = newParser().parseArgs(args);
+        List<String> errors = new ArrayList<>(res.getErrors());
+        if(!errors.isEmpty())
+            return new Result(null, errors);
+
+        // Tables and statistics are made without any hashes
+        if(res.has("generateTable")) {
+
+            if(!res.has("mask"))
+                errors.add("--generateTable needs a --mask to draw the plaintexts from");
+            if(HashAlgorithms.forName(res.getString("hashMethod")) == null)
+                errors.add("Rainbow tables can only be generated for unsalted hash methods");
+            if(res.has("chains") && res.has("tableSize"))
+                errors.add("Only one of --chains and --tableSize can be given");
+        } else if(res.has("trainMarkov")) {
+
+            if(!res.has("markov"))
+                errors.add("--trainMarkov needs a --markov file to save the statistics to");
+        } else {
+
+            // Check if one or more hashes is supplied through an input file,
+            // via the commandline or in a saved hash store
+            if(!res.has("inputFile") && !res.has("hashStore") && res.getExtraArgs().isEmpty())
+                errors.add("Program requires either a hash or series " +
+                        "of hashes on the commandline, an input file or a hash store");
+
+            // At least one of the attack modes has to be used, both make a hybrid attack
+            if(!res.has("wordlist") && !res.has("mask") && !res.has("rainbowTable"))
+                errors.add("At least one of --wordlist, --mask and --rainbowTable has to be supplied");
+
+            if(res.has("rules") && (!res.has("wordlist") || res.has("mask")))
+                errors.add("--rules can only be used with --wordlist alone");
+
+            if(res.has("rainbowTable") && (res.has("wordlist") || res.has("mask")))
+                errors.add("--rainbowTable can't be used with --wordlist or --mask");
+        }
+
+        // Workers get their state from the coordinator, which keeps the checkpoints
+        String host = null;
+        int port = 0;
+        String connect = res.getString("connect");
+        if(connect != null) {
+
+            if(res.has("listen") || res.has("checkpoint") || res.has("resume"))
+                errors.add("--connect can't be used with --listen, --checkpoint or --resume");
+
+            int colon = connect.lastIndexOf(':');
+            try {
+                host = connect.substring(0, colon);
+                port = Integer.parseInt(connect.substring(colon + 1));
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                errors.add(String.format("Expected host:port, got %s", connect));
+            }
+        }
+
+        if(res.getInt("numWorker", 1) < 1)
+            errors.add("--numWorker has to be at least 1");
+        if(res.getLong("checkpointInterval", 1) < 1 || res.getLong("leaseTimeout", 1) < 1)
+            errors.add("--checkpointInterval and --leaseTimeout have to be longer than 0");
+
+        if(!errors.isEmpty())
+            return new Result(null, errors);
+
+        return new Result(new CrackConfig(res, host, port), errors);
+    }
+
+
+    /**
+     * Hashes getter
+     * @return Hashes given on the command line
+     */
+    public List<String> getHashes() { return this.hashes; }
+
+
+    /**
+     * Input file getter
+     * @return File holding a series of hashes, or null
+     */
+    public String getInputFile() { return this.inputFile; }
+
+
+    /**
+     * Hash store getter
+     * @return Saved index of the hashes, or null
+     */
+    public String getHashStore() { return this.hashStore; }
+
+
+    /**
+     * Output file getter
+     * @return Potfile cracked hashes are appended to, or null
+     */
+    public String getOutputFile() { return this.outputFile; }
+
+
+    /**
+     * Hash method getter
+     * @return Name of the algorithm the hashes were made with
+     */
+    public String getHashMethod() { return this.hashMethod; }
+
+
+    /**
+     * Number of workers getter
+     * @return Number of cracker threads
+     */
+    public int getNumWorkers() { return this.numWorkers; }
+
+
+    /**
+     * Checkpoint getter
+     * @return File the state of the run is saved to, or null
+     */
+    public String getCheckpoint() { return this.checkpoint; }
+
+
+    /**
+     * Resume getter
+     * @return Checkpoint of an interrupted run to resume, or null
+     */
+    public String getResume() { return this.resume; }
+
+
+    /**
+     * Checkpoint interval getter
+     * @return Time between checkpoints
+     */
+    public Duration getCheckpointInterval() { return this.checkpointInterval; }
+
+
+    /**
+     * Wordlist getter
+     * @return Wordlist to try, or null
+     */
+    public String getWordlist() { return this.wordlist; }
+
+
+    /**
+     * Rules getter
+     * @return File of rules to apply to the wordlist, or null
+     */
+    public String getRules() { return this.rules; }
+
+
+    /**
+     * Bloom bits getter
+     * @return Bits per hash of the Bloom filter, 0 for none
+     */
+    public int getBloomBits() { return this.bloomBits; }
+
+
+    /**
+     * Mask getter
+     * @return Mask to brute force, or null
+     */
+    public String getMask() { return this.mask; }
+
+
+    /**
+     * Prepend getter
+     * @return True if the mask goes in front of the words of a hybrid attack
+     */
+    public boolean isPrepend() { return this.prepend; }
+
+
+    /**
+     * Markov getter
+     * @return Markov statistics file, or null
+     */
+    public String getMarkov() { return this.markov; }
+
+
+    /**
+     * Markov threshold getter
+     * @return Most characters to try at each position of the mask
+     */
+    public int getMarkovThreshold() { return this.markovThreshold; }
+
+
+    /**
+     * Train Markov getter
+     * @return Wordlist or potfile to train Markov statistics from, or null
+     */
+    public String getTrainMarkov() { return this.trainMarkov; }
+
+
+    /**
+     * Rainbow tables getter
+     * @return Rainbow tables to look the hashes up in, empty for none
+     */
+    public List<String> getRainbowTables() { return this.rainbowTables; }
+
+
+    /**
+     * Generate table getter
+     * @return File to generate a rainbow table into, or null
+     */
+    public String getGenerateTable() { return this.generateTable; }
+
+
+    /**
+     * Chain length getter
+     * @return Hashes in every chain of a generated rainbow table
+     */
+    public int getChainLength() { return this.chainLength; }
+
+
+    /**
+     * Chains getter
+     * @return Chains in a generated rainbow table, 0 for the default
+     */
+    public long getChains() { return this.chains; }
+
+
+    /**
+     * Table size getter
+     * @return Bytes of a generated rainbow table, 0 if --chains decides
+     */
+    public long getTableSize() { return this.tableSize; }
+
+
+    /**
+     * Min length getter
+     * @return Shortest plaintexts of a generated rainbow table, 0 for the mask's length
+     */
+    public int getMinLength() { return this.minLength; }
+
+
+    /**
+     * Listen getter
+     * @return Port to coordinate a distributed run on, or null
+     */
+    public Integer getListen() { return this.listen; }
+
+
+    /**
+     * Connect host getter
+     * @return Host of the coordinator to work for, or null
+     */
+    public String getConnectHost() { return this.connectHost; }
+
+
+    /**
+     * Connect port getter
+     * @return Port of the coordinator to work for
+     */
+    public int getConnectPort() { return this.connectPort; }
+
+
+    /**
+     * Lease timeout getter
+     * @return Time a worker may go quiet before its lease is reclaimed
+     */
+    public Duration getLeaseTimeout() { return this.leaseTimeout; }
+
+
+    /**
+     * Metrics port getter
+     * @return Port to serve metrics on, or null
+     */
+    public Integer getMetricsPort() { return this.metricsPort; }
+
+
+    /**
+     * Outcome of parsing a command line, a config or the errors that kept
+     * one from being made
+     */
+    public static class Result {
+
+        // Instance variables
+        private CrackConfig config;
+        private List<String> errors;
+
+
+        /**
+         * Result constructor
+         * @param config The config, null if there are errors
+         * @param errors Everything wrong with the command line
+         */
+        Result(CrackConfig config, List<String> errors) {
+            this.config = config;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+
+        /**
+         * Config getter
+         * @return The config, or null if the command line had errors
+         */
+        public CrackConfig getConfig() { return this.config; }
+
+
+        /**
+         * Errors getter
+         * @return Everything wrong with the command line, empty if it parsed
+         */
+        public List<String> getErrors() { return this.errors; }
+
+
+        /**
+         * Checks whether the command line parsed
+         * @return True if there is a config
+         */
+        public boolean isValid() { return this.config != null; }
+    }
+}
@@ -0,0 +1,72 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event timing a single range searched by a Cracker. The
+ * event is disabled unless a recording asks for it, and only then costs
+ * a small allocation per range
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: CrackEvent.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+@Name("liquidcrack.CrackRange")
+@Label("Crack Range")
+@Category("LiquidCrack")
+@Description("A range of the keyspace searched by one Cracker")
+public class CrackEvent extends Event {
+
+    // Checked before making an event, so nothing is allocated while no recording wants it
+    private static final EventType TYPE = EventType.getEventType(CrackEvent.class);
+
+    @Label("From")
+    @Description("First index of the range")
+    long from;
+
+    @Label("To")
+    @Description("End of the range (exclusive)")
+    long to;
+
+    @Label("Candidates")
+    @Description("Candidates tried in the range")
+    long candidates;
+
+    @Label("Complete")
+    @Description("Whether the whole range was searched")
+    boolean complete;
+
+
+    /**
+     * Searches a range on a Cracker, timing it with an event if a recording
+     * has the event enabled
+     * @param cracker Cracker to search with
+     * @param from First index of the range
+     * @param to End of the range (exclusive)
+     * @return True if the whole range was searched, false if it was cut short
+     */
+    static boolean crack(Cracker cracker, long from, long to) {
+
+        if(!TYPE.isEnabled())
+            return cracker.crack(from, to);
+
+        CrackEvent event = new CrackEvent();
+        event.begin();
+        long before = cracker.getCounter().getCandidates();
+
+        boolean complete = cracker.crack(from, to);
+
+        if(event.shouldCommit()) {
+            event.from = from;
+            event.to = to;
+            event.candidates = cracker.getCounter().getCandidates() - before;
+            event.complete = complete;
+            event.commit();
+        }
+
+        return complete;
+    }
+}
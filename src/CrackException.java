@@ -0,0 +1,20 @@
+/**
+ * Thrown when a run can't go ahead, i.e. a file it needs can't be read or
+ * its settings don't go together. The message is meant for the user
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: CrackException.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class CrackException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * CrackException constructor
+     * @param message What went wrong
+     */
+    CrackException(String message) {
+        super(message);
+    }
+}
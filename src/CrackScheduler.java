@@ -0,0 +1,586 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs an attack on a work stealing pool of Crackers. The keyspace is split
+ * in half recursively until the pieces are small, so a worker that runs out
+ * of work steals the biggest piece left on another worker's deque instead
+ * of sitting idle. Attacks that read their candidates from files run as a
+ * pipeline instead: a prefetcher thread reads the keyspace ahead in grain
+ * sized chunks and hands them to the Crackers through a bounded queue, so
+ * disk stalls land on the prefetcher and never on a hashing core
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: CrackScheduler.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class CrackScheduler {
+
+    // Smallest piece of keyspace worth making a task for
+    static final long MIN_GRAIN = 4096;
+
+    // Largest piece of keyspace a task may hold, so a resumed run never
+    // redoes much more than a checkpoint interval of work
+    static final long MAX_GRAIN = 1 << 24;
+
+    // Aim for this many leaf tasks per worker so stealing can even things out
+    static final int TASKS_PER_WORKER = 256;
+
+    // Rough cost of an iterated hash in fast hashes
+    static final long ITERATED_COST = 1 << 12;
+
+    // Chunks the prefetcher may read ahead of each Cracker
+    static final int CHUNKS_AHEAD = 4;
+
+    // Time an idle Worker lingers before its thread exits, as in the common pool
+    static final long KEEP_ALIVE_SECONDS = 60;
+
+    // Queued by the prefetcher once there are no chunks left
+    private static final long[] NO_MORE = new long[0];
+
+    // Instance variables
+    private ForkJoinPool pool;
+    private AttackMode attack;
+    private long grain;
+    private Progress progress;
+    private Checkpoint checkpoint;
+    private CrackedSet cracked;
+    private volatile RootTask root;
+    private volatile Prefetcher prefetcher;
+    private ConcurrentLinkedQueue<Cracker> idle;
+
+
+    /**
+     * CrackScheduler constructor
+     * @param parallelism Number of Cracker threads in the pool
+     * @param algorithm Algorithm the hashes were made with
+     * @param attack Attack mode to generate candidates with
+     * @param targets Index of the hashes to crack
+     * @param filter Prefilter in front of the index, may be null
+     * @param progress Progress of the run, every Cracker gets a counter from it
+     * @param results Receives the cracked hashes
+     * @param checkpoint State of the run, finished ranges and cracked targets are recorded in it
+     */
+    CrackScheduler(int parallelism, HashAlgorithm algorithm, AttackMode attack, TargetIndex targets,
+                   BloomFilter filter, Progress progress, ResultWriter results, Checkpoint checkpoint) {
+        this(parallelism, attack, attack.getCost(), progress, checkpoint,
+                () -> new Cracker(algorithm, attack, targets, filter,
+                        progress.newCounter(), results, checkpoint.getCracked()));
+    }
+
+
+    /**
+     * CrackScheduler constructor for salted hashes. Every index of the
+     * keyspace costs a hash per salt, and iterated algorithms far more, so
+     * their tasks cover correspondingly fewer indices
+     * @param parallelism Number of Cracker threads in the pool
+     * @param algorithm Algorithm the hashes were made with
+     * @param attack Attack mode to generate candidates with
+     * @param targets Salt groups of the hashes to crack
+     * @param progress Progress of the run, every Cracker gets a counter from it
+     * @param results Receives the cracked hashes
+     * @param checkpoint State of the run, finished ranges and cracked targets are recorded in it
+     */
+    CrackScheduler(int parallelism, SaltedAlgorithm algorithm, AttackMode attack, SaltedTargets targets,
+                   Progress progress, ResultWriter results, Checkpoint checkpoint) {
+        this(parallelism, attack, cost(algorithm, targets), progress, checkpoint,
+                () -> new Cracker(algorithm, attack, targets, progress.newCounter(),
+                        results, checkpoint.getCracked()));
+    }
+
+
+    /**
+     * CrackScheduler constructor. The pool never grows past parallelism
+     * Workers, not even to stand in for ones blocked waiting for chunks, as
+     * every Worker would be waiting on the same prefetcher. A Worker started
+     * after another one exited takes over its Cracker
+     * @param parallelism Number of Cracker threads in the pool
+     * @param attack Attack mode to generate candidates with
+     * @param cost Rough cost of a single index in hashes of a fast algorithm
+     * @param progress Progress of the run
+     * @param checkpoint State of the run
+     * @param crackers Creates a Cracker for a new Worker
+     */
+    private CrackScheduler(int parallelism, AttackMode attack, long cost, Progress progress,
+                           Checkpoint checkpoint, Supplier<Cracker> crackers) {
+
+        this.idle = new ConcurrentLinkedQueue<>();
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            Cracker cracker = this.idle.poll();
+            return new Worker(pool, cracker != null ? cracker : crackers.get(), this.idle);
+        }, null, false, parallelism, parallelism, 1, pool -> true, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        this.attack = attack;
+
+        this.grain = grain(attack.getKeyspace(), cost, parallelism);
+        this.progress = progress;
+        this.checkpoint = checkpoint;
+        this.cracked = checkpoint.getCracked();
+    }
+
+
+    /**
+     * Sizes the pieces a keyspace is cracked in, so there are plenty per
+     * worker but none too small to be worth scheduling or too big to redo
+     * @param keyspace Number of indices in the keyspace
+     * @param cost Rough cost of a single index in hashes of a fast algorithm
+     * @param parallelism Number of workers cracking it
+     * @return Number of indices in a piece
+     */
+    static long grain(long keyspace, long cost, int parallelism) {
+
+        long minGrain = Math.max(1, MIN_GRAIN / Math.max(1, cost));
+        long maxGrain = Math.max(1, MAX_GRAIN / Math.max(1, cost));
+        return Math.min(maxGrain, Math.max(minGrain, keyspace / ((long)parallelism * TASKS_PER_WORKER)));
+    }
+
+
+    /**
+     * Gets the rough cost of an index of the keyspace for salted hashes,
+     * a hash per salt and far more for iterated algorithms
+     * @param algorithm Algorithm the hashes were made with
+     * @param targets Salt groups of the hashes to crack
+     * @return Cost of an index in hashes of a fast algorithm
+     */
+    static long cost(SaltedAlgorithm algorithm, SaltedTargets targets) {
+        return (long)targets.getGroups().length * (algorithm.isIterated() ? ITERATED_COST : 1);
+    }
+
+
+    /**
+     * Starts cracking every part of the keyspace the checkpoint doesn't
+     * already have as done. The attack finishes early once every target
+     * is cracked
+     */
+    public void start() {
+
+        RangeSet done = this.checkpoint.getDone();
+        this.progress.rangeRestored(done.getTotal());
+
+        List<ForkJoinTask<?>> tasks = this.newTasks(done.getGaps(this.attack.getKeyspace()));
+        this.root = new RootTask(tasks, this.prefetcher);
+        this.pool.execute(this.root);
+    }
+
+
+    /**
+     * Cracks a single range of the keyspace on the pool, for RemoteWorkers
+     * that are handed the keyspace a lease at a time
+     * @param from First index of the range
+     * @param to End of the range (exclusive)
+     * @return True if the whole range was searched, false if it was cut short
+     */
+    public boolean crack(long from, long to) {
+
+        RangeSet done = this.checkpoint.getDone();
+        long before = done.getTotal();
+        List<ForkJoinTask<?>> tasks = this.newTasks(List.of(new long[]{from, to}));
+        this.pool.invoke(new RootTask(tasks, this.prefetcher));
+        return done.getTotal() - before == to - from;
+    }
+
+
+    /**
+     * Creates the tasks that crack a set of ranges. Ranges are split
+     * recursively, or for attacks reading files, fed through a prefetcher
+     * to one long running task per Cracker
+     * @param ranges Ranges of the keyspace to crack
+     * @return Tasks to invoke on the pool
+     */
+    private List<ForkJoinTask<?>> newTasks(List<long[]> ranges) {
+
+        ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>();
+        if(!this.attack.usesFiles()) {
+
+            for(long[] range : ranges)
+                tasks.add(new CrackTask(range[0], range[1]));
+
+            return tasks;
+        }
+
+        // Small sets of ranges, like a RemoteWorker's lease, still get a few chunks per Cracker
+        int parallelism = this.pool.getParallelism();
+        long total = 0;
+        for(long[] range : ranges)
+            total += range[1] - range[0];
+        long chunk = Math.max(1, Math.min(this.grain, total / ((long)parallelism * CHUNKS_AHEAD)));
+
+        Prefetcher prefetcher = new Prefetcher(ranges, chunk, parallelism);
+        for(int i = 0; i < parallelism; i++)
+            tasks.add(new ChunkTask(prefetcher));
+
+        this.prefetcher = prefetcher;
+        prefetcher.start();
+        return tasks;
+    }
+
+
+    /**
+     * Searches a range on the current Cracker and records it if it was
+     * searched completely. Each range is timed by a CrackEvent
+     * @param from First index of the range
+     * @param to End of the range (exclusive)
+     */
+    private void crackRange(long from, long to) {
+
+        // Pool threads are always Workers
+        Cracker cracker = ((Worker)Thread.currentThread()).getCracker();
+        boolean complete = CrackEvent.crack(cracker, from, to);
+
+        // A range cut short is not done
+        if(!complete)
+            return;
+
+        this.progress.rangeDone(to - from);
+        this.checkpoint.getDone().add(from, to);
+    }
+
+
+    /**
+     * Waits for the attack to finish
+     * @param timeout Longest time to wait
+     * @param unit Unit of the timeout
+     * @return True if the attack finished, false if the wait timed out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+
+        try {
+            this.root.get(timeout, unit);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (CancellationException e) {
+            // Shut down before it finished
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cracker failed", e.getCause());
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Gets how many chunks are waiting for a Cracker, without locking the queue
+     * @return Chunks read ahead and not yet taken, 0 when there is no prefetcher
+     */
+    public long getQueueDepth() {
+
+        Prefetcher prefetcher = this.prefetcher;
+        return prefetcher == null ? 0 : prefetcher.getDepth();
+    }
+
+
+    /**
+     * Stops the worker pool. Interrupting the pool doesn't stop a task in the
+     * middle of a range, so the targets are stopped too and the pool waited
+     * for, and nothing is still hashing once this returns
+     */
+    public void shutdown() {
+
+        this.cracked.stop();
+        this.pool.shutdownNow();
+
+        // The prefetcher would otherwise wait forever for room in the queue
+        Prefetcher prefetcher = this.prefetcher;
+        if(prefetcher != null)
+            prefetcher.interrupt();
+
+        try {
+            this.pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Thread of the pool, cracking with a Cracker of its own
+     */
+    static class Worker extends ForkJoinWorkerThread {
+
+        // Instance variables
+        private Cracker cracker;
+        private Queue<Cracker> idle;
+
+
+        /**
+         * Worker constructor
+         * @param pool Pool this worker belongs to
+         * @param cracker Cracker this worker searches with
+         * @param idle Gets the Cracker back when this worker exits
+         */
+        Worker(ForkJoinPool pool, Cracker cracker, Queue<Cracker> idle) {
+            super(pool);
+            this.cracker = cracker;
+            this.idle = idle;
+        }
+
+
+        @Override
+        protected void onTermination(Throwable exception) {
+
+            this.idle.add(this.cracker);
+            super.onTermination(exception);
+        }
+
+
+        /**
+         * Cracker getter
+         * @return Cracker this worker searches with
+         */
+        Cracker getCracker() { return this.cracker; }
+    }
+
+
+    /**
+     * Every task of a run, submitted to the pool as a single task so the
+     * pool's own threads fork it and no thread sits waiting on the pool
+     */
+    static class RootTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        // Instance variables
+        private List<ForkJoinTask<?>> tasks;
+        private Prefetcher prefetcher;
+
+
+        /**
+         * RootTask constructor
+         * @param tasks Tasks of the run
+         * @param prefetcher Prefetcher the tasks take chunks from, may be null
+         */
+        RootTask(List<ForkJoinTask<?>> tasks, Prefetcher prefetcher) {
+            this.tasks = tasks;
+            this.prefetcher = prefetcher;
+        }
+
+
+        @Override
+        protected void compute() {
+
+            // Stop the prefetcher once no task is left to take from it,
+            // whether they all finished or one failed
+            try {
+                invokeAll(this.tasks);
+            } finally {
+                if(this.prefetcher != null)
+                    this.prefetcher.interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * A range of the keyspace, split until it is no bigger than the grain
+     */
+    class CrackTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        // Instance variables
+        private long from;
+        private long to;
+
+
+        /**
+         * CrackTask constructor
+         * @param from First index of the range
+         * @param to End of the range (exclusive)
+         */
+        CrackTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+
+        @Override
+        protected void compute() {
+
+            // Nothing left to find, drop the range without searching it
+            if(cracked.isDone())
+                return;
+
+            // Split in half, the half that isn't run here can be stolen
+            if(this.to - this.from > grain) {
+
+                long mid = this.from + (this.to - this.from) / 2;
+                invokeAll(new CrackTask(this.from, mid), new CrackTask(mid, this.to));
+                return;
+            }
+
+            crackRange(this.from, this.to);
+        }
+    }
+
+
+    /**
+     * Cracks chunks from the prefetcher until it runs out
+     */
+    class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        // Instance variables
+        private Prefetcher prefetcher;
+
+
+        /**
+         * ChunkTask constructor
+         * @param prefetcher Prefetcher to take chunks from
+         */
+        ChunkTask(Prefetcher prefetcher) {
+            this.prefetcher = prefetcher;
+        }
+
+
+        @Override
+        protected void compute() {
+
+            try {
+
+                long[] chunk;
+                while((chunk = this.prefetcher.take()) != NO_MORE) {
+
+                    // Keep draining once everything is cracked so the prefetcher never blocks
+                    if(!cracked.isDone())
+                        crackRange(chunk[0], chunk[1]);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Reads ranges of the keyspace ahead of the Crackers. The queue only holds
+     * a few chunks per Cracker, so the prefetcher blocks rather than reading
+     * arbitrarily far ahead and memory stays bounded
+     */
+    class Prefetcher extends Thread {
+
+        // Instance variables
+        private List<long[]> ranges;
+        private long chunk;
+        private int consumers;
+        private BlockingQueue<long[]> chunks;
+        private volatile long queued;
+        private LongAdder taken;
+        private volatile long sink;
+
+
+        /**
+         * Prefetcher constructor
+         * @param ranges Ranges of the keyspace to read, in order
+         * @param chunk Size of the chunks handed to the Crackers
+         * @param consumers Number of ChunkTasks taking from the queue
+         */
+        Prefetcher(List<long[]> ranges, long chunk, int consumers) {
+            super("prefetcher");
+            this.setDaemon(true);
+            this.ranges = ranges;
+            this.chunk = chunk;
+            this.consumers = consumers;
+            this.chunks = new ArrayBlockingQueue<>(consumers * CHUNKS_AHEAD);
+            this.taken = new LongAdder();
+        }
+
+
+        /**
+         * Takes the next chunk, waiting for one to be read if need be. The
+         * wait is managed so the pool knows of it, but the pool is saturated
+         * and lets the Worker block rather than start another
+         * @return The chunk, NO_MORE once there are none left
+         * @throws InterruptedException if interrupted while waiting
+         */
+        long[] take() throws InterruptedException {
+
+            Take take = new Take();
+            ForkJoinPool.managedBlock(take);
+            this.taken.increment();
+            return take.chunk;
+        }
+
+
+        /**
+         * Gets the number of chunks in the queue from counters, so sampling it
+         * never contends for the queue's lock
+         * @return Chunks put and not yet taken
+         */
+        long getDepth() { return Math.max(0, this.queued - this.taken.sum()); }
+
+
+        /**
+         * Queues a chunk, only ever called from the prefetcher's thread
+         * @param chunk Chunk to queue
+         * @throws InterruptedException if interrupted while waiting for room
+         */
+        private void put(long[] chunk) throws InterruptedException {
+            this.chunks.put(chunk);
+            this.queued++;
+        }
+
+
+        /**
+         * A wait for a chunk the pool knows about
+         */
+        class Take implements ForkJoinPool.ManagedBlocker {
+
+            // Instance variables
+            private long[] chunk;
+
+
+            @Override
+            public boolean block() throws InterruptedException {
+
+                if(this.chunk == null)
+                    this.chunk = chunks.take();
+
+                return true;
+            }
+
+
+            @Override
+            public boolean isReleasable() { return this.chunk != null || (this.chunk = chunks.poll()) != null; }
+        }
+
+
+        @Override
+        public void run() {
+
+            try {
+
+                long sum = 0;
+                for(long[] range : this.ranges) {
+                    for(long from = range[0]; from < range[1] && !cracked.isDone(); from += this.chunk) {
+
+                        long to = Math.min(range[1], from + this.chunk);
+                        sum += attack.prefetch(from, to);
+                        this.put(new long[]{from, to});
+                    }
+                }
+                this.sink = sum;
+
+                // One marker per consumer, each stops at the first it takes
+                for(int i = 0; i < this.consumers; i++)
+                    this.put(NO_MORE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
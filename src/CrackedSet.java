@@ -0,0 +1,133 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitmap of the targets that have been cracked, indexed by target number.
+ * Bits are set with a compare and swap so any worker can mark a target
+ * without locking, and a running count lets workers see cheaply when every
+ * target is cracked
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: CrackedSet.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class CrackedSet {
+
+    // Instance variables
+    private AtomicLongArray bits;
+    private AtomicInteger count;
+    private int size;
+    private volatile boolean stopped;
+
+
+    /**
+     * CrackedSet constructor
+     * @param size Number of targets
+     */
+    CrackedSet(int size) {
+        this.bits = new AtomicLongArray((size + 63) >>> 6);
+        this.count = new AtomicInteger();
+        this.size = size;
+    }
+
+
+    /**
+     * Marks a target as cracked
+     * @param target Target number
+     * @return True if this call cracked it, false if it already was
+     */
+    public boolean add(int target) {
+
+        int word = target >>> 6;
+        long bit = 1L << target;
+
+        long old;
+        do {
+            old = this.bits.get(word);
+            if((old & bit) != 0)
+                return false;
+        } while(!this.bits.compareAndSet(word, old, old | bit));
+
+        this.count.incrementAndGet();
+        return true;
+    }
+
+
+    /**
+     * Checks if a target has been cracked
+     * @param target Target number
+     * @return True if it has been cracked
+     */
+    public boolean contains(int target) { return (this.bits.get(target >>> 6) & (1L << target)) != 0; }
+
+
+    /**
+     * Counts the cracked targets
+     * @return Number of targets cracked
+     */
+    public int count() { return this.count.get(); }
+
+
+    /**
+     * Checks if every target has been cracked
+     * @return True if every target has been cracked
+     */
+    public boolean isComplete() { return this.count.get() >= this.size; }
+
+
+    /**
+     * Checks if the set was stopped before every target was cracked
+     * @return True if stop() has been called
+     */
+    public boolean isStopped() { return this.stopped; }
+
+
+    /**
+     * Checks if there is nothing left for workers to do, because every
+     * target is cracked or the set was stopped. Workers poll this, it only
+     * reads values that change when a target is cracked or the set is stopped
+     * @return True if workers should stop searching
+     */
+    public boolean isDone() { return this.count.get() >= this.size || this.stopped; }
+
+
+    /**
+     * Makes isDone() true without cracking anything, so every worker
+     * polling it gives up on targets nobody wants cracked any more
+     */
+    public void stop() { this.stopped = true; }
+
+
+    /**
+     * Size getter
+     * @return Number of targets
+     */
+    public int size() { return this.size; }
+
+
+    /**
+     * Gets the raw bitmap
+     * @return Copy of the bitmap words
+     */
+    public long[] toArray() {
+
+        long[] words = new long[this.bits.length()];
+        for(int i = 0; i < words.length; i++)
+            words[i] = this.bits.get(i);
+
+        return words;
+    }
+
+
+    /**
+     * Sets every bit that is set in a raw bitmap
+     * @param words Bitmap words as returned by toArray()
+     */
+    public void addAll(long[] words) {
+
+        for(int i = 0; i < words.length && i < this.bits.length(); i++) {
+            long old = this.bits.getAndAccumulate(i, words[i], (a, b) -> a | b);
+            this.count.addAndGet(Long.bitCount(words[i] & ~old));
+        }
+    }
+}
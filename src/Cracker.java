@@ -1,58 +1,230 @@
-import java.util.ArrayList;
-
 /**
- * Cracker class does the work to try and match hash(es)
+ * Cracker class does the work to try and match hash(es). Every thread of a
+ * CrackScheduler's pool owns a Cracker, as does every worker of a JobService
+ * for each job it works on, and it keeps everything a task needs to search a
+ * range of the keyspace without allocating
  * Author: Grant Miller <gem1086@rit.edu>
  * File: Cracker.java
  * Date: 28 February 2019
  * Version: 0.1
  */
-public class Cracker extends Thread {
+public class Cracker {
+
+    // Candidates between checks for every target having been cracked, a power of two
+    static final int CHECK_INTERVAL = 1024;
 
     // Instance variables
-    private ArrayList<String> hashes;
-    private Integer numCompleted;
+    private TargetIndex targets;
+    private BloomFilter filter;
+    private HashAlgorithm algorithm;
+    private SaltedAlgorithm salted;
+    private SaltedTargets.Group[] groups;
+    private BatchHasher batchHasher;
+    private CandidateGenerator generator;
+    private CandidateBatch batch;
+    private byte[] candidate;
+    private byte[] digest;
+    private Progress.Counter counter;
+    private ResultWriter results;
+    private CrackedSet cracked;
+    private int base;
 
     /**
      * Cracker constructor
+     * @param algorithm Algorithm the hashes were made with, this worker gets its own instance
+     * @param attack Attack mode to generate candidates with
+     * @param targets Index of the hashes to crack, shared by all workers
+     * @param filter Prefilter in front of the index, may be null
+     * @param counter Counter this worker reports its progress to
+     * @param results Receives the cracked hashes
+     * @param cracked Targets cracked so far, shared by all workers
+     */
+    Cracker(HashAlgorithm algorithm, AttackMode attack, TargetIndex targets,
+            BloomFilter filter, Progress.Counter counter, ResultWriter results, CrackedSet cracked) {
+        this.targets = targets;
+        this.filter = filter;
+        this.algorithm = algorithm.newInstance();
+        this.generator = attack.newGenerator();
+        this.counter = counter;
+        this.results = results;
+        this.cracked = cracked;
+        this.candidate = new byte[CandidateGenerator.MAX_CANDIDATE];
+        this.digest = new byte[this.algorithm.getDigestLength()];
+
+        // Algorithms with a batch hasher get their candidates a batch at a time
+        this.batchHasher = this.algorithm.newBatchHasher();
+        if(this.batchHasher != null) {
+            this.batch = new CandidateBatch();
+            this.digest = new byte[CandidateBatch.LANES * this.algorithm.getDigestLength()];
+        }
+    }
+
+
+    /**
+     * Cracker constructor for salted hashes
+     * @param algorithm Algorithm the hashes were made with, this worker gets its own instance
+     * @param attack Attack mode to generate candidates with
+     * @param targets Salt groups of the hashes to crack, shared by all workers
+     * @param counter Counter this worker reports its progress to
+     * @param results Receives the cracked hashes
+     * @param cracked Targets cracked so far, shared by all workers
      */
-    Cracker() {
-        this.hashes = new ArrayList<>();
+    Cracker(SaltedAlgorithm algorithm, AttackMode attack, SaltedTargets targets,
+            Progress.Counter counter, ResultWriter results, CrackedSet cracked) {
+        this.salted = algorithm.newInstance();
+        this.groups = targets.getGroups();
+        this.generator = attack.newGenerator();
+        this.counter = counter;
+        this.results = results;
+        this.cracked = cracked;
+        this.candidate = new byte[CandidateGenerator.MAX_CANDIDATE];
+        this.digest = new byte[this.salted.getDigestLength()];
     }
 
 
     /**
-     * Adds a hash to this worker's
-     * @param hash Hash to add the
+     * Counter getter
+     * @return Counter this worker reports its progress to
      */
-    public void addHash(String hash) { this.hashes.add(hash); }
+    public Progress.Counter getCounter() { return this.counter; }
 
 
     /**
-     * Gets the number of hashes completed
-     * @return Number of hashes completed so far by this thread
+     * Offsets the target numbers results are reported under, for targets
+     * that share a ResultWriter with others numbered before them
+     * @param base Number the first target is reported as
      */
-    public Integer getNumCompleted() { return this.numCompleted; }
+    public void setBase(int base) { this.base = base; }
 
 
     /**
-     * Will iterate over the supplied hashes and try to crack them
+     * Tests every candidate in a range of the keyspace, stopping early once
+     * every target has been cracked
+     * @param from First index of the range
+     * @param to End of the range (exclusive)
+     * @return True if the whole range was searched, false if it was cut short
      */
-    @Override
-    public void run() {
+    public boolean crack(long from, long to) {
+
+        CandidateGenerator generator = this.generator;
+        generator.seek(from);
+
+        if(this.salted != null)
+            return this.crackSalted(generator, to);
+
+        if(this.batchHasher != null)
+            return this.crackBatched(generator, to);
 
-        while(this.hashes.size() > 0) {
+        // Candidates are counted locally and published once per range
+        long tried = 0;
+        int len;
+        while((len = generator.next(this.candidate, to)) >= 0) {
 
-            synchronized (System.out) {
-                System.out.println(String.format(
-                        "Cracking %s", this.hashes.get(0)));
+            // Every so often check whether another worker cracked the last target
+            if((++tried & (CHECK_INTERVAL - 1)) == 0 && this.cracked.isDone())
+                break;
+
+            this.algorithm.hash(this.candidate, 0, len, this.digest, 0);
+
+            // Almost every candidate misses, let the filter reject those cheaply
+            if(this.filter != null && !this.filter.mightContain(this.digest, 0))
+                continue;
+
+            // Only report a target the first time it is cracked
+            int target = this.targets.find(this.digest, 0);
+            if(target < 0 || !this.cracked.add(target))
+                continue;
+
+            this.counter.addCracked(1);
+            this.results.add(this.base + target, this.candidate, len);
+            if(this.cracked.isDone())
+                break;
+        }
+
+        this.counter.addCandidates(tried);
+        return len < 0;
+    }
+
+
+    /**
+     * Tests candidates a batch at a time until the end of a range
+     * @param generator Generator already seeked to the start of the range
+     * @param to End of the range (exclusive)
+     * @return True if the whole range was searched, false if it was cut short
+     */
+    private boolean crackBatched(CandidateGenerator generator, long to) {
+
+        CandidateBatch batch = this.batch;
+        int width = this.algorithm.getDigestLength();
+
+        long tried = 0;
+        int count;
+        while((count = batch.fill(generator, to)) > 0) {
+
+            // Once a batch is cheap enough to check for the last target being cracked
+            if(this.cracked.isDone())
+                break;
+
+            tried += count;
+            this.batchHasher.hash(batch, this.digest);
+
+            for(int lane = 0; lane < count; lane++) {
+
+                int off = lane * width;
+                if(this.filter != null && !this.filter.mightContain(this.digest, off))
+                    continue;
+
+                int target = this.targets.find(this.digest, off);
+                if(target < 0 || !this.cracked.add(target))
+                    continue;
+
+                this.counter.addCracked(1);
+                this.results.add(this.base + target, batch.getCandidate(lane), batch.getLength(lane));
             }
+        }
+
+        this.counter.addCandidates(tried);
+        return count == 0;
+    }
 
-            synchronized (this.numCompleted) {
-                this.numCompleted++;
-                notify();
+
+    /**
+     * Tests every candidate against each salt that still has uncracked
+     * targets until the end of a range
+     * @param generator Generator already seeked to the start of the range
+     * @param to End of the range (exclusive)
+     * @return True if the whole range was searched, false if it was cut short
+     */
+    private boolean crackSalted(CandidateGenerator generator, long to) {
+
+        long tried = 0;
+        int len;
+        while((len = generator.next(this.candidate, to)) >= 0) {
+
+            // A candidate is a hash per salt, so checking once per candidate is cheap
+            if(this.cracked.isDone())
+                break;
+
+            tried++;
+            for(SaltedTargets.Group group : this.groups) {
+
+                // Salts whose targets are all cracked aren't worth hashing
+                if(!group.hasRemaining())
+                    continue;
+
+                this.salted.hash(this.candidate, 0, len, group.getSalt(), this.digest, 0);
+
+                int target = group.getIndex().find(this.digest, 0);
+                if(target < 0 || !this.cracked.add(group.getBase() + target))
+                    continue;
+
+                group.cracked();
+                this.counter.addCracked(1);
+                this.results.add(this.base + group.getBase() + target, this.candidate, len);
             }
-            this.hashes.remove(0);
         }
+
+        this.counter.addCandidates(tried);
+        return len < 0;
     }
 }
@@ -0,0 +1,71 @@
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * HashAlgorithm backed by a JCA MessageDigest that is created once and
+ * reused for every candidate
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: DigestAlgorithm.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class DigestAlgorithm implements HashAlgorithm {
+
+    // Instance variables
+    private String name;
+    private String jcaName;
+    private MessageDigest digest;
+
+
+    /**
+     * DigestAlgorithm constructor
+     * @param name Name of the algorithm as given to --hashMethod
+     * @param jcaName Name of the algorithm known to the JCA i.e. 'SHA-256'
+     */
+    DigestAlgorithm(String name, String jcaName) {
+        this.name = name;
+        this.jcaName = jcaName;
+
+        try {
+            this.digest = MessageDigest.getInstance(jcaName);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Hash method %s is not available in this JVM", jcaName), e);
+        }
+    }
+
+
+    @Override
+    public String getName() { return this.name; }
+
+
+    @Override
+    public int getDigestLength() { return this.digest.getDigestLength(); }
+
+
+    @Override
+    public void hash(byte[] in, int off, int len, byte[] out, int outOff) {
+
+        this.digest.update(in, off, len);
+
+        // digest(byte[], int, int) writes into our buffer instead of allocating one
+        try {
+            this.digest.digest(out, outOff, this.digest.getDigestLength());
+        } catch (DigestException e) {
+            throw new IllegalArgumentException("Digest buffer is too small", e);
+        }
+    }
+
+
+    @Override
+    public HashAlgorithm newInstance() { return new DigestAlgorithm(this.name, this.jcaName); }
+
+
+    @Override
+    public BatchHasher newBatchHasher() {
+
+        // SHA-1 and up stay on the JCA, the JVM compiles them to the CPU's SHA instructions
+        return this.jcaName.equals("MD5") ? new Md5Batch(this.newInstance()) : null;
+    }
+}
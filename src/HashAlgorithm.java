@@ -0,0 +1,52 @@
+/**
+ * A hash function the crackers can test candidates with. Implementations
+ * keep their working state in the instance and write into caller supplied
+ * buffers, so hashing a candidate allocates nothing. Instances are not thread
+ * safe, every worker gets its own from newInstance()
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: HashAlgorithm.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public interface HashAlgorithm {
+
+    /**
+     * Name getter
+     * @return Name of the algorithm as given to --hashMethod
+     */
+    String getName();
+
+
+    /**
+     * Digest length getter
+     * @return Length of a digest in bytes
+     */
+    int getDigestLength();
+
+
+    /**
+     * Hashes a candidate
+     * @param in Buffer holding the candidate
+     * @param off Offset of the candidate
+     * @param len Length of the candidate
+     * @param out Buffer to write the digest to
+     * @param outOff Offset the digest should be written at
+     */
+    void hash(byte[] in, int off, int len, byte[] out, int outOff);
+
+
+    /**
+     * Creates a new instance with its own working state
+     * @return A fresh instance of this algorithm
+     */
+    HashAlgorithm newInstance();
+
+
+    /**
+     * Creates a hasher that hashes a whole batch of candidates at once.
+     * Only fast unsalted hashes have one, the rest are hashed a candidate at
+     * a time
+     * @return A batch hasher with its own working state, or null if there is none
+     */
+    default BatchHasher newBatchHasher() { return null; }
+}
@@ -0,0 +1,96 @@
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Registry mapping --hashMethod names to HashAlgorithm and SaltedAlgorithm
+ * implementations
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: HashAlgorithms.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class HashAlgorithms {
+
+    private static final LinkedHashMap<String, Supplier<HashAlgorithm>> ALGORITHMS = new LinkedHashMap<>();
+    private static final LinkedHashMap<String, Supplier<SaltedAlgorithm>> SALTED = new LinkedHashMap<>();
+
+    // Built in algorithms
+    static {
+        register("md5", () -> new DigestAlgorithm("md5", "MD5"));
+        register("sha1", () -> new DigestAlgorithm("sha1", "SHA-1"));
+        register("sha256", () -> new DigestAlgorithm("sha256", "SHA-256"));
+        register("sha512", () -> new DigestAlgorithm("sha512", "SHA-512"));
+        register("md4", Md4Algorithm::new);
+        register("ntlm", NtlmAlgorithm::new);
+        registerSalted("bcrypt", BcryptAlgorithm::new);
+        registerSalted("sha512crypt", Sha512CryptAlgorithm::new);
+        registerSalted("pbkdf2-sha1", () -> new Pbkdf2Algorithm("pbkdf2-sha1", "$pbkdf2$", "HmacSHA1"));
+        registerSalted("pbkdf2-sha256", () -> new Pbkdf2Algorithm("pbkdf2-sha256", "$pbkdf2-sha256$", "HmacSHA256"));
+        registerSalted("pbkdf2-sha512", () -> new Pbkdf2Algorithm("pbkdf2-sha512", "$pbkdf2-sha512$", "HmacSHA512"));
+    }
+
+
+    /**
+     * Adds an algorithm to the registry, replacing any with the same name
+     * @param name Name the algorithm is selected by
+     * @param factory Creates new instances of the algorithm
+     */
+    public static synchronized void register(String name, Supplier<HashAlgorithm> factory) {
+        ALGORITHMS.put(normalize(name), factory);
+    }
+
+
+    /**
+     * Adds a salted algorithm to the registry, replacing any with the same name
+     * @param name Name the algorithm is selected by
+     * @param factory Creates new instances of the algorithm
+     */
+    public static synchronized void registerSalted(String name, Supplier<SaltedAlgorithm> factory) {
+        SALTED.put(normalize(name), factory);
+    }
+
+
+    /**
+     * Looks up an algorithm by name. Case, '-' and '_' are ignored so 'SHA-256'
+     * and 'sha256' are the same
+     * @param name Name of the algorithm
+     * @return A new instance of the algorithm, or null if it is unknown
+     */
+    public static synchronized HashAlgorithm forName(String name) {
+
+        Supplier<HashAlgorithm> factory = ALGORITHMS.get(normalize(name));
+        return factory == null ? null : factory.get();
+    }
+
+
+    /**
+     * Looks up a salted algorithm by name, ignoring case, '-' and '_'
+     * @param name Name of the algorithm
+     * @return A new instance of the algorithm, or null if it is unknown
+     */
+    public static synchronized SaltedAlgorithm forSaltedName(String name) {
+
+        Supplier<SaltedAlgorithm> factory = SALTED.get(normalize(name));
+        return factory == null ? null : factory.get();
+    }
+
+
+    /**
+     * Gets the names of every registered algorithm
+     * @return Comma separated list of names
+     */
+    public static synchronized String getNames() {
+        return String.join(", ", ALGORITHMS.keySet()) + ", " + String.join(", ", SALTED.keySet());
+    }
+
+
+    /**
+     * Normalizes an algorithm name
+     * @param name Name to normalize
+     * @return Lower case name without '-' or '_'
+     */
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT).replace("-", "").replace("_", "");
+    }
+}
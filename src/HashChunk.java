@@ -0,0 +1,105 @@
+import java.util.function.IntPredicate;
+
+/**
+ * A block of target digests packed back to back in a single byte array
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: HashChunk.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class HashChunk {
+
+    // Number of digests held by a chunk unless told otherwise
+    static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // Instance variables
+    private byte[] digests;
+    private int width;
+    private int count;
+
+
+    /**
+     * HashChunk constructor
+     * @param width Length of each digest in bytes
+     * @param capacity Maximum number of digests this chunk can hold
+     */
+    HashChunk(int width, int capacity) {
+        this.digests = new byte[width * capacity];
+        this.width = width;
+        this.count = 0;
+    }
+
+
+    /**
+     * Reserves the next free slot in this chunk
+     * @return Offset into getDigests() the new digest should be written to
+     */
+    public int reserve() { return this.count * this.width; }
+
+
+    /**
+     * Commits the slot handed out by reserve()
+     */
+    public void commit() { this.count++; }
+
+
+    /**
+     * Checks if this chunk has no room left
+     * @return True if the chunk is full
+     */
+    public boolean isFull() { return this.count * this.width == this.digests.length; }
+
+
+    /**
+     * Packed digests getter
+     * @return Array holding getCount() digests of getWidth() bytes each
+     */
+    public byte[] getDigests() { return this.digests; }
+
+
+    /**
+     * Width getter
+     * @return Length of each digest in bytes
+     */
+    public int getWidth() { return this.width; }
+
+
+    /**
+     * Count getter
+     * @return Number of digests in this chunk
+     */
+    public int getCount() { return this.count; }
+
+
+    /**
+     * Gets a digest as a hex string
+     * @param i Index of the digest
+     * @return Hex representation of the digest
+     */
+    public String toHex(int i) { return Hex.encode(this.digests, i * this.width, this.width); }
+
+
+    /**
+     * Drops digests from this chunk, keeping the rest in order
+     * @param drop Tells whether the digest at an offset into getDigests() should go
+     * @return Number of digests dropped
+     */
+    public int removeIf(IntPredicate drop) {
+
+        int kept = 0;
+        for(int i = 0; i < this.count; i++) {
+
+            int off = i * this.width;
+            if(drop.test(off))
+                continue;
+
+            if(kept != i)
+                System.arraycopy(this.digests, off, this.digests, kept * this.width, this.width);
+            kept++;
+        }
+
+        int dropped = this.count - kept;
+        this.count = kept;
+        return dropped;
+    }
+}
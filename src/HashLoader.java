@@ -0,0 +1,184 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Streams target hashes into packed chunks. Hash lists are memory mapped and
+ * split on newlines in place so no String is created per line, and each
+ * chunk is handed off as soon as it fills up
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: HashLoader.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class HashLoader {
+
+    // Instance variables
+    private Consumer<HashChunk> sink;
+    private HashChunk chunk;
+    private int chunkCapacity;
+    private int width;
+    private long loaded;
+    private long skipped;
+
+
+    /**
+     * HashLoader constructor
+     * @param width Length of a digest in bytes, 0 to take it from the first hash seen
+     * @param sink Receives every chunk once it is full
+     */
+    HashLoader(int width, Consumer<HashChunk> sink) {
+        this(width, sink, HashChunk.DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * HashLoader constructor
+     * @param width Length of a digest in bytes, 0 to take it from the first hash seen
+     * @param sink Receives every chunk once it is full
+     * @param chunkCapacity Number of digests per chunk
+     */
+    HashLoader(int width, Consumer<HashChunk> sink, int chunkCapacity) {
+        this.sink = sink;
+        this.chunkCapacity = chunkCapacity;
+        this.width = width;
+        this.loaded = 0;
+        this.skipped = 0;
+    }
+
+
+    /**
+     * Adds a single hex encoded hash, i.e. one supplied on the commandline
+     * @param hex The hash to add
+     */
+    public void addHex(String hex) {
+
+        hex = hex.trim();
+        if(this.width == 0)
+            this.width = hex.length() / 2;
+
+        if(this.width == 0) {
+            this.skipped++;
+            return;
+        }
+
+        HashChunk chunk = this.currentChunk();
+        if(Hex.decode(hex, chunk.getDigests(), chunk.reserve(), this.width))
+            this.commit(chunk);
+        else
+            this.skipped++;
+    }
+
+
+    /**
+     * Loads every hash in a file, one per line
+     * @param file File holding the hashes
+     * @throws IOException if the file cannot be mapped
+     */
+    public void load(File file) throws IOException {
+
+        try(MappedFile mapped = new MappedFile(file)) {
+
+            long size = mapped.size();
+            long pos = 0;
+
+            while(pos < size) {
+
+                long eol = mapped.indexOf((byte)'\n', pos, size);
+
+                // Trim surrounding whitespace (and the \r of windows line endings)
+                long start = pos;
+                long end = eol;
+                while(start < end && mapped.get(start) <= ' ')
+                    start++;
+                while(end > start && mapped.get(end - 1) <= ' ')
+                    end--;
+
+                pos = eol + 1;
+
+                // Skip blank lines
+                if(start == end)
+                    continue;
+
+                long digits = end - start;
+                if(this.width == 0)
+                    this.width = (int)Math.min(digits / 2, MappedFile.MAX_LINE);
+
+                if(this.width == 0) {
+                    this.skipped++;
+                    continue;
+                }
+
+                // Decode the line straight into the chunk
+                HashChunk chunk = this.currentChunk();
+                if(digits == 2L * this.width &&
+                        Hex.decode(mapped, start, chunk.getDigests(), chunk.reserve(), this.width))
+                    this.commit(chunk);
+                else
+                    this.skipped++;
+            }
+        }
+    }
+
+
+    /**
+     * Hands off the partially filled chunk, if any
+     */
+    public void flush() {
+
+        if(this.chunk != null && this.chunk.getCount() > 0)
+            this.sink.accept(this.chunk);
+
+        this.chunk = null;
+    }
+
+
+    /**
+     * Width getter
+     * @return Length of a digest in bytes, 0 if no hash has been seen yet
+     */
+    public int getWidth() { return this.width; }
+
+
+    /**
+     * Loaded getter
+     * @return Number of hashes loaded so far
+     */
+    public long getLoaded() { return this.loaded; }
+
+
+    /**
+     * Skipped getter
+     * @return Number of malformed lines that were ignored
+     */
+    public long getSkipped() { return this.skipped; }
+
+
+    /**
+     * Gets the chunk currently being filled, creating it if needed
+     * @return The current chunk
+     */
+    private HashChunk currentChunk() {
+
+        if(this.chunk == null)
+            this.chunk = new HashChunk(this.width, this.chunkCapacity);
+
+        return this.chunk;
+    }
+
+
+    /**
+     * Commits the last reserved digest and hands off the chunk if it is full
+     * @param chunk The current chunk
+     */
+    private void commit(HashChunk chunk) {
+
+        chunk.commit();
+        this.loaded++;
+
+        if(chunk.isFull()) {
+            this.sink.accept(chunk);
+            this.chunk = null;
+        }
+    }
+}
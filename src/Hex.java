@@ -0,0 +1,100 @@
+/**
+ * Helpers to convert between hex strings and raw digest bytes
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Hex.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Hex {
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+
+    /**
+     * Gets the value of a single hex digit
+     * @param c Character to convert
+     * @return Value of the digit, or -1 if it is not a hex digit
+     */
+    public static int digit(int c) {
+
+        if(c >= '0' && c <= '9')
+            return c - '0';
+        else if(c >= 'a' && c <= 'f')
+            return c - 'a' + 10;
+        else if(c >= 'A' && c <= 'F')
+            return c - 'A' + 10;
+        else
+            return -1;
+    }
+
+
+    /**
+     * Decodes hex digits read straight out of a mapped file
+     * @param file File holding the digits
+     * @param pos Offset of the first digit
+     * @param dst Buffer to write the decoded bytes to
+     * @param off Offset into the buffer
+     * @param len Number of bytes to decode (twice as many digits are read)
+     * @return True if every character was a valid hex digit
+     */
+    public static boolean decode(MappedFile file, long pos, byte[] dst, int off, int len) {
+
+        for(int i = 0; i < len; i++) {
+
+            int hi = digit(file.get(pos + 2 * i));
+            int lo = digit(file.get(pos + 2 * i + 1));
+            if((hi | lo) < 0)
+                return false;
+
+            dst[off + i] = (byte)((hi << 4) | lo);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Decodes a hex string
+     * @param hex String to decode
+     * @param dst Buffer to write the decoded bytes to
+     * @param off Offset into the buffer
+     * @param len Number of bytes to decode
+     * @return True if the string was valid hex of the right length
+     */
+    public static boolean decode(CharSequence hex, byte[] dst, int off, int len) {
+
+        if(hex.length() != len * 2)
+            return false;
+
+        for(int i = 0; i < len; i++) {
+
+            int hi = digit(hex.charAt(2 * i));
+            int lo = digit(hex.charAt(2 * i + 1));
+            if((hi | lo) < 0)
+                return false;
+
+            dst[off + i] = (byte)((hi << 4) | lo);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Encodes bytes as a lower case hex string
+     * @param src Bytes to encode
+     * @param off Offset of the first byte
+     * @param len Number of bytes to encode
+     * @return The hex string
+     */
+    public static String encode(byte[] src, int off, int len) {
+
+        char[] out = new char[len * 2];
+        for(int i = 0; i < len; i++) {
+            out[2 * i] = DIGITS[(src[off + i] >> 4) & 0xf];
+            out[2 * i + 1] = DIGITS[src[off + i] & 0xf];
+        }
+
+        return new String(out);
+    }
+}
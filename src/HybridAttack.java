@@ -0,0 +1,165 @@
+/**
+ * Hybrid attack putting a mask after or in front of every word of a
+ * wordlist, e.g. 'word?d?d'. Candidate i is mask candidate i % masks
+ * combined with the word at offset i / masks, so ranges of the keyspace
+ * map onto ranges of the wordlist. A word is copied into the candidate
+ * buffer once and the mask is incremented in place next to it
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: HybridAttack.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class HybridAttack implements AttackMode {
+
+    // Instance variables
+    private WordlistAttack words;
+    private MaskAttack mask;
+    private boolean prepend;
+    private long keyspace;
+
+
+    /**
+     * HybridAttack constructor
+     * @param words Wordlist attack supplying the words
+     * @param mask Mask combined with every word
+     * @param prepend True to put the mask in front of the word, false to append it
+     * @exception IllegalArgumentException thrown if the keyspace does not fit in a long
+     */
+    HybridAttack(WordlistAttack words, MaskAttack mask, boolean prepend) {
+        this.words = words;
+        this.mask = mask;
+        this.prepend = prepend;
+
+        try {
+            this.keyspace = Math.multiplyExact(words.getKeyspace(), mask.getKeyspace());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Wordlist and mask are too large to combine");
+        }
+    }
+
+
+    @Override
+    public String getName() {
+
+        if(this.prepend)
+            return this.mask.getName() + " " + this.words.getName();
+
+        return this.words.getName() + " " + this.mask.getName();
+    }
+
+
+    @Override
+    public long getKeyspace() { return this.keyspace; }
+
+
+    @Override
+    public CandidateGenerator newGenerator() {
+        return new Generator(this.words.newGenerator(), this.mask.newGenerator(),
+                this.mask.getKeyspace(), this.mask.getLength(), this.prepend);
+    }
+
+
+    @Override
+    public boolean usesFiles() { return true; }
+
+
+    @Override
+    public long prefetch(long from, long to) {
+
+        long masks = this.mask.getKeyspace();
+        return this.words.prefetch(from / masks, Math.floorDiv(to - 1, masks) + 1);
+    }
+
+
+    /**
+     * Runs the mask over each word in turn
+     */
+    static class Generator implements CandidateGenerator {
+
+        // Instance variables
+        private WordlistAttack.Generator words;
+        private MaskAttack.Generator mask;
+        private long masks;
+        private int maskLen;
+        private boolean prepend;
+        private byte[] word;
+        private int wordLen;
+        private long wordIndex;
+        private long maskIndex;
+        private long seekMask;
+
+
+        /**
+         * Generator constructor
+         * @param words Generator over the words of the wordlist
+         * @param mask Generator over the mask
+         * @param masks Number of candidates in the mask's keyspace
+         * @param maskLen Length of every mask candidate
+         * @param prepend True to put the mask in front of the word
+         */
+        Generator(WordlistAttack.Generator words, MaskAttack.Generator mask, long masks, int maskLen,
+                  boolean prepend) {
+            this.words = words;
+            this.mask = mask;
+            this.masks = masks;
+            this.maskLen = maskLen;
+            this.prepend = prepend;
+            this.word = new byte[CandidateGenerator.MAX_CANDIDATE];
+            this.wordLen = -1;
+        }
+
+
+        @Override
+        public void seek(long index) {
+
+            long offset = index / this.masks;
+
+            // Start on the word at offset if there is one, otherwise with the first mask of the next word
+            this.words.seek(offset);
+            this.seekMask = index % this.masks;
+            this.wordLen = -1;
+            this.wordIndex = offset;
+        }
+
+
+        @Override
+        public int next(byte[] buf, long end) {
+
+            while(true) {
+
+                // Move on to the next word once the whole mask has been run over it
+                if(this.wordLen < 0 || this.maskIndex == this.masks) {
+
+                    // Only words starting before index end have candidates left in the range
+                    long offset = this.wordIndex;
+                    this.wordLen = this.words.next(this.word, Math.floorDiv(end - 1, this.masks) + 1);
+                    if(this.wordLen < 0)
+                        return -1;
+
+                    // Words too long to take the mask are skipped
+                    if(this.wordLen + this.maskLen > CandidateGenerator.MAX_CANDIDATE) {
+                        this.maskIndex = this.masks;
+                        this.wordIndex = this.words.getStart();
+                        continue;
+                    }
+
+                    // A seek into the middle of a word's mask only applies to that word
+                    this.maskIndex = this.words.getStart() == offset ? this.seekMask : 0;
+                    this.seekMask = 0;
+                    this.wordIndex = this.words.getStart();
+
+                    // The word goes into the buffer once, the mask is rewritten beside it
+                    System.arraycopy(this.word, 0, buf, this.prepend ? this.maskLen : 0, this.wordLen);
+                    this.mask.seek(this.maskIndex);
+                }
+
+                if(this.wordIndex * this.masks + this.maskIndex >= end)
+                    return -1;
+
+                this.mask.next(buf, this.prepend ? 0 : this.wordLen, this.masks);
+                this.maskIndex++;
+                return this.wordLen + this.maskLen;
+            }
+        }
+    }
+}
@@ -0,0 +1,809 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs many cracks at once in one long lived JVM on a single bounded pool of
+ * workers, so jobs share the cores and the already compiled hashing code
+ * instead of each starting a pool of its own. Jobs are cracked a slice of
+ * keyspace at a time: whenever a worker is free it takes the next slice of
+ * the highest priority job with work left, taking turns between jobs of the
+ * same priority, so a new urgent job gets the pool within a slice of being
+ * submitted. Targets added to a running job are searched for in a pass of
+ * their own over the whole keyspace, after the passes before it
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: JobService.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class JobService implements Closeable {
+
+    /**
+     * Where a job is in its life
+     */
+    enum State { QUEUED, RUNNING, DONE, CANCELLED, FAILED }
+
+    // Instance variables
+    private ArrayList<Job> jobs;
+    private Thread[] workers;
+    private int nextId;
+    private long turns;
+    private boolean closed;
+
+
+    /**
+     * JobService constructor, starts the workers
+     * @param parallelism Number of workers every job shares
+     */
+    JobService(int parallelism) {
+        this.jobs = new ArrayList<>();
+        this.workers = new Thread[parallelism];
+
+        for(int i = 0; i < parallelism; i++) {
+            this.workers[i] = new Thread(this::work, String.format("job-worker-%d", i));
+            this.workers[i].setDaemon(true);
+            this.workers[i].start();
+        }
+    }
+
+
+    /**
+     * Submits a crack. The config is read the way Main.run() reads it, but
+     * the job runs on the service's workers, so how many workers it asks
+     * for is ignored
+     * @param config Configuration of the crack
+     * @param priority Jobs with a higher priority get every free worker first
+     * @return The job, queued to run
+     * @throws CrackException if the config asks for something a job can't do or
+     *                        a file of the attack cannot be read
+     * @exception IllegalStateException thrown if the service is closed
+     */
+    public Job submit(CrackConfig config, int priority) throws CrackException {
+
+        if(config.getGenerateTable() != null || config.getTrainMarkov() != null)
+            throw new CrackException("Jobs only crack, use Main.run() to generate tables or train statistics");
+
+        // A rainbow attack's keyspace depends on the targets, which may grow,
+        // and a hash store can't be grown
+        if(!config.getRainbowTables().isEmpty() || config.getHashStore() != null)
+            throw new CrackException("--rainbowTable and --hashStore can't be used in a job");
+
+        if(config.getListen() != null || config.getConnectHost() != null || config.getCheckpoint() != null ||
+                config.getResume() != null || config.getMetricsPort() != null)
+            throw new CrackException("Jobs can't be distributed, checkpointed or serve metrics of their own");
+
+        File f = null;
+        if(config.getInputFile() != null)
+            f = new File(config.getInputFile());
+
+        HashAlgorithm algorithm = HashAlgorithms.forName(config.getHashMethod());
+        SaltedAlgorithm salted = Main.getSaltedAlgorithm(config, f);
+        AttackMode attack = Main.newAttack(config);
+
+        int id;
+        synchronized(this) {
+            if(this.closed)
+                throw new IllegalStateException("The job service is closed");
+            id = ++this.nextId;
+        }
+
+        Job job;
+        try {
+            job = new Job(id, priority, algorithm, salted, attack, config.getBloomBits(), config.getOutputFile());
+        } catch (IOException e) {
+            throw new CrackException(String.format(
+                    "Unable to open output file %s: %s", config.getOutputFile(), e.getMessage()));
+        }
+
+        Pass pass = job.load(config.getHashes(), f);
+
+        boolean over;
+        synchronized(this) {
+
+            // Closed while the hashes were loading
+            if(this.closed) {
+                job.state = State.CANCELLED;
+                over = true;
+            } else {
+                job.addPass(pass);
+                this.jobs.add(job);
+                over = this.settle(job);
+                this.notifyAll();
+            }
+        }
+
+        // Nothing to crack, the job is over as soon as it starts
+        if(over)
+            job.close();
+
+        return job;
+    }
+
+
+    /**
+     * Gets the jobs that are queued or running
+     * @return Snapshot of the jobs, in the order they were submitted
+     */
+    public synchronized List<Job> getJobs() { return new ArrayList<>(this.jobs); }
+
+
+    /**
+     * Gets the number of workers
+     * @return Number of workers every job shares
+     */
+    public int getParallelism() { return this.workers.length; }
+
+
+    /**
+     * Cancels every job and stops the workers
+     */
+    @Override
+    public void close() {
+
+        List<Job> jobs;
+        synchronized(this) {
+            this.closed = true;
+            jobs = new ArrayList<>(this.jobs);
+            this.notifyAll();
+        }
+
+        for(Job job : jobs)
+            job.cancel();
+
+        try {
+            for(Thread worker : this.workers)
+                worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Worker loop, cracks slices until the service is closed. Every worker
+     * keeps a Cracker per pass it has worked on, so switching between jobs
+     * allocates nothing once each has been seen
+     */
+    private void work() {
+
+        HashMap<Pass, Cracker> crackers = new HashMap<>();
+
+        try {
+
+            Slice slice;
+            while((slice = this.take()) != null) {
+
+                // Forget the Crackers of jobs that are over
+                crackers.keySet().removeIf(p -> p.job.isOver());
+
+                Pass pass = slice.pass;
+                boolean complete = false;
+                try {
+                    Cracker cracker = crackers.computeIfAbsent(pass, Pass::newCracker);
+                    complete = CrackEvent.crack(cracker, slice.from, slice.to);
+                } catch (Throwable t) {
+                    this.fail(pass.job, t);
+                }
+
+                if(complete)
+                    pass.progress.rangeDone(slice.to - slice.from);
+
+                if(this.done(pass.job))
+                    pass.job.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Takes the next slice to crack, waiting for one if every job is out of
+     * work. The highest priority job with work left is served, and of those
+     * the one served longest ago
+     * @return The slice, null once the service is closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private synchronized Slice take() throws InterruptedException {
+
+        while(!this.closed) {
+
+            Job best = null;
+            for(Job job : this.jobs) {
+
+                if(job.nextPass() == null)
+                    continue;
+
+                if(best == null || job.priority > best.priority ||
+                        (job.priority == best.priority && job.turn < best.turn))
+                    best = job;
+            }
+
+            if(best != null) {
+
+                Pass pass = best.nextPass();
+                long from = pass.next;
+                pass.next = Math.min(pass.keyspace, from + pass.grain);
+
+                best.turn = ++this.turns;
+                best.inFlight++;
+                best.state = State.RUNNING;
+                return new Slice(pass, from, pass.next);
+            }
+
+            this.wait();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Records that a worker is done with a slice of a job
+     * @param job Job the slice was of
+     * @return True if that was the last of the job and it should be closed
+     */
+    private synchronized boolean done(Job job) {
+
+        job.inFlight--;
+        return this.settle(job) || (job.isOver() && job.inFlight == 0);
+    }
+
+
+    /**
+     * Finishes a job once it has no work left and none in flight
+     * @param job Job to check
+     * @return True if the job finished and should be closed
+     */
+    private boolean settle(Job job) {
+
+        if(job.isOver() || job.inFlight > 0 || job.nextPass() != null)
+            return false;
+
+        job.state = State.DONE;
+        this.jobs.remove(job);
+        return true;
+    }
+
+
+    /**
+     * Gives up on a job whose Cracker failed
+     * @param job Job to give up on
+     * @param failure What went wrong
+     */
+    private synchronized void fail(Job job, Throwable failure) {
+
+        if(job.isOver())
+            return;
+
+        job.failure = failure;
+        job.stop(State.FAILED);
+    }
+
+
+    /**
+     * A crack run by the service. Its progress can be read at any time
+     * without holding up the workers
+     */
+    public class Job {
+
+        // Instance variables, the scheduling ones guarded by the service
+        private int id;
+        private int priority;
+        private HashAlgorithm algorithm;
+        private SaltedAlgorithm salted;
+        private AttackMode attack;
+        private int bloomBits;
+        private ResultWriter results;
+        private CopyOnWriteArrayList<Pass> passes;
+        private int numTargets;
+        private int inFlight;
+        private long turn;
+        private volatile State state;
+        private volatile Throwable failure;
+        private CountDownLatch finished;
+
+
+        /**
+         * Job constructor
+         * @param id Number of the job
+         * @param priority Priority of the job
+         * @param algorithm Algorithm the hashes were made with, null if they are salted
+         * @param salted Algorithm the salted hashes were made with, null if they are not
+         * @param attack Attack mode to generate candidates with
+         * @param bloomBits Bits per target of the Bloom filter in front of each pass, 0 for none
+         * @param outputFile Potfile to append results to, may be null
+         * @throws IOException if the potfile cannot be opened
+         */
+        Job(int id, int priority, HashAlgorithm algorithm, SaltedAlgorithm salted, AttackMode attack,
+            int bloomBits, String outputFile) throws IOException {
+            this.id = id;
+            this.priority = priority;
+            this.algorithm = algorithm;
+            this.salted = salted;
+            this.attack = attack;
+            this.bloomBits = bloomBits;
+            this.passes = new CopyOnWriteArrayList<>();
+            this.state = State.QUEUED;
+            this.finished = new CountDownLatch(1);
+            this.results = new ResultWriter(this::format, outputFile);
+        }
+
+
+        /**
+         * Id getter
+         * @return Number of the job, unique within the service
+         */
+        public int getId() { return this.id; }
+
+
+        /**
+         * Name getter
+         * @return Name of the job's attack
+         */
+        public String getName() { return this.attack.getName(); }
+
+
+        /**
+         * State getter
+         * @return Where the job is in its life
+         */
+        public State getState() { return this.state; }
+
+
+        /**
+         * Failure getter
+         * @return What made the job fail, null unless it has
+         */
+        public Throwable getFailure() { return this.failure; }
+
+
+        /**
+         * Priority getter
+         * @return Priority of the job
+         */
+        public int getPriority() {
+            synchronized(JobService.this) {
+                return this.priority;
+            }
+        }
+
+
+        /**
+         * Changes the priority of the job from its next slice on
+         * @param priority Jobs with a higher priority get every free worker first
+         */
+        public void setPriority(int priority) {
+            synchronized(JobService.this) {
+                this.priority = priority;
+            }
+        }
+
+
+        /**
+         * Adds hashes to crack. They are searched for over the whole keyspace
+         * once the targets added before them have been, hashes the job
+         * already has should not be added again
+         * @param hashes Hashes to add, in the same format as the job's others
+         * @return Number of hashes added, malformed ones are skipped
+         * @throws CrackException if there are too many hashes to index
+         * @exception IllegalStateException thrown if the job is over
+         */
+        public int addTargets(List<String> hashes) throws CrackException {
+
+            Pass pass = this.load(hashes, null);
+            synchronized(JobService.this) {
+
+                if(this.isOver())
+                    throw new IllegalStateException(String.format("Job %d is %s", this.id, this.state));
+
+                this.addPass(pass);
+                JobService.this.notifyAll();
+            }
+
+            return pass == null ? 0 : pass.size;
+        }
+
+
+        /**
+         * Gets the number of hashes the job is cracking
+         * @return Every hash added so far
+         */
+        public long getTargets() {
+
+            long sum = 0;
+            for(Pass pass : this.passes)
+                sum += pass.progress.getTargets();
+
+            return sum;
+        }
+
+
+        /**
+         * Gets the number of hashes cracked
+         * @return Hashes cracked so far
+         */
+        public long getCracked() {
+
+            long sum = 0;
+            for(Pass pass : this.passes)
+                sum += pass.progress.getCracked();
+
+            return sum;
+        }
+
+
+        /**
+         * Gets the number of candidates tried
+         * @return Candidates tried so far, over every pass
+         */
+        public long getCandidates() {
+
+            long sum = 0;
+            for(Pass pass : this.passes)
+                sum += pass.progress.getCandidates();
+
+            return sum;
+        }
+
+
+        /**
+         * Gets how much of the keyspace the job has searched
+         * @return Fraction of the keyspace of every pass searched, between 0 and 1
+         */
+        public double getCompletion() {
+
+            double done = 0;
+            double total = 0;
+            for(Pass pass : this.passes) {
+                done += pass.progress.getCompletion() * pass.keyspace;
+                total += pass.keyspace;
+            }
+
+            return total == 0 ? 1 : done / total;
+        }
+
+
+        /**
+         * Cancels the job. Slices being cracked stop within a few candidates
+         * and the results found so far are still written
+         * @return False if the job was already over
+         */
+        public boolean cancel() {
+
+            boolean close;
+            synchronized(JobService.this) {
+
+                if(this.isOver())
+                    return false;
+
+                this.stop(State.CANCELLED);
+                close = this.inFlight == 0;
+            }
+
+            if(close)
+                this.close();
+
+            return true;
+        }
+
+
+        /**
+         * Waits for the job to be over and its results written
+         * @param timeout Longest time to wait
+         * @param unit Unit of the timeout
+         * @return True if the job is over, false if the wait timed out
+         * @throws InterruptedException if interrupted while waiting
+         */
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            return this.finished.await(timeout, unit);
+        }
+
+
+        /**
+         * Checks whether the job is done, cancelled or failed
+         * @return True if no more of it will be cracked
+         */
+        boolean isOver() {
+            State state = this.state;
+            return state != State.QUEUED && state != State.RUNNING;
+        }
+
+
+        /**
+         * Loads hashes into a pass of their own, not yet numbered
+         * @param hashes Hashes to load
+         * @param file File of hashes to load as well, may be null
+         * @return The pass, null if no hash could be loaded
+         * @throws CrackException if there are too many hashes to index
+         */
+        Pass load(List<String> hashes, File file) throws CrackException {
+
+            Pass pass;
+            if(this.salted != null) {
+                pass = new Pass(this, Main.getSaltedHashes(hashes, file, this.salted, null, null));
+            } else {
+                TargetIndex targets = Main.getHashes(hashes, file, this.algorithm.getDigestLength(), null, null);
+                BloomFilter filter = null;
+                if(this.bloomBits > 0 && targets.size() > 0)
+                    filter = BloomFilter.build(targets, this.bloomBits);
+                pass = new Pass(this, targets, filter);
+            }
+
+            return pass.size == 0 ? null : pass;
+        }
+
+
+        /**
+         * Numbers a pass's targets after the job's others and queues it, must
+         * be called holding the service's lock
+         * @param pass Pass to add, may be null
+         */
+        void addPass(Pass pass) {
+
+            if(pass == null)
+                return;
+
+            pass.base = this.numTargets;
+            this.numTargets += pass.size;
+            this.passes.add(pass);
+        }
+
+
+        /**
+         * Gets the first pass with keyspace left to hand out, must be called
+         * holding the service's lock
+         * @return The pass, null if there is none or the job is over
+         */
+        Pass nextPass() {
+
+            if(this.isOver())
+                return null;
+
+            for(Pass pass : this.passes)
+                if(pass.next < pass.keyspace && !pass.cracked.isDone())
+                    return pass;
+
+            return null;
+        }
+
+
+        /**
+         * Ends the job early and stops every slice being cracked, must be
+         * called holding the service's lock
+         * @param state State to end in
+         */
+        void stop(State state) {
+
+            this.state = state;
+            for(Pass pass : this.passes)
+                pass.cracked.stop();
+
+            JobService.this.jobs.remove(this);
+        }
+
+
+        /**
+         * Writes the last results and releases anyone waiting on the job,
+         * called once the job is over and no worker is cracking it
+         */
+        void close() {
+            this.results.close();
+            this.finished.countDown();
+        }
+
+
+        /**
+         * Formats a cracked target for the results
+         * @param target Target number, across every pass
+         * @return Text of the hash
+         */
+        private String format(int target) {
+
+            Pass pass = null;
+            for(Pass p : this.passes)
+                if(p.base <= target)
+                    pass = p;
+
+            return pass.format(target - pass.base);
+        }
+    }
+
+
+    /**
+     * A set of a job's targets and the keyspace left to search for them
+     */
+    class Pass {
+
+        // Instance variables
+        private Job job;
+        private TargetIndex targets;
+        private BloomFilter filter;
+        private SaltedTargets saltedTargets;
+        private CrackedSet cracked;
+        private Progress progress;
+        private int size;
+        private int base;
+        private long keyspace;
+        private long grain;
+        private long next;
+
+
+        /**
+         * Pass constructor
+         * @param job Job the pass is part of
+         * @param targets Index of the hashes to crack
+         * @param filter Prefilter in front of the index, may be null
+         */
+        Pass(Job job, TargetIndex targets, BloomFilter filter) {
+            this(job, targets.size(), job.attack.getCost());
+            this.targets = targets;
+            this.filter = filter;
+        }
+
+
+        /**
+         * Pass constructor for salted hashes
+         * @param job Job the pass is part of
+         * @param targets Salt groups of the hashes to crack
+         */
+        Pass(Job job, SaltedTargets targets) {
+            this(job, targets.size(), CrackScheduler.cost(job.salted, targets));
+            this.saltedTargets = targets;
+            this.saltedTargets.setCracked(this.cracked);
+        }
+
+
+        /**
+         * Pass constructor
+         * @param job Job the pass is part of
+         * @param size Number of targets
+         * @param cost Rough cost of a single index in hashes of a fast algorithm
+         */
+        private Pass(Job job, int size, long cost) {
+            this.job = job;
+            this.size = size;
+            this.cracked = new CrackedSet(size);
+            this.keyspace = job.attack.getKeyspace();
+            this.progress = new Progress(this.keyspace, size);
+
+            int parallelism = JobService.this.workers.length;
+            this.grain = CrackScheduler.grain(this.keyspace, cost, parallelism);
+        }
+
+
+        /**
+         * Creates a Cracker for a worker to crack this pass with
+         * @return The Cracker
+         */
+        Cracker newCracker() {
+
+            Cracker cracker;
+            if(this.saltedTargets != null)
+                cracker = new Cracker(this.job.salted, this.job.attack, this.saltedTargets,
+                        this.progress.newCounter(), this.job.results, this.cracked);
+            else
+                cracker = new Cracker(this.job.algorithm, this.job.attack, this.targets, this.filter,
+                        this.progress.newCounter(), this.job.results, this.cracked);
+
+            cracker.setBase(this.base);
+            return cracker;
+        }
+
+
+        /**
+         * Formats a target of this pass
+         * @param target Target number within the pass
+         * @return Text of the hash
+         */
+        String format(int target) {
+            return this.saltedTargets != null ? this.saltedTargets.format(target) : this.targets.toHex(target);
+        }
+    }
+
+
+    /**
+     * A range of a pass handed to a worker
+     */
+    static class Slice {
+
+        // Instance variables
+        private Pass pass;
+        private long from;
+        private long to;
+
+
+        /**
+         * Slice constructor
+         * @param pass Pass the range is of
+         * @param from First index of the range
+         * @param to End of the range (exclusive)
+         */
+        Slice(Pass pass, long from, long to) {
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+
+    /**
+     * Used for debugging
+     */
+    public static void main(String[] args) throws Exception {
+
+        HashAlgorithm md5 = HashAlgorithms.forName("md5");
+        Function<String, String> hash = plain -> {
+            byte[] digest = new byte[md5.getDigestLength()];
+            md5.hash(plain.getBytes(), 0, plain.length(), digest, 0);
+            return Hex.encode(digest, 0, digest.length);
+        };
+        Function<String[], CrackConfig> config = a -> CrackConfig.parse(a).getConfig();
+
+
+        // Holding the lock keeps the service's worker from taking slices itself
+        JobService service = new JobService(1);
+        synchronized(service) {
+
+            System.out.println("TEST 1 - should print 3 1 2 1 2");
+            // TEST 1, slices are handed out by hand, the highest priority job goes
+            // first and jobs of the same priority take turns
+            Job a = service.submit(config.apply(
+                    new String[]{"-m", "md5", "-k", "?l?l?l?l?l?l", hash.apply("zzzzzz")}), 0);
+            Job b = service.submit(config.apply(
+                    new String[]{"-m", "md5", "-k", "?l?l?l?l?l?l", hash.apply("yyyyyy")}), 0);
+            Job c = service.submit(config.apply(
+                    new String[]{"-m", "md5", "-k", "?d", hash.apply("7")}), 5);
+
+            StringBuilder order = new StringBuilder();
+            for(int i = 0; i < 5; i++) {
+                Slice slice = service.take();
+                order.append(slice.pass.job.getId()).append(' ');
+                if(service.done(slice.pass.job))
+                    slice.pass.job.close();
+            }
+            System.out.println(order.toString().trim());
+
+
+            System.out.println("TEST 2 - should print CANCELLED DONE 2 2 2");
+            // TEST 2, a cancelled job gets no more slices
+            System.out.println(String.format("%s %s", a.cancel() ? a.getState() : "not cancelled", c.getState()));
+            order.setLength(0);
+            for(int i = 0; i < 3; i++) {
+                Slice slice = service.take();
+                order.append(slice.pass.job.getId()).append(' ');
+                service.done(slice.pass.job);
+            }
+            System.out.println(order.toString().trim());
+
+
+            System.out.println("TEST 3 - should print 1 2 and report an error");
+            // TEST 3, malformed hashes are skipped and jobs that are over take no more
+            System.out.println(b.addTargets(Arrays.asList(hash.apply("xxxxxx"), "nothex")) + " " + b.getTargets());
+            try {
+                a.addTargets(Arrays.asList(hash.apply("wwwwww")));
+            } catch (IllegalStateException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        service.close();
+
+
+        System.out.println("TEST 4 - should crack abcd and zzzz and print DONE 2/2");
+        // TEST 4, targets added to a running job are cracked in a pass of their own
+        JobService running = new JobService(2);
+        Job d = running.submit(config.apply(new String[]{"-m", "md5", "-k", "?l?l?l?l", hash.apply("abcd")}), 0);
+        d.addTargets(Arrays.asList(hash.apply("zzzz")));
+        d.await(1, TimeUnit.MINUTES);
+        System.out.println(String.format("%s %d/%d", d.getState(), d.getCracked(), d.getTargets()));
+        running.close();
+    }
+}
@@ -1,5 +1,19 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 /**
  * Main class for the cracker
@@ -11,31 +25,415 @@ import java.util.ArrayList;
 public class Main {
 
     /**
-     * Gets the hashes from the input file and dumps them into the extraArgs
-     * string array
+     * Streams the hashes from the commandline and the input file into packed
+     * chunks and builds the shared target index over them. Hashes already
+     * in the potfile cache are left out of the index. Cracking waits for
+     * the whole list, as targets are only numbered once the index is sorted
      * @param extraArgs List of extra arguments in the program
-     * @param filePath Path of the file containing the hashes
-     * @return A new String[] filled with hashes to crack
+     * @param filePath Path of the file containing the hashes, may be null
+     * @param width Length of a digest in bytes
+     * @param cache Cache of hashes cracked by earlier runs, may be null
+     * @param known Receives the potfile line of every hash already cracked, unused without a cache
+     * @return Index of every hash loaded
+     * @throws CrackException if there are too many hashes to index
      */
-    private static ArrayList<String> getHashes(ArrayList<String> extraArgs, File filePath) {
+    static TargetIndex getHashes(List<String> extraArgs, File filePath, int width,
+                                 PotfileCache cache, Consumer<String> known) throws CrackException {
 
-        // TODO implement this function
-        return extraArgs;
+        ArrayList<HashChunk> chunks = new ArrayList<>();
+        HashLoader loader = new HashLoader(width, chunks::add);
+
+        // All extra supplied arguments should be hashes
+        for(String hex : extraArgs)
+            loader.addHex(hex);
+
+        if(filePath != null) {
+
+            try {
+                loader.load(filePath);
+            } catch (IOException e) {
+                System.err.println(String.format(
+                        "Unable to read hashes from %s: %s", filePath, e.getMessage()));
+            }
+        }
+
+        loader.flush();
+
+        if(loader.getSkipped() > 0)
+            System.err.println(String.format("Skipped %d malformed hashes", loader.getSkipped()));
+
+        // Drop every hash an earlier run already cracked
+        if(cache != null)
+            cache.screen(chunks, known);
+
+        try {
+            return TargetIndex.build(width, chunks);
+        } catch (IllegalArgumentException e) {
+            throw new CrackException(e.getMessage());
+        }
+    }
+
+
+    /**
+     * Gets the index of the hashes. A hash store that was saved by an earlier
+     * run is mapped back in as it is, with no hashes loaded or screened
+     * against the potfile; otherwise the hashes are loaded and, if a store
+     * was asked for, saved to it
+     * @param config Configuration naming the hashes and the hash store
+     * @param filePath Path of the file containing the hashes, may be null
+     * @param algorithm Algorithm the hashes were made with
+     * @param cache Cache of hashes cracked by earlier runs, may be null
+     * @param known Receives the potfile line of every hash already cracked, unused without a cache
+     * @return Index of every hash
+     * @throws CrackException if the hashes cannot be indexed, or the store
+     * cannot be read or holds other hashes
+     */
+    static TargetIndex getTargets(CrackConfig config, File filePath, HashAlgorithm algorithm,
+                                  PotfileCache cache, Consumer<String> known) throws CrackException {
+
+        String store = config.getHashStore();
+        if(store == null || !new File(store).exists()) {
+
+            TargetIndex targets = getHashes(config.getHashes(), filePath, algorithm.getDigestLength(), cache, known);
+            if(store != null) {
+
+                try {
+                    targets.save(new File(store), algorithm.getName());
+                } catch (IOException e) {
+                    System.err.println(String.format("Unable to save hash store %s: %s", store, e.getMessage()));
+                }
+            }
+
+            return targets;
+        }
+
+        if(!config.getHashes().isEmpty() || filePath != null)
+            throw new CrackException(String.format("Hash store %s already exists, hashes can't be added to it", store));
+
+        try {
+            return TargetIndex.open(new File(store), algorithm.getName());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new CrackException(String.format("Unable to read hash store %s: %s", store, e.getMessage()));
+        }
+    }
+
+
+    /**
+     * Loads the salted hashes from the commandline and the input file and
+     * groups them by salt. Hashes already in the potfile cache are left out
+     * @param extraArgs List of extra arguments in the program
+     * @param filePath Path of the file containing the hashes, may be null
+     * @param algorithm Algorithm the hashes were made with
+     * @param cache Cache of hashes cracked by earlier runs, may be null
+     * @param known Receives the potfile line of every hash already cracked, unused without a cache
+     * @return The hashes grouped by salt
+     */
+    static SaltedTargets getSaltedHashes(List<String> extraArgs, File filePath, SaltedAlgorithm algorithm,
+                                         PotfileCache cache, Consumer<String> known) {
+
+        SaltedTargets targets = new SaltedTargets(algorithm);
+        if(cache != null)
+            targets.setCache(cache, known);
+        for(String hash : extraArgs)
+            targets.add(hash);
+
+        if(filePath != null) {
+
+            try {
+                targets.load(filePath);
+            } catch (IOException e) {
+                System.err.println(String.format(
+                        "Unable to read hashes from %s: %s", filePath, e.getMessage()));
+            }
+        }
+
+        targets.build();
+
+        if(targets.getSkipped() > 0)
+            System.err.println(String.format("Skipped %d malformed hashes", targets.getSkipped()));
+
+        return targets;
+    }
+
+
+    /**
+     * Finds the targets an earlier run already cracked, leaving them in
+     * place so every target keeps its number
+     * @param cache Cache of hashes cracked by earlier runs
+     * @param names Text of every target, as the potfile has it
+     * @param numTargets Number of targets
+     * @param known Receives the potfile line of every hash already cracked
+     * @return The targets in the potfile
+     */
+    static BitSet findKnown(PotfileCache cache, IntFunction<String> names, int numTargets,
+                            Consumer<String> known) {
+
+        BitSet found = new BitSet(numTargets);
+        for(int t = 0; t < numTargets; t++) {
+
+            String line = cache.find(names.apply(t));
+            if(line != null) {
+                found.set(t);
+                known.accept(line);
+            }
+        }
+
+        return found;
+    }
+
+
+    /**
+     * Gets the first hash that will be loaded, to tell what format the hashes are in
+     * @param extraArgs List of extra arguments in the program
+     * @param filePath Path of the file containing the hashes, may be null
+     * @return The first hash, or null if there is none
+     */
+    static String firstHash(List<String> extraArgs, File filePath) {
+
+        if(extraArgs.size() > 0)
+            return extraArgs.get(0);
+
+        if(filePath == null)
+            return null;
+
+        try(BufferedReader in = new BufferedReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
+
+            String line;
+            while((line = in.readLine()) != null)
+                if(!line.trim().isEmpty())
+                    return line.trim();
+        } catch (IOException e) {
+            // getHashes() reports the file being unreadable
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Looks up the salted algorithm the hashes were made with. A plain
+     * digest algorithm is salted when the first hash looks like 'hash:salt'
+     * @param config Configuration naming the algorithm and the hashes
+     * @param filePath Path of the file containing the hashes, may be null
+     * @return The salted algorithm, or null if the hashes are unsalted
+     * @throws CrackException if there is no such algorithm
+     */
+    static SaltedAlgorithm getSaltedAlgorithm(CrackConfig config, File filePath) throws CrackException {
+
+        HashAlgorithm algorithm = HashAlgorithms.forName(config.getHashMethod());
+        SaltedAlgorithm salted = HashAlgorithms.forSaltedName(config.getHashMethod());
+        if(algorithm != null) {
+            String first = firstHash(config.getHashes(), filePath);
+            if(first != null && first.indexOf(':') >= 0)
+                salted = new SaltedDigestAlgorithm(algorithm);
+        }
+
+        if(algorithm == null && salted == null)
+            throw new CrackException(String.format(
+                    "Unknown hash method, expected one of: %s", HashAlgorithms.getNames()));
+
+        return salted;
+    }
+
+
+    /**
+     * Builds the attack a config asks for out of its wordlist, rules and
+     * mask. Rainbow tables are left to the caller, they need the hashes
+     * @param config Configuration of the attack
+     * @return The attack, null if the config names none of them
+     * @throws CrackException if a file of the attack cannot be read or the mask is malformed
+     */
+    static AttackMode newAttack(CrackConfig config) throws CrackException {
+
+        // Map the wordlist if a dictionary attack was asked for
+        AttackMode attack = null;
+        if(config.getWordlist() != null) {
+
+            String path = config.getWordlist();
+            try {
+                attack = new WordlistAttack(new File(path));
+            } catch (IOException e) {
+                throw new CrackException(String.format(
+                        "Unable to read wordlist %s: %s", path, e.getMessage()));
+            }
+        }
+
+        // Mangle the words with rules if any were supplied
+        String rulesPath = config.getRules();
+        if(rulesPath != null) {
+
+            try {
+                attack = new RuleAttack((WordlistAttack)attack, RuleSet.load(new File(rulesPath)));
+            } catch (IOException e) {
+                throw new CrackException(String.format(
+                        "Unable to read rules %s: %s", rulesPath, e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                throw new CrackException(e.getMessage());
+            }
+        }
+
+        // Parse the mask for a brute force attack, or to combine with the words
+        if(config.getMask() != null) {
+
+            // Markov statistics reorder the mask's charsets
+            String markovPath = config.getMarkov();
+            MarkovStats markov = null;
+            if(markovPath != null) {
+
+                try {
+                    markov = MarkovStats.load(new File(markovPath));
+                } catch (IOException e) {
+                    throw new CrackException(String.format(
+                            "Unable to read Markov statistics %s: %s", markovPath, e.getMessage()));
+                }
+            }
+
+            try {
+                MaskAttack mask = new MaskAttack(config.getMask(), markov, config.getMarkovThreshold());
+                if(attack == null)
+                    attack = mask;
+                else
+                    attack = new HybridAttack((WordlistAttack)attack, mask, config.isPrepend());
+            } catch (IllegalArgumentException e) {
+                throw new CrackException(e.getMessage());
+            }
+        }
+
+        return attack;
     }
 
 
     /**
-     * Collects the number of completed hashes from each worker
-     * @param crackers List of worker
-     * @return Number of completed hashes
+     * Closes the potfile cache once the hashes are loaded, flushing the
+     * lines of the hashes it already had
+     * @param cache Cache to close, may be null
+     * @param known Writer the known hashes' lines went to
      */
-    private static Integer collectNumCompleted(ArrayList<Cracker> crackers) {
+    private static void closePotfile(PotfileCache cache, BufferedWriter known) {
+
+        if(cache == null)
+            return;
 
-        int numCompleted = 0;
-        for(Cracker cracker : crackers)
-            numCompleted += cracker.getNumCompleted();
+        try {
+            known.flush();
+        } catch (IOException e) {
+            System.err.println(String.format("Unable to print the potfile's hashes: %s", e.getMessage()));
+        }
 
-        return numCompleted;
+        try {
+            cache.close();
+        } catch (IOException e) {
+            // Nothing left to read from it
+        }
+    }
+
+
+    /**
+     * Saves a checkpoint, reporting rather than throwing any error
+     * @param checkpoint Checkpoint to save
+     * @param file File to save it to
+     */
+    private static void saveCheckpoint(Checkpoint checkpoint, File file) {
+
+        try {
+            checkpoint.save(file);
+        } catch (IOException e) {
+            System.err.println(String.format("Unable to save checkpoint %s: %s", file, e.getMessage()));
+        }
+    }
+
+
+    /**
+     * Starts saving a checkpoint at a fixed interval
+     * @param checkpoint Checkpoint to save
+     * @param file File to save it to
+     * @param interval Milliseconds between saves
+     * @return The executor doing the saving
+     */
+    private static ScheduledExecutorService startCheckpointing(Checkpoint checkpoint, File file, long interval) {
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "checkpointer");
+            t.setDaemon(true);
+            return t;
+        });
+
+        executor.scheduleWithFixedDelay(() -> saveCheckpoint(checkpoint, file), interval, interval,
+                TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+
+    /**
+     * Generates a rainbow table over the plaintexts of the mask, reporting
+     * progress as the chains are built
+     * @param config Configuration of the table
+     * @throws CrackException if the table cannot be generated
+     */
+    private static void generateTable(CrackConfig config) throws CrackException {
+
+        HashAlgorithm algorithm = HashAlgorithms.forName(config.getHashMethod());
+        File file = new File(config.getGenerateTable());
+
+        RainbowTable table;
+        try {
+            int minLength = config.getMinLength();
+            if(minLength == 0)
+                minLength = MaskAttack.parse(config.getMask()).length;
+
+            table = RainbowTable.create(file, algorithm, config.getMask(), minLength, config.getChainLength());
+        } catch (IllegalArgumentException e) {
+            throw new CrackException(e.getMessage());
+        }
+
+        // By default the chains together are about as long as the space is big
+        long chains = config.getChains();
+        if(config.getTableSize() > 0)
+            chains = config.getTableSize() / RainbowTable.RECORD;
+        else if(chains == 0)
+            chains = (table.getSpace() + config.getChainLength() - 1) / config.getChainLength();
+        chains = Math.min(chains, Math.min(table.getSpace(), RainbowTable.MAX_CHAINS));
+
+        Progress progress = new Progress(chains, 0);
+        ProgressReporter reporter = new ProgressReporter(progress);
+        reporter.start(1, TimeUnit.SECONDS);
+
+        long written;
+        try {
+            written = table.generate(algorithm, chains, config.getNumWorkers(), progress);
+        } catch (IOException e) {
+            throw new CrackException(String.format(
+                    "Unable to write rainbow table %s: %s", file, e.getMessage()));
+        } finally {
+            reporter.stop();
+        }
+
+        System.err.println(String.format("Wrote %d chains to %s, %d merged into others",
+                written, file, chains - written));
+    }
+
+
+    /**
+     * Trains Markov statistics and saves them
+     * @param config Configuration naming the training data and statistics file
+     * @throws CrackException if the statistics cannot be trained or saved
+     */
+    private static void trainMarkov(CrackConfig config) throws CrackException {
+
+        File file = new File(config.getTrainMarkov());
+        try {
+            MarkovStats stats = MarkovStats.train(file);
+            if(stats.getTruncated() > 0)
+                System.err.println(String.format(
+                        "%,d passwords of %s are longer than %d bytes, only their start was counted",
+                        stats.getTruncated(), file, CandidateGenerator.MAX_CANDIDATE));
+
+            stats.save(new File(config.getMarkov()));
+            System.err.println(String.format("Saved Markov statistics of %s to %s", file, config.getMarkov()));
+        } catch (IOException e) {
+            throw new CrackException(String.format(
+                    "Unable to train Markov statistics from %s: %s", file, e.getMessage()));
+        }
     }
 
 
@@ -45,77 +443,332 @@ public class Main {
      */
     public static void main(String[] args) {
 
-        // Create arg parser and get number of cores desired to use
-        ArgumentParser parser = new ArgumentParser();
-        parser.addArgument(Argtype.INTEGER, "numWorker", "w",
-                "Number of worker to use. Default is the number of cores available.");
-        parser.addArgument(Argtype.STRING, "inputFile", "i",
-                "File holding a series of hashes (one per line).");
-        parser.addArgument(Argtype.STRING, "hashMethod", "m",
-                "Method of hashing used on the hashes");
-
-        // Hash method is required
-        parser.setRequired("hashMethod");
+        CrackConfig.Result parsed = CrackConfig.parse(args);
+        if(!parsed.isValid()) {
 
-        ParserResult res = parser.parseArgs(args, true);
+            for(String error : parsed.getErrors())
+                System.err.println(error);
 
-        // Check if one or more hashes is supplied through an input file
-        // or via the commandline
-        if(res.getArgMap().get("inputFile").getVal() == null &&
-            res.getExtraArgs().size() == 0) {
+            CrackConfig.usage();
+            System.exit(1);
+        }
 
-            System.err.println(
-                    "Program requires either a hash or series " +
-                    "of hashes on the commandline or an input file");
+        try {
+            run(parsed.getConfig());
+        } catch (CrackException e) {
+            System.err.println(e.getMessage());
             System.exit(1);
         }
+    }
+
+
+    /**
+     * Runs whatever a config asks for: generating a rainbow table, training
+     * Markov statistics or cracking, as the coordinator or a worker of a
+     * distributed run or on its own. Returns once the run is over and never
+     * exits the JVM, so cracks can be run in process
+     * @param config Configuration of the run
+     * @throws CrackException if the run cannot be started or fails part way
+     */
+    public static void run(CrackConfig config) throws CrackException {
 
-        // If an inputFile is supplied then load those hashes into the extra
-        // args array
-        if(res.getArgMap().get("inputFile").getVal() != null) {
+        // Generating a rainbow table needs no hashes
+        if(config.getGenerateTable() != null) {
+            generateTable(config);
+            return;
+        }
 
-            File f = new File((String)res.getArgMap().get("inputFile").getVal());
-            getHashes(res.getExtraArgs(), f);
+        // Neither does training Markov statistics
+        if(config.getTrainMarkov() != null) {
+            trainMarkov(config);
+            return;
         }
 
-        ArrayList<Cracker> crackers = new ArrayList<>();
+        // If an inputFile is supplied then its hashes are loaded along with
+        // the ones on the commandline
+        File f = null;
+        if(config.getInputFile() != null)
+            f = new File(config.getInputFile());
 
-        // Get the available number of processors
-        int cores = Runtime.getRuntime().availableProcessors();
-        Integer numWorkers = (Integer)res.getArgMap().get("numWorker").getVal();
+        // Look up the algorithm the hashes were made with
+        HashAlgorithm algorithm = HashAlgorithms.forName(config.getHashMethod());
+        SaltedAlgorithm salted = getSaltedAlgorithm(config, f);
 
-        // If numWorkers is not supplied use as many workers as there are cores
-        if(numWorkers == null)
-            numWorkers = cores;
+        // Rainbow tables are looked up on their own, once the hashes are loaded
+        RainbowTable[] tables = null;
+        if(!config.getRainbowTables().isEmpty()) {
 
-        // Create the correct number of crackers
-        while(numWorkers-- > 0)
-            crackers.add(new Cracker());
+            if(salted != null)
+                throw new CrackException("--rainbowTable can't be used with salted hashes");
 
-        // All extra supplied arguments should be hashes
-        ArrayList<String> hashes = res.getExtraArgs();
+            List<String> paths = config.getRainbowTables();
+            tables = new RainbowTable[paths.size()];
+            for(int i = 0; i < tables.length; i++) {
 
-        // Iterate over hashes and dish them out to the crackers
-        for(int i = 0; i < hashes.size(); i++)
-            crackers.get(i % crackers.size()).addHash(hashes.get(i));
+                try {
+                    tables[i] = RainbowTable.open(new File(paths.get(i)));
+                } catch (IOException e) {
+                    throw new CrackException(String.format(
+                            "Unable to read rainbow table %s: %s", paths.get(i), e.getMessage()));
+                }
+            }
+        }
 
-        // Start the cracker threads
-        for(Cracker cracker : crackers)
-            cracker.start();
+        // Every attack but the rainbow tables is built before the hashes are loaded
+        AttackMode attack = newAttack(config);
 
-        // Alert user of completion
-        int numCompleted = 0;
-        while(numCompleted < hashes.size()) {
+        // Hashes cracked by earlier runs come straight from the potfile. A
+        // distributed run skips this so every node numbers the targets the same,
+        // and a run with a checkpoint keeps them as targets already cracked, so
+        // the targets it is resumed with are numbered the same as they were
+        String outputFile = config.getOutputFile();
+        boolean screen = config.getCheckpoint() == null && config.getResume() == null;
+        PotfileCache cache = null;
+        if(outputFile != null && config.getListen() == null && config.getConnectHost() == null) {
 
-            float completion = (float)numCompleted / (float)hashes.size();
-            synchronized (System.out) {
-                System.out.println(String.format("Completion: %.2f", completion));
+            try {
+                cache = PotfileCache.open(new File(outputFile));
+            } catch (IOException e) {
+                System.err.println(String.format(
+                        "Unable to read potfile %s, cracking every hash: %s", outputFile, e.getMessage()));
             }
+        }
 
-            wait();
-            collectNumCompleted(crackers);
+        // Known hashes are printed as they are found, like new results
+        BufferedWriter stdout = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        long[] numKnown = new long[1];
+        Consumer<String> known = line -> {
+            try {
+                stdout.write(line);
+                stdout.write('\n');
+                numKnown[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        // Load the hashes, salted ones are grouped by salt. The potfile is
+        // only needed while they load
+        TargetIndex targets = null;
+        SaltedTargets saltedTargets = null;
+        String methodName;
+        int numTargets;
+        IntFunction<String> names;
+        BitSet alreadyCracked = null;
+        try {
+
+            if(salted != null) {
+
+                if(config.getHashStore() != null)
+                    throw new CrackException("--hashStore can only hold unsalted hashes");
+
+                saltedTargets = getSaltedHashes(config.getHashes(), f, salted, screen ? cache : null, known);
+                methodName = salted.getName();
+                numTargets = saltedTargets.size();
+                names = saltedTargets::format;
+            } else {
+                targets = getTargets(config, f, algorithm, screen ? cache : null, known);
+                methodName = algorithm.getName();
+                numTargets = targets.size();
+                names = targets::toHex;
+            }
+
+            if(cache != null && !screen)
+                alreadyCracked = findKnown(cache, names, numTargets, known);
+
+            if(tables != null) {
+
+                try {
+                    attack = new RainbowAttack(tables, algorithm, targets);
+                } catch (IllegalArgumentException e) {
+                    throw new CrackException(e.getMessage());
+                }
+            }
+        } finally {
+            closePotfile(cache, stdout);
+        }
+
+        if(cache != null) {
+
+            if(numKnown[0] > 0)
+                System.err.println(String.format("%d hashes were already in the potfile", numKnown[0]));
+
+            int left = alreadyCracked != null ? numTargets - alreadyCracked.cardinality() : numTargets;
+            if(numKnown[0] > 0 && left == 0)
+                return;
+        }
+
+        // Build the optional Bloom filter and report what it costs, salted
+        // hashes are already looked up in small per salt indexes
+        BloomFilter filter = null;
+        if(config.getBloomBits() > 0 && targets != null) {
+
+            filter = BloomFilter.build(targets, config.getBloomBits());
+            System.err.println(String.format(
+                    "Bloom filter: %d bytes, estimated false positive rate %.4f%%",
+                    filter.getMemory(), filter.getFalsePositiveRate() * 100));
+        }
+
+        // State of this run, taken from the checkpoint being resumed if there
+        // is one. Runs that save or share it fingerprint the targets, so a
+        // checkpoint is never applied to a different set of hashes
+        String checkpointFile = config.getCheckpoint();
+        String resumeFile = config.getResume();
+        byte[] fingerprint = new byte[0];
+        if(checkpointFile != null || resumeFile != null || config.getListen() != null ||
+                config.getConnectHost() != null)
+            fingerprint = targets != null ? targets.fingerprint() : saltedTargets.fingerprint();
+        Checkpoint checkpoint = new Checkpoint(methodName, attack.getName(),
+                attack.getKeyspace(), numTargets, fingerprint);
+        if(resumeFile != null) {
+
+            try {
+                Checkpoint saved = Checkpoint.load(new File(resumeFile));
+                if(!saved.matches(checkpoint))
+                    throw new CrackException(String.format(
+                            "Checkpoint %s is for a different attack or set of hashes", resumeFile));
+                checkpoint = saved;
+            } catch (IOException e) {
+                throw new CrackException(String.format(
+                        "Unable to resume from %s: %s", resumeFile, e.getMessage()));
+            }
+
+            if(checkpointFile == null)
+                checkpointFile = resumeFile;
+        }
+
+        if(alreadyCracked != null)
+            for(int t = alreadyCracked.nextSetBit(0); t >= 0; t = alreadyCracked.nextSetBit(t + 1))
+                checkpoint.getCracked().add(t);
+
+        // Cracked hashes are written from a background thread
+        ResultWriter results;
+        try {
+            results = new ResultWriter(names, outputFile);
+        } catch (IOException e) {
+            throw new CrackException(String.format(
+                    "Unable to open output file %s: %s", outputFile, e.getMessage()));
         }
 
+        // Everything started from here on is stopped however the run ends
+        Progress progress = new Progress(attack.getKeyspace(), numTargets);
+        CrackScheduler scheduler = null;
+        ProgressReporter reporter = null;
+        Metrics metrics = null;
+        ScheduledExecutorService checkpointer = null;
+        RemoteWorker worker = null;
+        try {
+
+            // Workers get their state from the coordinator, which keeps the checkpoints
+            Integer listen = config.getListen();
+            int numWorkers = config.getNumWorkers();
+            if(config.getConnectHost() != null) {
+
+                try {
+                    worker = new RemoteWorker(config.getConnectHost(), config.getConnectPort(),
+                            checkpoint, progress, results);
+                } catch (IOException e) {
+                    throw new CrackException(String.format("Unable to join coordinator %s:%d: %s",
+                            config.getConnectHost(), config.getConnectPort(), e.getMessage()));
+                }
+            }
+
+            // Start a pool of that many crackers on the keyspace, unless this is
+            // the coordinator, which leaves the cracking to its workers
+            progress.setCrackedBefore(checkpoint.getCracked().count());
+            if(attack instanceof RainbowAttack)
+                ((RainbowAttack)attack).setCracked(checkpoint.getCracked());
+            if(listen == null && saltedTargets != null) {
+                saltedTargets.setCracked(checkpoint.getCracked());
+                scheduler = new CrackScheduler(numWorkers, salted, attack, saltedTargets,
+                        progress, results, checkpoint);
+            } else if(listen == null) {
+                scheduler = new CrackScheduler(numWorkers, algorithm, attack, targets, filter,
+                        progress, results, checkpoint);
+            }
+            reporter = new ProgressReporter(progress);
+            reporter.start(1, TimeUnit.SECONDS);
+
+            // Metrics are always published over JMX, and over HTTP if asked for
+            metrics = new Metrics(progress);
+            if(scheduler != null)
+                metrics.addQueue("prefetch", scheduler::getQueueDepth);
+            metrics.addQueue("results", results::getQueueDepth);
+            metrics.start();
+
+            Integer metricsPort = config.getMetricsPort();
+            if(metricsPort != null) {
+
+                try {
+                    System.err.println(String.format(
+                            "Serving metrics at http://localhost:%d/metrics", metrics.serve(metricsPort)));
+                } catch (IOException e) {
+                    System.err.println(String.format(
+                            "Unable to serve metrics on port %d: %s", metricsPort, e.getMessage()));
+                }
+            }
+
+            // Save the state of the run in the background
+            if(checkpointFile != null) {
+
+                checkpointer = startCheckpointing(checkpoint, new File(checkpointFile),
+                        config.getCheckpointInterval().toMillis());
+            }
+
+            // Wait for the run to finish, progress is reported in the background
+            if(listen != null) {
+
+                try(Coordinator coordinator = new Coordinator(listen, checkpoint, progress, results,
+                        config.getLeaseTimeout().toMillis())) {
+                    System.err.println(String.format("Coordinating on port %d", coordinator.getPort()));
+                    metrics.addQueue("leases_waiting", coordinator::getWaiting);
+                    metrics.addQueue("leases_active", coordinator::getLeased);
+                    coordinator.run();
+                } catch (IOException e) {
+                    throw new CrackException(String.format("Unable to coordinate: %s", e.getMessage()));
+                }
+            } else if(worker != null) {
+
+                try {
+                    worker.run(scheduler);
+                } catch (IOException e) {
+                    throw new CrackException(String.format("Lost the coordinator: %s", e.getMessage()));
+                }
+            } else {
+
+                scheduler.start();
+                try {
+                    scheduler.awaitCompletion(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } finally {
+
+            if(reporter != null)
+                reporter.stop();
+            if(metrics != null)
+                metrics.close();
+            if(scheduler != null)
+                scheduler.shutdown();
+            results.close();
+
+            if(worker != null) {
+                try {
+                    worker.close();
+                } catch (IOException e) {
+                    // Already disconnected
+                }
+            }
+
+            // One last checkpoint so the file reflects the run, finished or not
+            if(checkpointer != null) {
+                checkpointer.shutdownNow();
+                saveCheckpoint(checkpoint, new File(checkpointFile));
+            }
+        }
 
+        if(checkpoint.getCracked().isComplete())
+            System.err.println(String.format("All %d hashes cracked", numTargets));
     }
 }
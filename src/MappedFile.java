@@ -0,0 +1,137 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a file that is memory mapped in fixed size windows so
+ * files larger than 2GB can be addressed with a single long offset
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: MappedFile.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class MappedFile implements Closeable {
+
+    // Each window covers 1GB of the file
+    static final int WINDOW_BITS = 30;
+    static final long WINDOW_MASK = (1L << WINDOW_BITS) - 1;
+
+    // Windows overlap by this many bytes so a line starting in one window
+    // can always be read completely from that window
+    static final int MAX_LINE = 1 << 16;
+
+    // Reading a byte of every page is enough to fault the whole page in
+    static final int PAGE_SIZE = 4096;
+
+    // Instance variables
+    private FileChannel channel;
+    private MappedByteBuffer[] windows;
+    private long size;
+
+
+    /**
+     * MappedFile constructor
+     * @param file File to map
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    MappedFile(File file) throws IOException {
+
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = this.channel.size();
+
+        int numWindows = (int)((this.size + WINDOW_MASK) >>> WINDOW_BITS);
+        this.windows = new MappedByteBuffer[numWindows];
+
+        // Map every window, letting it run past its boundary by MAX_LINE bytes
+        for(int i = 0; i < numWindows; i++) {
+
+            long start = (long)i << WINDOW_BITS;
+            long length = Math.min(this.size - start, (1L << WINDOW_BITS) + MAX_LINE);
+            this.windows[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+    }
+
+
+    /**
+     * Size getter
+     * @return Size of the mapped file in bytes
+     */
+    public long size() { return this.size; }
+
+
+    /**
+     * Gets a single byte of the file
+     * @param pos Offset into the file
+     * @return The byte at that offset
+     */
+    public byte get(long pos) {
+        return this.windows[(int)(pos >>> WINDOW_BITS)].get((int)(pos & WINDOW_MASK));
+    }
+
+
+    /**
+     * Finds the next occurrence of a byte
+     * @param b Byte to look for
+     * @param from First offset to check
+     * @param to Offset to stop looking at (exclusive)
+     * @return Offset of the byte, or to if it was not found
+     */
+    public long indexOf(byte b, long from, long to) {
+
+        long pos = from;
+        while(pos < to && this.get(pos) != b)
+            pos++;
+
+        return pos;
+    }
+
+
+    /**
+     * Copies part of a line into the supplied buffer. The range must not be
+     * longer than MAX_LINE bytes
+     * @param pos Offset into the file
+     * @param dst Buffer to copy into
+     * @param off Offset into the buffer
+     * @param len Number of bytes to copy
+     */
+    public void copy(long pos, byte[] dst, int off, int len) {
+
+        MappedByteBuffer window = this.windows[(int)(pos >>> WINDOW_BITS)];
+        int idx = (int)(pos & WINDOW_MASK);
+
+        for(int i = 0; i < len; i++)
+            dst[off + i] = window.get(idx + i);
+    }
+
+
+    /**
+     * Touches every page of a range so it is read from disk now, rather
+     * than when something needs it
+     * @param from First offset of the range
+     * @param to End of the range (exclusive)
+     * @return Sum of the bytes touched
+     */
+    public long prefetch(long from, long to) {
+
+        long sum = 0;
+        long end = Math.min(to, this.size);
+        for(long pos = from; pos < end; pos += PAGE_SIZE)
+            sum += this.get(pos);
+
+        return sum;
+    }
+
+
+    /**
+     * Closes the underlying channel. The mapping stays valid until it is
+     * garbage collected
+     * @throws IOException if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
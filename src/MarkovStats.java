@@ -0,0 +1,258 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Per position Markov statistics of passwords. For every position and
+ * every byte that can come before it, the 256 possible bytes are ranked by
+ * how often they followed that byte at that position in the training data.
+ * Only the ranks are kept, as one flat byte array, so the statistics of
+ * POSITIONS positions take a megabyte whether they were trained on a
+ * thousand passwords or a billion. Positions past the last one share its
+ * ranks, and the first position is ranked as if it followed a 0 byte
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: MarkovStats.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class MarkovStats {
+
+    // Statistics file header
+    static final int MAGIC = 0x4c514d4b;
+    static final int VERSION = 1;
+
+    // Positions with statistics of their own
+    static final int POSITIONS = 16;
+
+    // Longest training line kept, room for a digest and a $HEX[] password
+    static final int MAX_LINE = 1 << 12;
+
+    // Instance variables
+    private String name;
+    private byte[] order;
+    private long truncated;
+
+
+    /**
+     * MarkovStats constructor
+     * @param name Name of the statistics file
+     * @param order Bytes of every (position, previous byte) row, most frequent first
+     */
+    private MarkovStats(String name, byte[] order) {
+        this.name = name;
+        this.order = order;
+    }
+
+
+    /**
+     * Trains statistics from a wordlist or a potfile. Lines starting with a
+     * hex digest and a ':' are potfile lines and only the text after the
+     * ':' is counted. Passwords written as $HEX[...] are decoded, and
+     * passwords longer than a candidate can be are counted up to that length
+     * @param file File to train from
+     * @return The trained statistics
+     * @throws IOException if the file cannot be read
+     */
+    public static MarkovStats train(File file) throws IOException {
+
+        long[] counts = new long[POSITIONS * 256 * 256];
+        byte[] line = new byte[MAX_LINE];
+        long truncated = 0;
+
+        try(InputStream in = new FileInputStream(file)) {
+
+            byte[] block = new byte[1 << 16];
+            int len = 0;
+            boolean overflow = false;
+            int n;
+            while((n = in.read(block)) >= 0) {
+
+                for(int i = 0; i < n; i++) {
+
+                    if(block[i] != '\n') {
+
+                        // Only the start of an overlong line is kept
+                        if(len < line.length)
+                            line[len++] = block[i];
+                        else
+                            overflow = true;
+                        continue;
+                    }
+
+                    if(count(counts, line, len) || overflow)
+                        truncated++;
+
+                    len = 0;
+                    overflow = false;
+                }
+            }
+
+            // The last line may not end in a newline
+            if(count(counts, line, len) || overflow)
+                truncated++;
+        }
+
+        // Rank every row's bytes by count, most frequent first and ties in byte order
+        byte[] order = new byte[counts.length];
+        long[] keys = new long[256];
+        for(int row = 0; row < POSITIONS * 256; row++) {
+
+            for(int c = 0; c < 256; c++)
+                keys[c] = -counts[row * 256 + c] << 8 | c;
+
+            Arrays.sort(keys);
+            for(int r = 0; r < 256; r++)
+                order[row * 256 + r] = (byte)keys[r];
+        }
+
+        MarkovStats stats = new MarkovStats(file.getName(), order);
+        stats.truncated = truncated;
+        return stats;
+    }
+
+
+    /**
+     * Loads statistics saved with save()
+     * @param file The statistics file
+     * @return The statistics
+     * @throws IOException if the file cannot be read or isn't a statistics file
+     */
+    public static MarkovStats load(File file) throws IOException {
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+
+            if(in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != POSITIONS)
+                throw new IOException("Not a Markov statistics file");
+
+            byte[] order = new byte[POSITIONS * 256 * 256];
+            in.readFully(order);
+            return new MarkovStats(file.getName(), order);
+        }
+    }
+
+
+    /**
+     * Saves the statistics
+     * @param file File to save them to
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(POSITIONS);
+            out.write(this.order);
+        }
+    }
+
+
+    /**
+     * Name getter
+     * @return Name of the statistics file
+     */
+    public String getName() { return this.name; }
+
+
+    /**
+     * Truncated getter
+     * @return Passwords of the training data only counted up to the longest candidate
+     */
+    public long getTruncated() { return this.truncated; }
+
+
+    /**
+     * Orders a charset for every byte that can precede a position
+     * @param position Position in the candidate
+     * @param charset Bytes that may appear at the position
+     * @param limit Most bytes to keep of each ordering
+     * @return 256 orderings of min(limit, charset size) bytes back to back,
+     *         the one for previous byte b starting at b times that size,
+     *         most likely byte first
+     */
+    public byte[] chain(int position, byte[] charset, int limit) {
+
+        boolean[] allowed = new boolean[256];
+        for(byte c : charset)
+            allowed[c & 0xff] = true;
+
+        int radix = Math.min(limit, charset.length);
+        byte[] chain = new byte[256 * radix];
+        int row = Math.min(position, POSITIONS - 1) * 256;
+
+        for(int prev = 0; prev < 256; prev++) {
+
+            int n = 0;
+            int base = (row + prev) * 256;
+            for(int r = 0; r < 256 && n < radix; r++) {
+                byte c = this.order[base + r];
+                if(allowed[c & 0xff])
+                    chain[prev * radix + n++] = c;
+            }
+        }
+
+        return chain;
+    }
+
+
+    /**
+     * Counts the transitions of a password
+     * @param counts Counts to add to
+     * @param line Buffer holding the password, a potfile line or a line ending in '\r'
+     * @param len Length of the line
+     * @return True if the password was longer than a candidate and cut short
+     */
+    private static boolean count(long[] counts, byte[] line, int len) {
+
+        if(len > 0 && line[len - 1] == '\r')
+            len--;
+
+        // Potfile lines are a hex digest, a ':' and the password
+        int start = 0;
+        while(start < len && Hex.digit(line[start]) >= 0)
+            start++;
+        if(start >= 16 && start % 2 == 0 && start < len && line[start] == ':')
+            start++;
+        else
+            start = 0;
+
+        // Potfiles write passwords that would break the line as $HEX[...],
+        // which is decoded in place
+        int hex = len - start - 6;
+        if(hex >= 0 && hex % 2 == 0 && line[start] == '$' && line[start + 1] == 'H' &&
+                line[start + 2] == 'E' && line[start + 3] == 'X' && line[start + 4] == '[' &&
+                line[len - 1] == ']') {
+
+            boolean valid = true;
+            for(int i = start + 5; i < len - 1 && valid; i++)
+                valid = Hex.digit(line[i]) >= 0;
+
+            if(valid) {
+                for(int i = 0; i < hex / 2; i++)
+                    line[start + i] = (byte)(Hex.digit(line[start + 5 + 2 * i]) << 4 |
+                            Hex.digit(line[start + 6 + 2 * i]));
+                len = start + hex / 2;
+            }
+        }
+
+        boolean truncated = len - start > CandidateGenerator.MAX_CANDIDATE;
+        if(truncated)
+            len = start + CandidateGenerator.MAX_CANDIDATE;
+
+        int prev = 0;
+        for(int i = start; i < len; i++) {
+            int c = line[i] & 0xff;
+            counts[(Math.min(i - start, POSITIONS - 1) * 256 + prev) * 256 + c]++;
+            prev = c;
+        }
+
+        return truncated;
+    }
+}
@@ -0,0 +1,306 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Brute force attack over a mask such as '?l?l?d?d?d'. Candidate i is i
+ * written in mixed radix with the last position changing fastest, so any
+ * index can be jumped to directly and consecutive candidates are produced
+ * by incrementing the candidate buffer like an odometer. With Markov
+ * statistics each position's charset is reordered by the character before
+ * it, most likely first, so the odometer still maps any index straight to
+ * its candidate but walks the likeliest candidates early. A threshold keeps
+ * only the likeliest few characters of every position
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: MaskAttack.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class MaskAttack implements AttackMode {
+
+    // Built in charsets
+    static final String LOWER = "abcdefghijklmnopqrstuvwxyz";
+    static final String UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    static final String DIGITS = "0123456789";
+    static final String SPECIAL = " !\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+
+    // Instance variables
+    private String mask;
+    private byte[][] positions;
+    private MarkovStats markov;
+    private int[] radixes;
+    private byte[][] chains;
+    private long keyspace;
+
+
+    /**
+     * MaskAttack constructor
+     * @param mask Mask to enumerate. ?l ?u ?d ?s ?a ?h ?H are charsets, ?? is a
+     *             literal '?' and anything else is taken literally
+     * @exception IllegalArgumentException thrown if the mask is malformed or its
+     *                                      keyspace does not fit in a long
+     */
+    MaskAttack(String mask) {
+        this(mask, null, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * MaskAttack constructor for enumerating in Markov order
+     * @param mask Mask to enumerate
+     * @param markov Statistics to order each position's charset by, may be null
+     * @param threshold Most characters to try at each position
+     * @exception IllegalArgumentException thrown if the mask is malformed, the threshold
+     *                                      isn't positive or the keyspace does not fit in a long
+     */
+    MaskAttack(String mask, MarkovStats markov, int threshold) {
+        this.mask = mask;
+        this.positions = parse(mask);
+        this.markov = markov;
+
+        if(threshold < 1)
+            throw new IllegalArgumentException("Markov threshold has to be at least 1");
+
+        // Every position's charset ordered after each possible previous character
+        this.radixes = new int[this.positions.length];
+        if(markov != null)
+            this.chains = new byte[this.positions.length][];
+        for(int p = 0; p < this.positions.length; p++) {
+
+            this.radixes[p] = Math.min(threshold, this.positions[p].length);
+            if(markov != null)
+                this.chains[p] = markov.chain(p, this.positions[p], threshold);
+        }
+
+        // The keyspace is the product of the charset sizes
+        this.keyspace = 1;
+        for(int radix : this.radixes) {
+
+            try {
+                this.keyspace = Math.multiplyExact(this.keyspace, radix);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(String.format("Mask %s is too large", mask));
+            }
+        }
+    }
+
+
+    @Override
+    public String getName() {
+
+        if(this.markov == null)
+            return "mask " + this.mask;
+
+        return String.format("mask %s markov %s %d", this.mask, this.markov.getName(),
+                this.keyspace);
+    }
+
+
+    @Override
+    public long getKeyspace() { return this.keyspace; }
+
+
+    /**
+     * Mask getter
+     * @return The mask being enumerated
+     */
+    public String getMask() { return this.mask; }
+
+
+    /**
+     * Gets the length of every candidate
+     * @return Number of positions in the mask
+     */
+    public int getLength() { return this.positions.length; }
+
+
+    @Override
+    public Generator newGenerator() { return new Generator(this.positions, this.radixes, this.chains); }
+
+
+    /**
+     * Splits a mask into the charset used at each position
+     * @param mask Mask to parse
+     * @return One charset per position of the candidate
+     */
+    static byte[][] parse(String mask) {
+
+        byte[] raw = mask.getBytes(StandardCharsets.UTF_8);
+        byte[][] positions = new byte[raw.length][];
+        int n = 0;
+
+        for(int i = 0; i < raw.length; i++) {
+
+            // Anything that isn't a placeholder is a literal byte
+            if(raw[i] != '?') {
+                positions[n++] = new byte[]{raw[i]};
+                continue;
+            }
+
+            if(++i == raw.length)
+                throw new IllegalArgumentException(String.format("Mask %s ends with a lone '?'", mask));
+
+            positions[n++] = charset((char)raw[i]).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        if(n > CandidateGenerator.MAX_CANDIDATE)
+            throw new IllegalArgumentException(String.format("Mask %s is too long", mask));
+
+        byte[][] trimmed = new byte[n][];
+        System.arraycopy(positions, 0, trimmed, 0, n);
+        return trimmed;
+    }
+
+
+    /**
+     * Gets a built in charset
+     * @param c Character following the '?'
+     * @return Characters of the charset
+     */
+    private static String charset(char c) {
+
+        switch(c) {
+            case 'l': return LOWER;
+            case 'u': return UPPER;
+            case 'd': return DIGITS;
+            case 's': return SPECIAL;
+            case 'a': return LOWER + UPPER + DIGITS + SPECIAL;
+            case 'h': return DIGITS + "abcdef";
+            case 'H': return DIGITS + "ABCDEF";
+            case '?': return "?";
+            default:
+                throw new IllegalArgumentException(String.format("Unknown charset ?%c in mask", c));
+        }
+    }
+
+
+    /**
+     * Odometer over the mask. Expects the same buffer on every call after a
+     * seek and only rewrites the positions that change, so the mask can also
+     * be run over part of a buffer whose other bytes stay put. In Markov
+     * order a changed position changes the charset of every one after it, so
+     * those are rewritten too
+     */
+    static class Generator implements CandidateGenerator {
+
+        // Instance variables
+        private byte[][] positions;
+        private int[] radixes;
+        private byte[][] chains;
+        private int[] digits;
+        private long index;
+        private boolean fresh;
+
+
+        /**
+         * Generator constructor
+         * @param positions Charset of each position
+         * @param radixes Number of characters tried at each position
+         * @param chains Markov ordered charsets of each position, see MarkovStats.chain(), or null
+         */
+        Generator(byte[][] positions, int[] radixes, byte[][] chains) {
+            this.positions = positions;
+            this.radixes = radixes;
+            this.chains = chains;
+            this.digits = new int[positions.length];
+            this.index = 0;
+            this.fresh = true;
+        }
+
+
+        @Override
+        public void seek(long index) {
+
+            this.index = index;
+            this.fresh = true;
+
+            // Convert the index to mixed radix
+            for(int p = this.positions.length - 1; p >= 0; p--) {
+                int radix = this.radixes[p];
+                this.digits[p] = (int)(index % radix);
+                index /= radix;
+            }
+        }
+
+
+        @Override
+        public int next(byte[] buf, long end) { return this.next(buf, 0, end); }
+
+
+        /**
+         * Writes the next candidate into part of the buffer
+         * @param buf Buffer to write into
+         * @param off Offset the candidate starts at, the same on every call after a seek
+         * @param end Index the generator should stop at (exclusive)
+         * @return Length of the candidate, or -1 once end is reached
+         */
+        int next(byte[] buf, int off, long end) {
+
+            if(this.index >= end)
+                return -1;
+
+            if(this.chains != null)
+                return this.nextMarkov(buf, off);
+
+            byte[][] positions = this.positions;
+            int[] digits = this.digits;
+
+            if(this.fresh) {
+
+                // First candidate after a seek is written out in full
+                for(int p = 0; p < positions.length; p++)
+                    buf[off + p] = positions[p][digits[p]];
+
+                this.fresh = false;
+            } else {
+
+                // Increment from the last position, carrying to the left
+                int p = positions.length - 1;
+                while(p >= 0 && ++digits[p] == positions[p].length) {
+                    digits[p] = 0;
+                    buf[off + p] = positions[p][0];
+                    p--;
+                }
+
+                if(p >= 0)
+                    buf[off + p] = positions[p][digits[p]];
+            }
+
+            this.index++;
+            return positions.length;
+        }
+
+
+        /**
+         * Writes the next candidate in Markov order
+         * @param buf Buffer to write into
+         * @param off Offset the candidate starts at, the same on every call after a seek
+         * @return Length of the candidate
+         */
+        private int nextMarkov(byte[] buf, int off) {
+
+            byte[][] chains = this.chains;
+            int[] radixes = this.radixes;
+            int[] digits = this.digits;
+
+            // Increment from the last position, carrying to the left. The
+            // first candidate after a seek is written out in full
+            int p = 0;
+            if(!this.fresh) {
+                p = chains.length - 1;
+                while(p > 0 && ++digits[p] == radixes[p])
+                    digits[p--] = 0;
+                if(p == 0)
+                    digits[0]++;
+            }
+            this.fresh = false;
+
+            // Every position from the one that changed follows a new character
+            for(; p < chains.length; p++) {
+                int prev = p == 0 ? 0 : buf[off + p - 1] & 0xff;
+                buf[off + p] = chains[p][prev * radixes[p] + digits[p]];
+            }
+
+            this.index++;
+            return chains.length;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Hand rolled MD4 (RFC 1320), which the JCA does not ship. The block buffer
+ * and message schedule are kept in the instance so hashing allocates nothing
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Md4Algorithm.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Md4Algorithm implements HashAlgorithm {
+
+    // Message word order and shift amounts of rounds 2 and 3
+    private static final int[] R2_ORDER = {0, 4, 8, 12, 1, 5, 9, 13, 2, 6, 10, 14, 3, 7, 11, 15};
+    private static final int[] R3_ORDER = {0, 8, 4, 12, 2, 10, 6, 14, 1, 9, 5, 13, 3, 11, 7, 15};
+    private static final int[] R1_SHIFT = {3, 7, 11, 19};
+    private static final int[] R2_SHIFT = {3, 5, 9, 13};
+    private static final int[] R3_SHIFT = {3, 9, 11, 15};
+
+    // Instance variables
+    private int[] x;
+    private byte[] block;
+    private int a, b, c, d;
+
+
+    /**
+     * Md4Algorithm constructor
+     */
+    Md4Algorithm() {
+        this.x = new int[16];
+        this.block = new byte[64];
+    }
+
+
+    @Override
+    public String getName() { return "md4"; }
+
+
+    @Override
+    public int getDigestLength() { return 16; }
+
+
+    @Override
+    public void hash(byte[] in, int off, int len, byte[] out, int outOff) {
+
+        this.a = 0x67452301;
+        this.b = 0xefcdab89;
+        this.c = 0x98badcfe;
+        this.d = 0x10325476;
+
+        // Compress every full block straight out of the input
+        int full = len & ~63;
+        for(int i = 0; i < full; i += 64)
+            this.compress(in, off + i);
+
+        // Copy the tail into the block buffer and pad it
+        int rem = len - full;
+        System.arraycopy(in, off + full, this.block, 0, rem);
+        this.block[rem] = (byte)0x80;
+        for(int i = rem + 1; i < 64; i++)
+            this.block[i] = 0;
+
+        // The length doesn't fit behind the tail, so it gets a block of its own
+        if(rem >= 56) {
+            this.compress(this.block, 0);
+            for(int i = 0; i < 56; i++)
+                this.block[i] = 0;
+        }
+
+        long bits = (long)len << 3;
+        for(int i = 0; i < 8; i++)
+            this.block[56 + i] = (byte)(bits >>> (8 * i));
+
+        this.compress(this.block, 0);
+
+        putInt(out, outOff, this.a);
+        putInt(out, outOff + 4, this.b);
+        putInt(out, outOff + 8, this.c);
+        putInt(out, outOff + 12, this.d);
+    }
+
+
+    /**
+     * Runs the compression function over one 64 byte block
+     * @param buf Buffer holding the block
+     * @param pos Offset of the block
+     */
+    void compress(byte[] buf, int pos) {
+
+        int[] x = this.x;
+        for(int i = 0; i < 16; i++)
+            x[i] = (buf[pos + 4 * i] & 0xff) | (buf[pos + 4 * i + 1] & 0xff) << 8 |
+                    (buf[pos + 4 * i + 2] & 0xff) << 16 | (buf[pos + 4 * i + 3] & 0xff) << 24;
+
+        this.compress(x);
+    }
+
+
+    /**
+     * Runs the compression function over a block already loaded as words
+     * @param x The 16 little endian message words
+     */
+    void compress(int[] x) {
+
+        int a = this.a, b = this.b, c = this.c, d = this.d, t;
+
+        // Round 1
+        for(int i = 0; i < 16; i++) {
+            t = Integer.rotateLeft(a + ((b & c) | (~b & d)) + x[i], R1_SHIFT[i & 3]);
+            a = d; d = c; c = b; b = t;
+        }
+
+        // Round 2
+        for(int i = 0; i < 16; i++) {
+            t = Integer.rotateLeft(a + ((b & c) | (b & d) | (c & d)) + x[R2_ORDER[i]] + 0x5a827999,
+                    R2_SHIFT[i & 3]);
+            a = d; d = c; c = b; b = t;
+        }
+
+        // Round 3
+        for(int i = 0; i < 16; i++) {
+            t = Integer.rotateLeft(a + (b ^ c ^ d) + x[R3_ORDER[i]] + 0x6ed9eba1, R3_SHIFT[i & 3]);
+            a = d; d = c; c = b; b = t;
+        }
+
+        this.a += a;
+        this.b += b;
+        this.c += c;
+        this.d += d;
+    }
+
+
+    @Override
+    public HashAlgorithm newInstance() { return new Md4Algorithm(); }
+
+
+    @Override
+    public BatchHasher newBatchHasher() { return new Md4Batch(new Md4Algorithm(), false); }
+
+
+    /**
+     * Writes an int in little endian order
+     * @param out Buffer to write to
+     * @param pos Offset to write at
+     * @param v Value to write
+     */
+    static void putInt(byte[] out, int pos, int v) {
+        out[pos] = (byte)v;
+        out[pos + 1] = (byte)(v >>> 8);
+        out[pos + 2] = (byte)(v >>> 16);
+        out[pos + 3] = (byte)(v >>> 24);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * MD4 (RFC 1320) over a batch of single block candidates, one lane per
+ * candidate. With utf16 set every candidate is widened to UTF-16LE first,
+ * which makes it the NTLM hash
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Md4Batch.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Md4Batch extends BatchHasher {
+
+    // Message word order and shift amounts of every step
+    private static final int[] ORDER = {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+            0, 4, 8, 12, 1, 5, 9, 13, 2, 6, 10, 14, 3, 7, 11, 15,
+            0, 8, 4, 12, 2, 10, 6, 14, 1, 9, 5, 13, 3, 11, 7, 15};
+    private static final int[] SHIFT = {3, 7, 11, 19, 3, 5, 9, 13, 3, 9, 11, 15};
+
+    // Instance variables
+    private boolean utf16;
+    private byte[] wide;
+    private int[] a, b, c, d;
+
+
+    /**
+     * Md4Batch constructor
+     * @param scalar MD4 or NTLM used for candidates longer than a block
+     * @param utf16 Whether candidates are widened to UTF-16LE
+     */
+    Md4Batch(HashAlgorithm scalar, boolean utf16) {
+        super(scalar);
+        this.utf16 = utf16;
+        this.wide = new byte[2 * CandidateGenerator.MAX_CANDIDATE];
+        this.a = new int[LANES];
+        this.b = new int[LANES];
+        this.c = new int[LANES];
+        this.d = new int[LANES];
+    }
+
+
+    @Override
+    boolean load(byte[] candidate, int len, int lane) {
+
+        if(this.utf16) {
+
+            // Long candidates can't fit, don't bother widening them
+            if(len > 55)
+                return false;
+
+            len = NtlmAlgorithm.toUtf16le(candidate, 0, len, this.wide);
+            candidate = this.wide;
+        }
+
+        if(len > 55)
+            return false;
+
+        loadLittleEndian(this.x, candidate, len, lane);
+        return true;
+    }
+
+
+    @Override
+    void compress() {
+
+        int[] x = this.x;
+        int[] a = this.a, b = this.b, c = this.c, d = this.d;
+
+        for(int l = 0; l < LANES; l++) {
+            a[l] = 0x67452301;
+            b[l] = 0xefcdab89;
+            c[l] = 0x98badcfe;
+            d[l] = 0x10325476;
+        }
+
+        for(int i = 0; i < 48; i++) {
+
+            int s = SHIFT[(i >>> 4) << 2 | (i & 3)];
+            int w = ORDER[i] * LANES;
+            int round = i >>> 4;
+
+            // Every lane runs the same step, the new b is written over a
+            if(round == 0)
+                for(int l = 0; l < LANES; l++)
+                    a[l] = Integer.rotateLeft(a[l] + ((b[l] & c[l]) | (~b[l] & d[l])) + x[w + l], s);
+            else if(round == 1)
+                for(int l = 0; l < LANES; l++)
+                    a[l] = Integer.rotateLeft(a[l] + ((b[l] & c[l]) | (b[l] & d[l]) | (c[l] & d[l])) +
+                            x[w + l] + 0x5a827999, s);
+            else
+                for(int l = 0; l < LANES; l++)
+                    a[l] = Integer.rotateLeft(a[l] + (b[l] ^ c[l] ^ d[l]) + x[w + l] + 0x6ed9eba1, s);
+
+            // Rotate the registers instead of copying them
+            int[] t = d;
+            d = c;
+            c = b;
+            b = a;
+            a = t;
+        }
+
+        // 48 steps rotate the registers back to where they started
+        for(int l = 0; l < LANES; l++) {
+            a[l] += 0x67452301;
+            b[l] += 0xefcdab89;
+            c[l] += 0x98badcfe;
+            d[l] += 0x10325476;
+        }
+    }
+
+
+    @Override
+    void store(int lane, byte[] out, int off) {
+        putIntLittleEndian(out, off, this.a[lane]);
+        putIntLittleEndian(out, off + 4, this.b[lane]);
+        putIntLittleEndian(out, off + 8, this.c[lane]);
+        putIntLittleEndian(out, off + 12, this.d[lane]);
+    }
+}
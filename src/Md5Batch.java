@@ -0,0 +1,112 @@
+/**
+ * MD5 (RFC 1321) over a batch of single block candidates, one lane per
+ * candidate
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Md5Batch.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Md5Batch extends BatchHasher {
+
+    // Sine table, message word order and shift amounts of every step
+    private static final int[] K = new int[64];
+    private static final int[] G = new int[64];
+    private static final int[] S = {
+            7, 12, 17, 22, 5, 9, 14, 20, 4, 11, 16, 23, 6, 10, 15, 21};
+
+    static {
+        for(int i = 0; i < 64; i++) {
+            K[i] = (int)(long)(Math.abs(Math.sin(i + 1)) * 4294967296.0);
+            int round = i >>> 4;
+            G[i] = round == 0 ? i : round == 1 ? (5 * i + 1) & 15 : round == 2 ? (3 * i + 5) & 15 : (7 * i) & 15;
+        }
+    }
+
+    // Instance variables
+    private int[] a, b, c, d;
+
+
+    /**
+     * Md5Batch constructor
+     * @param scalar MD5 used for candidates longer than a block
+     */
+    Md5Batch(HashAlgorithm scalar) {
+        super(scalar);
+        this.a = new int[LANES];
+        this.b = new int[LANES];
+        this.c = new int[LANES];
+        this.d = new int[LANES];
+    }
+
+
+    @Override
+    boolean load(byte[] candidate, int len, int lane) {
+
+        if(len > 55)
+            return false;
+
+        loadLittleEndian(this.x, candidate, len, lane);
+        return true;
+    }
+
+
+    @Override
+    void compress() {
+
+        int[] x = this.x;
+        int[] a = this.a, b = this.b, c = this.c, d = this.d;
+
+        for(int l = 0; l < LANES; l++) {
+            a[l] = 0x67452301;
+            b[l] = 0xefcdab89;
+            c[l] = 0x98badcfe;
+            d[l] = 0x10325476;
+        }
+
+        for(int i = 0; i < 64; i++) {
+
+            int k = K[i];
+            int s = S[(i >>> 4) << 2 | (i & 3)];
+            int w = G[i] * LANES;
+            int round = i >>> 4;
+
+            // Every lane runs the same step, the new b is written over a
+            if(round == 0)
+                for(int l = 0; l < LANES; l++)
+                    a[l] = b[l] + Integer.rotateLeft(a[l] + ((b[l] & c[l]) | (~b[l] & d[l])) + k + x[w + l], s);
+            else if(round == 1)
+                for(int l = 0; l < LANES; l++)
+                    a[l] = b[l] + Integer.rotateLeft(a[l] + ((d[l] & b[l]) | (~d[l] & c[l])) + k + x[w + l], s);
+            else if(round == 2)
+                for(int l = 0; l < LANES; l++)
+                    a[l] = b[l] + Integer.rotateLeft(a[l] + (b[l] ^ c[l] ^ d[l]) + k + x[w + l], s);
+            else
+                for(int l = 0; l < LANES; l++)
+                    a[l] = b[l] + Integer.rotateLeft(a[l] + (c[l] ^ (b[l] | ~d[l])) + k + x[w + l], s);
+
+            // Rotate the registers instead of copying them
+            int[] t = d;
+            d = c;
+            c = b;
+            b = a;
+            a = t;
+        }
+
+        // 64 steps rotate the registers back to where they started
+        for(int l = 0; l < LANES; l++) {
+            a[l] += 0x67452301;
+            b[l] += 0xefcdab89;
+            c[l] += 0x98badcfe;
+            d[l] += 0x10325476;
+        }
+    }
+
+
+    @Override
+    void store(int lane, byte[] out, int off) {
+        putIntLittleEndian(out, off, this.a[lane]);
+        putIntLittleEndian(out, off + 4, this.b[lane]);
+        putIntLittleEndian(out, off + 8, this.c[lane]);
+        putIntLittleEndian(out, off + 12, this.d[lane]);
+    }
+}
@@ -0,0 +1,324 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Live metrics of a run, published as a JMX MBean and optionally as a
+ * Prometheus /metrics endpoint on localhost. A background thread samples
+ * the lock free counters in Progress once a SAMPLE_MILLIS and computes the
+ * rates; readers only ever see the latest sample, so however often the
+ * metrics are read the workers are never slowed down
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Metrics.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Metrics implements MetricsMBean, Closeable {
+
+    // Time between samples
+    static final long SAMPLE_MILLIS = 1000;
+
+    // Name the MBean is registered under
+    static final String OBJECT_NAME = "LiquidCrack:type=Metrics";
+
+    // Instance variables
+    private Progress progress;
+    private List<String> queueNames;
+    private List<LongSupplier> queues;
+    private ScheduledExecutorService sampler;
+    private HttpServer server;
+    private ObjectName name;
+    private volatile Sample sample;
+
+
+    /**
+     * Metrics constructor
+     * @param progress Progress of the run to sample
+     */
+    Metrics(Progress progress) {
+        this.progress = progress;
+        this.queueNames = new CopyOnWriteArrayList<>();
+        this.queues = new CopyOnWriteArrayList<>();
+        this.sample = new Sample(null, progress, new long[0]);
+    }
+
+
+    /**
+     * Watches the depth of a queue from the next sample on
+     * @param name Name of the queue
+     * @param depth Reads the depth of the queue without locking it
+     */
+    public void addQueue(String name, LongSupplier depth) {
+        this.queueNames.add(name);
+        this.queues.add(depth);
+    }
+
+
+    /**
+     * Starts sampling and registers the MBean
+     */
+    public void start() {
+
+        this.sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        this.sampler.scheduleAtFixedRate(this::sample, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+
+        try {
+            MBeanServer beans = ManagementFactory.getPlatformMBeanServer();
+            this.name = new ObjectName(OBJECT_NAME);
+            beans.registerMBean(this, this.name);
+        } catch (JMException e) {
+            System.err.println(String.format("Unable to register metrics MBean: %s", e.getMessage()));
+            this.name = null;
+        }
+    }
+
+
+    /**
+     * Serves the metrics in Prometheus text format at /metrics
+     * @param port Port to listen on, on the loopback address only
+     * @return The port being listened on
+     * @throws IOException if the port cannot be bound
+     */
+    public int serve(int port) throws IOException {
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/metrics", this::handle);
+        this.server.start();
+        return this.server.getAddress().getPort();
+    }
+
+
+    @Override
+    public void close() {
+
+        if(this.sampler != null)
+            this.sampler.shutdownNow();
+
+        if(this.server != null)
+            this.server.stop(0);
+
+        if(this.name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.name);
+            } catch (JMException e) {
+                // Already gone
+            }
+        }
+    }
+
+
+    @Override
+    public long getCandidates() { return this.sample.candidates; }
+
+
+    @Override
+    public long getCracked() { return this.sample.cracked; }
+
+
+    @Override
+    public long getTargets() { return this.progress.getTargets(); }
+
+
+    @Override
+    public double getCompletion() { return this.sample.completion; }
+
+
+    @Override
+    public double getHashesPerSecond() { return this.sample.rate; }
+
+
+    @Override
+    public double getEtaSeconds() { return this.sample.eta; }
+
+
+    @Override
+    public long[] getWorkerCandidates() { return this.sample.workerCandidates.clone(); }
+
+
+    @Override
+    public double[] getWorkerHashesPerSecond() { return this.sample.workerRates.clone(); }
+
+
+    @Override
+    public String[] getQueueNames() {
+        return this.queueNames.subList(0, this.sample.queueDepths.length).toArray(new String[0]);
+    }
+
+
+    @Override
+    public long[] getQueueDepths() { return this.sample.queueDepths.clone(); }
+
+
+    /**
+     * Takes a new sample
+     */
+    private void sample() {
+
+        List<LongSupplier> queues = this.queues;
+        long[] depths = new long[queues.size()];
+        for(int i = 0; i < depths.length; i++)
+            depths[i] = queues.get(i).getAsLong();
+
+        this.sample = new Sample(this.sample, this.progress, depths);
+    }
+
+
+    /**
+     * Answers a scrape of /metrics
+     * @param exchange The request
+     * @throws IOException if the response cannot be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+
+        byte[] body = this.format().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try(OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+
+    /**
+     * Formats the latest sample in Prometheus text format
+     * @return The metrics
+     */
+    String format() {
+
+        Sample s = this.sample;
+        StringBuilder sb = new StringBuilder();
+
+        metric(sb, "liquidcrack_candidates_total", "counter", "Candidates tried by all workers");
+        sb.append("liquidcrack_candidates_total ").append(s.candidates).append('\n');
+        metric(sb, "liquidcrack_cracked_total", "counter", "Hashes cracked");
+        sb.append("liquidcrack_cracked_total ").append(s.cracked).append('\n');
+        metric(sb, "liquidcrack_targets", "gauge", "Hashes being cracked");
+        sb.append("liquidcrack_targets ").append(this.progress.getTargets()).append('\n');
+        metric(sb, "liquidcrack_completion_ratio", "gauge", "Fraction of the keyspace searched");
+        sb.append("liquidcrack_completion_ratio ").append(number(s.completion)).append('\n');
+        metric(sb, "liquidcrack_hashes_per_second", "gauge", "Candidates tried per second by all workers");
+        sb.append("liquidcrack_hashes_per_second ").append(number(s.rate)).append('\n');
+        metric(sb, "liquidcrack_eta_seconds", "gauge", "Estimated seconds until the keyspace is searched");
+        sb.append("liquidcrack_eta_seconds ").append(number(s.eta)).append('\n');
+
+        metric(sb, "liquidcrack_worker_candidates_total", "counter", "Candidates tried by a worker");
+        for(int i = 0; i < s.workerCandidates.length; i++)
+            sb.append("liquidcrack_worker_candidates_total{worker=\"").append(i).append("\"} ")
+                    .append(s.workerCandidates[i]).append('\n');
+
+        metric(sb, "liquidcrack_worker_hashes_per_second", "gauge", "Candidates tried per second by a worker");
+        for(int i = 0; i < s.workerRates.length; i++)
+            sb.append("liquidcrack_worker_hashes_per_second{worker=\"").append(i).append("\"} ")
+                    .append(number(s.workerRates[i])).append('\n');
+
+        metric(sb, "liquidcrack_queue_depth", "gauge", "Items waiting in a queue between stages");
+        for(int i = 0; i < s.queueDepths.length; i++)
+            sb.append("liquidcrack_queue_depth{queue=\"").append(this.queueNames.get(i)).append("\"} ")
+                    .append(s.queueDepths[i]).append('\n');
+
+        return sb.toString();
+    }
+
+
+    /**
+     * Writes the HELP and TYPE lines of a metric
+     * @param sb Builder to write to
+     * @param name Name of the metric
+     * @param type Prometheus type of the metric
+     * @param help Description of the metric
+     */
+    private static void metric(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+
+    /**
+     * Formats a value the way Prometheus expects
+     * @param v Value to format
+     * @return The value without a locale's separators
+     */
+    private static String number(double v) { return String.format(Locale.ROOT, "%.6g", v); }
+
+
+    /**
+     * Everything read in one sample, never changed once made
+     */
+    static class Sample {
+
+        // Instance variables
+        private long nanos;
+        private long candidates;
+        private long cracked;
+        private double completion;
+        private double rate;
+        private double eta;
+        private long[] workerCandidates;
+        private double[] workerRates;
+        private long[] queueDepths;
+
+
+        /**
+         * Sample constructor
+         * @param last Previous sample the rates are measured from, null for the first
+         * @param progress Progress to read
+         * @param queueDepths Depths of the watched queues
+         */
+        Sample(Sample last, Progress progress, long[] queueDepths) {
+
+            this.nanos = progress.getElapsedNanos();
+            this.cracked = progress.getCracked();
+            this.completion = progress.getCompletion();
+            this.queueDepths = queueDepths;
+
+            List<Progress.Counter> counters = progress.getCounters();
+            this.workerCandidates = new long[counters.size()];
+            for(int i = 0; i < this.workerCandidates.length; i++) {
+                this.workerCandidates[i] = counters.get(i).getCandidates();
+                this.candidates += this.workerCandidates[i];
+            }
+
+            // Rates over the time since the last sample
+            double seconds = last == null ? 0 : (this.nanos - last.nanos) / 1e9;
+            this.workerRates = new double[this.workerCandidates.length];
+            if(seconds > 0) {
+
+                this.rate = (this.candidates - last.candidates) / seconds;
+                for(int i = 0; i < this.workerRates.length; i++) {
+                    long before = i < last.workerCandidates.length ? last.workerCandidates[i] : 0;
+                    this.workerRates[i] = (this.workerCandidates[i] - before) / seconds;
+                }
+            }
+
+            // The keyspace is done in ranges, so the ETA goes by the whole run's
+            // pace, leaving out ranges restored from a checkpoint
+            double searched = this.completion - progress.getCompletionBefore();
+            if(this.completion >= 1)
+                this.eta = 0;
+            else if(searched > 0)
+                this.eta = this.nanos / 1e9 * (1 - this.completion) / searched;
+            else
+                this.eta = -1;
+        }
+    }
+}
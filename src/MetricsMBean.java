@@ -0,0 +1,78 @@
+/**
+ * Management interface of Metrics, every value is from the latest sample
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: MetricsMBean.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public interface MetricsMBean {
+
+    /**
+     * Candidates getter
+     * @return Candidates tried by all workers
+     */
+    long getCandidates();
+
+
+    /**
+     * Cracked getter
+     * @return Hashes cracked, including by a resumed run
+     */
+    long getCracked();
+
+
+    /**
+     * Targets getter
+     * @return Number of hashes being cracked
+     */
+    long getTargets();
+
+
+    /**
+     * Completion getter
+     * @return Fraction of the keyspace searched, between 0 and 1
+     */
+    double getCompletion();
+
+
+    /**
+     * Hashes per second getter
+     * @return Candidates tried per second by all workers
+     */
+    double getHashesPerSecond();
+
+
+    /**
+     * ETA getter
+     * @return Estimated seconds until the keyspace is searched, -1 if unknown
+     */
+    double getEtaSeconds();
+
+
+    /**
+     * Worker candidates getter
+     * @return Candidates tried by each worker
+     */
+    long[] getWorkerCandidates();
+
+
+    /**
+     * Worker hashes per second getter
+     * @return Candidates tried per second by each worker
+     */
+    double[] getWorkerHashesPerSecond();
+
+
+    /**
+     * Queue names getter
+     * @return Names of the queues being watched
+     */
+    String[] getQueueNames();
+
+
+    /**
+     * Queue depths getter
+     * @return Depth of each queue, in the order of getQueueNames()
+     */
+    long[] getQueueDepths();
+}
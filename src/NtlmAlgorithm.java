@@ -0,0 +1,106 @@
+/**
+ * NTLM hash: MD4 over the UTF-16LE encoding of the password. Candidates are
+ * UTF-8 bytes and are widened into a scratch buffer owned by the instance
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: NtlmAlgorithm.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class NtlmAlgorithm implements HashAlgorithm {
+
+    // Instance variables
+    private Md4Algorithm md4;
+    private byte[] wide;
+
+
+    /**
+     * NtlmAlgorithm constructor
+     */
+    NtlmAlgorithm() {
+        this.md4 = new Md4Algorithm();
+        this.wide = new byte[512];
+    }
+
+
+    @Override
+    public String getName() { return "ntlm"; }
+
+
+    @Override
+    public int getDigestLength() { return 16; }
+
+
+    @Override
+    public void hash(byte[] in, int off, int len, byte[] out, int outOff) {
+
+        // A UTF-8 candidate never takes more than 2 bytes per input byte in UTF-16
+        if(this.wide.length < 2 * len)
+            this.wide = new byte[2 * len];
+
+        int n = toUtf16le(in, off, len, this.wide);
+        this.md4.hash(this.wide, 0, n, out, outOff);
+    }
+
+
+    @Override
+    public HashAlgorithm newInstance() { return new NtlmAlgorithm(); }
+
+
+    @Override
+    public BatchHasher newBatchHasher() { return new Md4Batch(new NtlmAlgorithm(), true); }
+
+
+    /**
+     * Converts UTF-8 to UTF-16LE. Malformed sequences are passed through a
+     * byte at a time
+     * @param in Buffer holding the UTF-8 bytes
+     * @param off Offset of the first byte
+     * @param len Number of bytes
+     * @param out Buffer to write the UTF-16LE bytes to
+     * @return Number of bytes written
+     */
+    static int toUtf16le(byte[] in, int off, int len, byte[] out) {
+
+        int n = 0;
+        int end = off + len;
+        int i = off;
+
+        while(i < end) {
+
+            int b0 = in[i] & 0xff;
+            int cp;
+
+            // Work out the code point and how many bytes it took
+            if(b0 < 0x80) {
+                cp = b0;
+                i++;
+            } else if(b0 >= 0xc0 && b0 < 0xe0 && i + 1 < end) {
+                cp = (b0 & 0x1f) << 6 | (in[i + 1] & 0x3f);
+                i += 2;
+            } else if(b0 >= 0xe0 && b0 < 0xf0 && i + 2 < end) {
+                cp = (b0 & 0x0f) << 12 | (in[i + 1] & 0x3f) << 6 | (in[i + 2] & 0x3f);
+                i += 3;
+            } else if(b0 >= 0xf0 && i + 3 < end) {
+                cp = (b0 & 0x07) << 18 | (in[i + 1] & 0x3f) << 12 |
+                        (in[i + 2] & 0x3f) << 6 | (in[i + 3] & 0x3f);
+                i += 4;
+            } else {
+                cp = b0;
+                i++;
+            }
+
+            // Code points outside the BMP become a surrogate pair
+            if(cp >= 0x10000) {
+                char hi = Character.highSurrogate(cp);
+                out[n++] = (byte)hi;
+                out[n++] = (byte)(hi >>> 8);
+                cp = Character.lowSurrogate(cp);
+            }
+
+            out[n++] = (byte)cp;
+            out[n++] = (byte)(cp >>> 8);
+        }
+
+        return n;
+    }
+}
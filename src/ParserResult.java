@@ -1,8 +1,14 @@
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Results of the Argument Parser object
+ * Results of the Argument Parser object. Values are kept unboxed by
+ * argument id, numbers in a long array and everything else as strings, and
+ * the typed getters check they're asked for an argument of the right type.
+ * Anything wrong with the command line is kept as an error message rather
+ * than thrown, so callers decide what a bad command line means
  * Author: Grant Miller <gem1086@rit.edu>
  * File: ParserResult.java
  * Date: 25 February 2019
@@ -11,17 +17,30 @@ import java.util.HashMap;
 public class ParserResult {
 
     // Instance variables
-    private ArrayList<String> extraArgs;
-    private HashMap<String, Argument> argMap;
+    private List<String> extraArgs;
+    private List<String> errors;
+    private Map<String, Argument> names;
+    private boolean[] present;
+    private long[] numbers;
+    private String[][] strings;
 
     /**
      * Results of the parsing
      * @param extraArgs The extra strings found in the process of parsing
-     * @param argMap Argument map
+     * @param errors Everything wrong with the command line
+     * @param names Every argument by its full and short names
+     * @param present Whether each argument was supplied, by id
+     * @param numbers Value of each numeric argument, by id
+     * @param strings Value(s) of each other argument, by id
      */
-    public ParserResult(ArrayList<String> extraArgs, HashMap<String, Argument> argMap) {
-        this.extraArgs = extraArgs;
-        this.argMap = argMap;
+    ParserResult(List<String> extraArgs, List<String> errors, Map<String, Argument> names,
+                 boolean[] present, long[] numbers, String[][] strings) {
+        this.extraArgs = Collections.unmodifiableList(extraArgs);
+        this.errors = Collections.unmodifiableList(errors);
+        this.names = names;
+        this.present = present;
+        this.numbers = numbers;
+        this.strings = strings;
     }
 
 
@@ -29,16 +48,116 @@ public class ParserResult {
      * extraArgs getter
      * @return Extra arguments found on the command line
      */
-    public ArrayList<String> getExtraArgs() {
+    public List<String> getExtraArgs() {
         return extraArgs;
     }
 
 
     /**
-     * argMap getter
-     * @return Hashmap of the argument objects
+     * errors getter
+     * @return Everything wrong with the command line, empty if it parsed
      */
-    public HashMap<String, Argument> getArgMap() {
-        return argMap;
+    public List<String> getErrors() {
+        return errors;
+    }
+
+
+    /**
+     * Checks whether an argument was supplied
+     * @param name Full or short name of the argument
+     * @return True if it was on the command line
+     */
+    public boolean has(String name) { return this.present[this.lookup(name, null).getId()]; }
+
+
+    /**
+     * Gets a FLAG argument
+     * @param name Full or short name of the argument
+     * @return True if the flag was supplied
+     */
+    public boolean getFlag(String name) { return this.present[this.lookup(name, Argtype.FLAG).getId()]; }
+
+
+    /**
+     * Gets a STRING or ENUM argument
+     * @param name Full or short name of the argument
+     * @return Its value, or null if it wasn't supplied
+     */
+    public String getString(String name) {
+
+        Argument arg = this.lookup(name, null);
+        if(arg.getType() != Argtype.STRING && arg.getType() != Argtype.ENUM)
+            throw new IllegalArgumentException(String.format("--%s is not a string", arg.getArgFullName()));
+
+        return this.present[arg.getId()] ? this.strings[arg.getId()][0] : null;
+    }
+
+
+    /**
+     * Gets a LIST argument
+     * @param name Full or short name of the argument
+     * @return Its values, empty if it wasn't supplied
+     */
+    public List<String> getList(String name) {
+
+        Argument arg = this.lookup(name, Argtype.LIST);
+        if(!this.present[arg.getId()])
+            return Collections.emptyList();
+
+        return Collections.unmodifiableList(Arrays.asList(this.strings[arg.getId()]));
+    }
+
+
+    /**
+     * Gets an INTEGER, LONG, SIZE (bytes) or DURATION (milliseconds) argument
+     * @param name Full or short name of the argument
+     * @param defaultValue Value if it wasn't supplied
+     * @return Its value
+     */
+    public long getLong(String name, long defaultValue) {
+
+        Argument arg = this.lookup(name, null);
+        switch(arg.getType()) {
+            case INTEGER:
+            case LONG:
+            case SIZE:
+            case DURATION:
+                return this.present[arg.getId()] ? this.numbers[arg.getId()] : defaultValue;
+            default:
+                throw new IllegalArgumentException(String.format("--%s is not a number", arg.getArgFullName()));
+        }
+    }
+
+
+    /**
+     * Gets an INTEGER argument
+     * @param name Full or short name of the argument
+     * @param defaultValue Value if it wasn't supplied
+     * @return Its value
+     */
+    public int getInt(String name, int defaultValue) {
+
+        Argument arg = this.lookup(name, Argtype.INTEGER);
+        return this.present[arg.getId()] ? (int)this.numbers[arg.getId()] : defaultValue;
+    }
+
+
+    /**
+     * Finds an argument, checking its type
+     * @param name Full or short name of the argument
+     * @param type Type it has to be, or null for any
+     * @return The argument
+     * @exception IllegalArgumentException thrown if there is no such argument of that type
+     */
+    private Argument lookup(String name, Argtype type) {
+
+        Argument arg = this.names.get(name);
+        if(arg == null)
+            throw new IllegalArgumentException(String.format("No argument %s", name));
+        if(type != null && arg.getType() != type)
+            throw new IllegalArgumentException(String.format(
+                    "--%s is %s, not %s", arg.getArgFullName(), arg.getType(), type));
+
+        return arg;
     }
 }
@@ -0,0 +1,208 @@
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+
+/**
+ * PBKDF2 (RFC 8018) in the passlib modular crypt format,
+ * '$pbkdf2-sha256$rounds$salt$hash' with salt and hash in base64 using '.'
+ * for '+' and no padding. Only the first block of output is derived, which is
+ * the whole hash for the default passlib lengths
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Pbkdf2Algorithm.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Pbkdf2Algorithm implements SaltedAlgorithm {
+
+    // Instance variables
+    private String name;
+    private String prefix;
+    private String macName;
+    private Mac mac;
+    private byte[] u;
+    private CandidateKey key;
+
+
+    /**
+     * Key the Mac is initialised with for every candidate. It keeps a buffer
+     * for each candidate length and hands the Mac the candidate bytes, so
+     * keying the Mac allocates nothing
+     */
+    static class CandidateKey implements SecretKey {
+
+        private static final long serialVersionUID = 1L;
+
+        // Instance variables
+        private String algorithm;
+        private byte[][] buffers;
+        private byte[] encoded;
+
+
+        /**
+         * CandidateKey constructor
+         * @param algorithm Name of the HMAC the key is for
+         */
+        CandidateKey(String algorithm) {
+            this.algorithm = algorithm;
+            this.buffers = new byte[CandidateGenerator.MAX_CANDIDATE + 1][];
+        }
+
+
+        /**
+         * Makes a candidate the key. The Mac wipes the key bytes once it has
+         * derived its pads from them, so this is called before every init
+         * @param in Array holding the candidate
+         * @param off Offset of the candidate
+         * @param len Length of the candidate
+         */
+        void set(byte[] in, int off, int len) {
+
+            // HMAC pads keys with zeros, so an empty password is the same key as a single zero byte
+            int size = Math.max(1, len);
+            byte[] buffer = size < this.buffers.length ? this.buffers[size] : null;
+            if(buffer == null) {
+                buffer = new byte[size];
+                if(size < this.buffers.length)
+                    this.buffers[size] = buffer;
+            }
+
+            System.arraycopy(in, off, buffer, 0, len);
+            if(len == 0)
+                buffer[0] = 0;
+            this.encoded = buffer;
+        }
+
+
+        @Override
+        public String getAlgorithm() { return this.algorithm; }
+
+
+        @Override
+        public String getFormat() { return "RAW"; }
+
+
+        @Override
+        public byte[] getEncoded() { return this.encoded; }
+    }
+
+
+    /**
+     * Pbkdf2Algorithm constructor
+     * @param name Name of the algorithm as given to --hashMethod
+     * @param prefix Modular crypt prefix i.e. '$pbkdf2-sha256$'
+     * @param macName Name of the HMAC known to the JCA i.e. 'HmacSHA256'
+     */
+    Pbkdf2Algorithm(String name, String prefix, String macName) {
+        this.name = name;
+        this.prefix = prefix;
+        this.macName = macName;
+
+        try {
+            this.mac = Mac.getInstance(macName);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Hash method %s is not available in this JVM", macName), e);
+        }
+
+        this.u = new byte[this.mac.getMacLength()];
+        this.key = new CandidateKey(macName);
+    }
+
+
+    @Override
+    public String getName() { return this.name; }
+
+
+    @Override
+    public int getDigestLength() { return this.mac.getMacLength(); }
+
+
+    @Override
+    public boolean isIterated() { return true; }
+
+
+    @Override
+    public Salt parse(String hash, byte[] digest) {
+
+        if(!hash.startsWith(this.prefix))
+            return null;
+
+        // rounds$salt$hash
+        String[] fields = hash.substring(this.prefix.length()).split("\\$", -1);
+        if(fields.length != 3)
+            return null;
+
+        try {
+            int rounds = Integer.parseInt(fields[0]);
+            byte[] salt = decode(fields[1]);
+            byte[] dk = decode(fields[2]);
+            if(rounds < 1 || dk.length != this.getDigestLength())
+                return null;
+
+            System.arraycopy(dk, 0, digest, 0, dk.length);
+            return new Salt(salt, rounds, hash.substring(0, hash.lastIndexOf('$') + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    @Override
+    public String format(Salt salt, byte[] digest, int off) {
+
+        byte[] dk = new byte[this.getDigestLength()];
+        System.arraycopy(digest, off, dk, 0, dk.length);
+        return salt.getSetting() + Base64.getEncoder().withoutPadding().encodeToString(dk).replace('+', '.');
+    }
+
+
+    @Override
+    public void hash(byte[] in, int off, int len, Salt salt, byte[] out, int outOff) {
+
+        Mac mac = this.mac;
+        byte[] u = this.u;
+        int width = u.length;
+
+        try {
+            this.key.set(in, off, len);
+            mac.init(this.key);
+
+            // U1 = PRF(password, salt || INT(1))
+            mac.update(salt.getBytes());
+            mac.update((byte)0);
+            mac.update((byte)0);
+            mac.update((byte)0);
+            mac.update((byte)1);
+            mac.doFinal(u, 0);
+            System.arraycopy(u, 0, out, outOff, width);
+
+            // Ui = PRF(password, Ui-1), the block is the xor of all of them
+            for(int i = 1; i < salt.getRounds(); i++) {
+                mac.update(u);
+                mac.doFinal(u, 0);
+                for(int j = 0; j < width; j++)
+                    out[outOff + j] ^= u[j];
+            }
+        } catch (InvalidKeyException | ShortBufferException e) {
+            throw new IllegalStateException("HMAC rejected its key or buffer", e);
+        }
+    }
+
+
+    @Override
+    public SaltedAlgorithm newInstance() { return new Pbkdf2Algorithm(this.name, this.prefix, this.macName); }
+
+
+    /**
+     * Decodes passlib's base64
+     * @param text Base64 with '.' for '+' and no padding
+     * @return The decoded bytes
+     * @exception IllegalArgumentException thrown if the text isn't base64
+     */
+    private static byte[] decode(String text) {
+        return Base64.getDecoder().decode(text.replace('.', '+'));
+    }
+}
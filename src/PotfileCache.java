@@ -0,0 +1,610 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashes cracked by earlier runs. The potfile itself stays the append only
+ * text file ResultWriter writes; next to it is a sorted index of 16 byte
+ * records (key, offset of the line) that is memory mapped, with a directory
+ * on the heap of where each run of keys sharing their top bits starts. Keys
+ * are the first 8 bytes of the digest, or a hash of the text before the
+ * first ':' for hashes that aren't plain hex, so they are spread evenly and
+ * a lookup reads one directory slot and a record or two. Lines appended since
+ * the index was written are sorted and merged in when the cache is opened
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: PotfileCache.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class PotfileCache implements Closeable {
+
+    // Index file header
+    static final int MAGIC = 0x4c515049;
+    static final int VERSION = 1;
+    static final int HEADER = 24;
+
+    // Each record is a key and a line offset
+    static final int RECORD = 16;
+
+    // Each mapped window of the index covers 1GB, a whole number of records
+    static final int WINDOW_BITS = 30;
+    static final long WINDOW_MASK = (1L << WINDOW_BITS) - 1;
+
+    // Aim for this many records per directory slot, and no more slots than this
+    static final int RECORDS_PER_SLOT = 2;
+    static final int MAX_DIRECTORY_BITS = 24;
+
+    // Most digests screened in one sorted pass
+    static final int SCREEN_BATCH = 1 << 22;
+
+    // Bytes of a line read at a time
+    static final int LINE_BLOCK = 128;
+
+    // Instance variables
+    private MappedFile potfile;
+    private MappedByteBuffer[] windows;
+    private long count;
+    private long[] directory;
+    private int directoryBits;
+    private byte[] scratch;
+
+
+    /**
+     * PotfileCache constructor
+     * @param potfile The mapped potfile, null if there is none yet
+     * @param index The index file
+     * @param count Number of records in the index
+     * @throws IOException if the index cannot be mapped
+     */
+    private PotfileCache(MappedFile potfile, File index, long count) throws IOException {
+        this.potfile = potfile;
+        this.count = count;
+        this.scratch = new byte[MappedFile.MAX_LINE];
+
+        long length = count * RECORD;
+        this.windows = new MappedByteBuffer[(int)((length + WINDOW_MASK) >>> WINDOW_BITS)];
+        if(this.windows.length == 0)
+            return;
+
+        try(FileChannel channel = FileChannel.open(index.toPath(), StandardOpenOption.READ)) {
+
+            for(int i = 0; i < this.windows.length; i++) {
+
+                long start = (long)i << WINDOW_BITS;
+                this.windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER + start,
+                        Math.min(length - start, 1L << WINDOW_BITS));
+            }
+        }
+
+        // One pass over the keys finds where every slot's run starts
+        this.directoryBits = Math.min(MAX_DIRECTORY_BITS,
+                64 - Long.numberOfLeadingZeros(Math.max(1, count / RECORDS_PER_SLOT)));
+        this.directory = new long[(1 << this.directoryBits) + 1];
+        int slot = 0;
+        for(long i = 0; i < count; i++) {
+
+            int s = this.slot(this.keyAt(i));
+            while(slot <= s)
+                this.directory[slot++] = i;
+        }
+        while(slot < this.directory.length)
+            this.directory[slot++] = count;
+    }
+
+
+    /**
+     * Opens the cache of a potfile, bringing its index up to date first
+     * @param file The potfile, it doesn't need to exist yet
+     * @return The cache
+     * @throws IOException if the potfile or its index cannot be read or written
+     */
+    public static PotfileCache open(File file) throws IOException {
+
+        File index = new File(file.getPath() + ".idx");
+        if(!file.exists() || file.length() == 0)
+            return new PotfileCache(null, index, 0);
+
+        MappedFile potfile = new MappedFile(file);
+
+        // How much of the potfile the existing index covers
+        long indexed = 0;
+        long count = 0;
+        if(index.exists()) {
+
+            try(DataInputStream in = new DataInputStream(new FileInputStream(index))) {
+
+                if(in.readInt() == MAGIC && in.readInt() == VERSION) {
+                    indexed = in.readLong();
+                    count = in.readLong();
+                }
+            } catch (IOException e) {
+                indexed = 0;
+            }
+
+            // A potfile that shrank was rewritten, its old index is useless
+            if(indexed > potfile.size() || index.length() != HEADER + count * RECORD) {
+                indexed = 0;
+                count = 0;
+            }
+        }
+
+        PotfileCache cache = new PotfileCache(potfile, index, count);
+
+        // Only whole lines are indexed, one being written right now waits for next time
+        long end = potfile.size();
+        while(end > indexed && potfile.get(end - 1) != '\n')
+            end--;
+
+        if(end > indexed)
+            cache = cache.merge(index, indexed, end);
+
+        return cache;
+    }
+
+
+    /**
+     * Removes every digest an earlier run cracked from a set of chunks. The
+     * keys of up to SCREEN_BATCH digests are sorted and joined against the
+     * index in one ordered pass, then the matching lines are read in file
+     * order to check them, so both files are read mostly sequentially
+     * @param chunks Chunks of plain digests, all of the same width
+     * @param known Receives the potfile line of every digest removed
+     * @return Number of digests removed
+     */
+    public long screen(List<HashChunk> chunks, Consumer<String> known) {
+
+        long removed = 0;
+        int first = 0;
+        while(first < chunks.size()) {
+
+            // Take as many whole chunks as fit in a batch, at least one
+            int last = first + 1;
+            long total = chunks.get(first).getCount();
+            while(last < chunks.size() && total + chunks.get(last).getCount() <= SCREEN_BATCH)
+                total += chunks.get(last++).getCount();
+
+            removed += this.screen(chunks.subList(first, last), (int)total, known);
+            first = last;
+        }
+
+        return removed;
+    }
+
+
+    /**
+     * Screens one batch of chunks
+     * @param chunks Chunks in the batch
+     * @param total Number of digests in the batch
+     * @param known Receives the potfile line of every digest removed
+     * @return Number of digests removed
+     */
+    private long screen(List<HashChunk> chunks, int total, Consumer<String> known) {
+
+        if(this.count == 0 || total == 0)
+            return 0;
+
+        int width = chunks.get(0).getWidth();
+
+        // Digests too short to key on their bytes are looked up by their text
+        if(width < 8) {
+
+            long removed = 0;
+            for(HashChunk chunk : chunks) {
+                byte[] digests = chunk.getDigests();
+                removed += chunk.removeIf(off -> {
+                    String line = this.find(Hex.encode(digests, off, width));
+                    if(line != null)
+                        known.accept(line);
+                    return line != null;
+                });
+            }
+
+            return removed;
+        }
+
+        // Key every digest, remembering its chunk and position
+        long[] keys = new long[total];
+        long[] targets = new long[total];
+        int n = 0;
+        for(int c = 0; c < chunks.size(); c++) {
+
+            byte[] digests = chunks.get(c).getDigests();
+            for(int t = 0; t < chunks.get(c).getCount(); t++) {
+
+                long key = 0;
+                for(int i = 0; i < 8; i++)
+                    key = (key << 8) | (digests[t * width + i] & 0xff);
+
+                keys[n] = key;
+                targets[n++] = ((long)c << 32) | t;
+            }
+        }
+
+        long[][] sorted = sort(keys, targets);
+        keys = sorted[0];
+        targets = sorted[1];
+
+        // Walk the index alongside the sorted keys, jumping ahead through the
+        // directory where the keys are sparse. Every record sharing a key is
+        // a candidate line
+        LongList lines = new LongList();
+        LongList owners = new LongList();
+        long cursor = 0;
+        for(int t = 0; t < total; t++) {
+
+            long key = keys[t];
+            cursor = Math.max(cursor, this.directory[this.slot(key)]);
+            while(cursor < this.count && this.keyAt(cursor) < key)
+                cursor++;
+
+            for(long i = cursor; i < this.count && this.keyAt(i) == key; i++) {
+                lines.add(this.offsetAt(i));
+                owners.add(targets[t]);
+            }
+        }
+
+        sorted = sort(lines.toArray(), owners.toArray());
+        long[] offsets = sorted[0];
+        long[] candidates = sorted[1];
+
+        // The line has to be exactly the digest followed by ':'
+        boolean[][] drop = new boolean[chunks.size()][];
+        for(int c = 0; c < drop.length; c++)
+            drop[c] = new boolean[chunks.get(c).getCount()];
+
+        byte[] scratch = this.scratch;
+        for(int i = 0; i < offsets.length; i++) {
+
+            int c = (int)(candidates[i] >>> 32);
+            int t = (int)candidates[i];
+            int len = this.readLine(offsets[i]);
+            if(drop[c][t] || len <= 2 * width || scratch[2 * width] != ':')
+                continue;
+
+            byte[] digests = chunks.get(c).getDigests();
+            boolean same = true;
+            for(int j = 0; j < width && same; j++) {
+                int hi = Hex.digit(scratch[2 * j]);
+                int lo = Hex.digit(scratch[2 * j + 1]);
+                same = hi >= 0 && lo >= 0 && (byte)((hi << 4) | lo) == digests[t * width + j];
+            }
+
+            if(same) {
+                drop[c][t] = true;
+                known.accept(new String(scratch, 0, len, StandardCharsets.UTF_8));
+            }
+        }
+
+        long removed = 0;
+        for(int c = 0; c < drop.length; c++) {
+            boolean[] dropped = drop[c];
+            removed += chunks.get(c).removeIf(off -> dropped[off / width]);
+        }
+
+        return removed;
+    }
+
+
+    /**
+     * Looks up a hash by its text, as ResultWriter wrote it
+     * @param hash Text of the hash
+     * @return The potfile line of the hash, or null if it was never cracked
+     */
+    public String find(String hash) {
+
+        byte[] prefix = (hash + ":").getBytes(StandardCharsets.UTF_8);
+        long key = key(prefix, 0, prefix.length);
+
+        byte[] scratch = this.scratch;
+        for(long i = this.search(key); i >= 0 && i < this.count && this.keyAt(i) == key; i++) {
+
+            int len = this.readLine(this.offsetAt(i));
+            boolean same = len >= prefix.length;
+            for(int j = 0; j < prefix.length && same; j++)
+                same = scratch[j] == prefix[j];
+
+            if(same)
+                return new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Size getter
+     * @return Number of lines in the index
+     */
+    public long size() { return this.count; }
+
+
+    @Override
+    public void close() throws IOException {
+        if(this.potfile != null)
+            this.potfile.close();
+    }
+
+
+    /**
+     * Computes the key of a hash
+     * @param b Buffer holding the hash text, the key only covers what's before the first ':'
+     * @param off Offset of the text
+     * @param len Length of the text
+     * @return The key
+     */
+    static long key(byte[] b, int off, int len) {
+
+        int end = off;
+        while(end < off + len && b[end] != ':')
+            end++;
+
+        // Plain hex digests are keyed by their first 8 bytes, which are already random
+        long key = 0;
+        boolean hex = end - off >= 16;
+        for(int i = 0; i < 16 && hex; i++) {
+            int d = Hex.digit(b[off + i]);
+            hex = d >= 0;
+            key = (key << 4) | d;
+        }
+
+        if(hex)
+            return key;
+
+        // Anything else is hashed, FNV-1a with a final mix
+        long h = 0xcbf29ce484222325L;
+        for(int i = off; i < end; i++)
+            h = (h ^ (b[i] & 0xff)) * 0x100000001b3L;
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+
+    /**
+     * Finds the first record with a key
+     * @param key Key to look for
+     * @return Index of the first record with the key, or -1 if there is none
+     */
+    private long search(long key) {
+
+        if(this.count == 0)
+            return -1;
+
+        // Keys are uniform, so the key's slot only holds a record or two
+        int slot = this.slot(key);
+        long end = this.directory[slot + 1];
+        for(long i = this.directory[slot]; i < end; i++) {
+
+            long k = this.keyAt(i);
+            if(k == key)
+                return i;
+            if(k > key)
+                break;
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Gets the directory slot of a key, slots are in the same order as the keys
+     * @param key The key
+     * @return Slot number
+     */
+    private int slot(long key) {
+        return (int)((key ^ Long.MIN_VALUE) >>> (64 - this.directoryBits));
+    }
+
+
+    /**
+     * Gets the key of a record
+     * @param i Record number
+     * @return The record's key
+     */
+    private long keyAt(long i) {
+        long pos = i * RECORD;
+        return this.windows[(int)(pos >>> WINDOW_BITS)].getLong((int)(pos & WINDOW_MASK));
+    }
+
+
+    /**
+     * Gets the line offset of a record
+     * @param i Record number
+     * @return Offset of the record's line in the potfile
+     */
+    private long offsetAt(long i) {
+        long pos = i * RECORD + 8;
+        return this.windows[(int)(pos >>> WINDOW_BITS)].getLong((int)(pos & WINDOW_MASK));
+    }
+
+
+    /**
+     * Reads a line of the potfile into the scratch buffer
+     * @param pos Offset of the line
+     * @return Length of the line without its line ending, -1 if it doesn't fit
+     */
+    private int readLine(long pos) {
+
+        // Copy a block at a time, almost every line fits in the first
+        long size = this.potfile.size();
+        int len = 0;
+        while(len < this.scratch.length && pos + len < size) {
+
+            int n = (int)Math.min(Math.min(LINE_BLOCK, this.scratch.length - len), size - pos - len);
+            this.potfile.copy(pos + len, this.scratch, len, n);
+            for(int i = len; i < len + n; i++)
+                if(this.scratch[i] == '\n')
+                    return i;
+
+            len += n;
+        }
+
+        return pos + len == size ? len : -1;
+    }
+
+
+    /**
+     * Indexes the lines appended to the potfile and merges them into the
+     * existing index, replacing the index file atomically
+     * @param index The index file
+     * @param from First offset not yet indexed
+     * @param to End of the last whole line
+     * @return Cache over the new index
+     * @throws IOException if the index cannot be written
+     */
+    private PotfileCache merge(File index, long from, long to) throws IOException {
+
+        // Key every new line, lines too long to have been written by us are skipped
+        LongList keys = new LongList();
+        LongList offsets = new LongList();
+        long pos = from;
+        while(pos < to) {
+
+            long eol = this.potfile.indexOf((byte)'\n', pos, to);
+            int len = (int)Math.min(eol - pos, this.scratch.length);
+            if(eol - pos <= this.scratch.length && len > 0) {
+                this.potfile.copy(pos, this.scratch, 0, len);
+                keys.add(key(this.scratch, 0, len));
+                offsets.add(pos);
+            }
+
+            pos = eol + 1;
+        }
+
+        long[][] sorted = sort(keys.toArray(), offsets.toArray());
+        long[] newKeys = sorted[0];
+        long[] newOffsets = sorted[1];
+
+        // Merge both sorted runs into the new index
+        File tmp = new File(index.getPath() + ".tmp");
+        long total = this.count + newKeys.length;
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(tmp), 1 << 16))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(to);
+            out.writeLong(total);
+
+            long i = 0;
+            int j = 0;
+            while(i < this.count || j < newKeys.length) {
+
+                if(j == newKeys.length || (i < this.count && this.keyAt(i) <= newKeys[j])) {
+                    out.writeLong(this.keyAt(i));
+                    out.writeLong(this.offsetAt(i));
+                    i++;
+                } else {
+                    out.writeLong(newKeys[j]);
+                    out.writeLong(newOffsets[j]);
+                    j++;
+                }
+            }
+        }
+
+        Files.move(tmp.toPath(), index.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return new PotfileCache(this.potfile, index, total);
+    }
+
+
+    /**
+     * Sorts keys, carrying a value along with each. A radix sort over the 8
+     * key bytes, with the top byte's sign flipped so the order is signed
+     * @param keys Keys to sort
+     * @param values Value of each key
+     * @return The sorted keys and values
+     */
+    static long[][] sort(long[] keys, long[] values) {
+
+        int n = keys.length;
+        long[] k2 = new long[n];
+        long[] v2 = new long[n];
+        int[] counts = new int[257];
+
+        for(int shift = 0; shift < 64; shift += 8) {
+
+            Arrays.fill(counts, 0);
+            for(long k : keys)
+                counts[digit(k, shift) + 1]++;
+
+            // Bytes that are the same in every key don't change the order
+            if(n > 0 && counts[digit(keys[0], shift) + 1] == n)
+                continue;
+
+            for(int d = 0; d < 256; d++)
+                counts[d + 1] += counts[d];
+
+            for(int i = 0; i < n; i++) {
+                int at = counts[digit(keys[i], shift)]++;
+                k2[at] = keys[i];
+                v2[at] = values[i];
+            }
+
+            long[] t = keys; keys = k2; k2 = t;
+            t = values; values = v2; v2 = t;
+        }
+
+        return new long[][]{keys, values};
+    }
+
+
+    /**
+     * Gets one byte of a key for the radix sort
+     * @param key The key
+     * @param shift Position of the byte
+     * @return The byte, with the sign bit flipped for the top byte
+     */
+    private static int digit(long key, int shift) {
+        int d = (int)(key >>> shift) & 0xff;
+        return shift == 56 ? d ^ 0x80 : d;
+    }
+
+
+    /**
+     * Growable array of longs
+     */
+    static class LongList {
+
+        // Instance variables
+        private long[] values = new long[1024];
+        private int size;
+
+
+        /**
+         * Appends a value
+         * @param v Value to append
+         */
+        void add(long v) {
+
+            if(this.size == this.values.length)
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+
+            this.values[this.size++] = v;
+        }
+
+
+        /**
+         * Copies the values out
+         * @return The values
+         */
+        long[] toArray() { return Arrays.copyOf(this.values, this.size); }
+    }
+}
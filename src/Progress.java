@@ -0,0 +1,216 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of a run. Every worker owns a Counter that only it writes to, so
+ * counting never contends; readers sum the counters without locking
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Progress.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Progress {
+
+    // Instance variables
+    private CopyOnWriteArrayList<Counter> counters;
+    private LongAdder keyspaceDone;
+    private volatile long keyspaceBefore;
+    private long keyspace;
+    private long targets;
+    private long crackedBefore;
+    private long startNanos;
+
+
+    /**
+     * Progress constructor
+     * @param keyspace Number of indices in the keyspace being searched
+     * @param targets Number of hashes being cracked
+     */
+    Progress(long keyspace, long targets) {
+        this.counters = new CopyOnWriteArrayList<>();
+        this.keyspaceDone = new LongAdder();
+        this.keyspace = keyspace;
+        this.targets = targets;
+        this.crackedBefore = 0;
+        this.startNanos = System.nanoTime();
+    }
+
+
+    /**
+     * Creates a counter for a new worker
+     * @return The worker's counter
+     */
+    public Counter newCounter() {
+
+        Counter counter = new Counter();
+        this.counters.add(counter);
+        return counter;
+    }
+
+
+    /**
+     * Records that a range of the keyspace has been searched
+     * @param size Number of indices in the range
+     */
+    public void rangeDone(long size) { this.keyspaceDone.add(size); }
+
+
+    /**
+     * Records ranges of the keyspace searched by an earlier run that is being
+     * resumed. They count towards the completion but not this run's pace
+     * @param size Number of indices in the ranges
+     */
+    public void rangeRestored(long size) {
+        this.keyspaceDone.add(size);
+        this.keyspaceBefore += size;
+    }
+
+
+    /**
+     * Records hashes cracked by an earlier run that is being resumed
+     * @param cracked Number of hashes already cracked
+     */
+    public void setCrackedBefore(long cracked) { this.crackedBefore = cracked; }
+
+
+    /**
+     * Gets how much of the keyspace has been searched
+     * @return Fraction of the keyspace completed, between 0 and 1
+     */
+    public double getCompletion() {
+        return this.keyspace == 0 ? 1 : (double)this.keyspaceDone.sum() / this.keyspace;
+    }
+
+
+    /**
+     * Gets how much of the keyspace was searched by an earlier run
+     * @return Fraction of the keyspace restored, between 0 and 1
+     */
+    public double getCompletionBefore() {
+        return this.keyspace == 0 ? 0 : (double)this.keyspaceBefore / this.keyspace;
+    }
+
+
+    /**
+     * Counters getter
+     * @return Counter of every worker, in the order they were created
+     */
+    public List<Counter> getCounters() { return Collections.unmodifiableList(this.counters); }
+
+
+    /**
+     * Gets the number of candidates tried by all workers
+     * @return Candidates tried so far
+     */
+    public long getCandidates() {
+
+        long sum = 0;
+        for(Counter counter : this.counters)
+            sum += counter.getCandidates();
+
+        return sum;
+    }
+
+
+    /**
+     * Gets the number of hashes cracked by all workers
+     * @return Hashes cracked so far
+     */
+    public long getCracked() {
+
+        long sum = this.crackedBefore;
+        for(Counter counter : this.counters)
+            sum += counter.getCracked();
+
+        return sum;
+    }
+
+
+    /**
+     * Targets getter
+     * @return Number of hashes being cracked
+     */
+    public long getTargets() { return this.targets; }
+
+
+    /**
+     * Gets the time since the run started
+     * @return Elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() { return System.nanoTime() - this.startNanos; }
+
+
+    /**
+     * Padding in front of a counter's fields so two workers' counters never
+     * share a cache line
+     */
+    static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+
+    /**
+     * The counted values
+     */
+    static class Values extends LeftPadding {
+        long candidates;
+        long cracked;
+    }
+
+
+    /**
+     * Counts the work of a single worker. Only the owning worker may call
+     * the add methods, readers on other threads see the values through
+     * opaque reads
+     */
+    public static class Counter extends Values {
+
+        // Padding behind the counted values
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        private static final VarHandle CANDIDATES;
+        private static final VarHandle CRACKED;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                CANDIDATES = lookup.findVarHandle(Values.class, "candidates", long.class);
+                CRACKED = lookup.findVarHandle(Values.class, "cracked", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+
+        /**
+         * Adds to the number of candidates tried
+         * @param n Number of candidates
+         */
+        public void addCandidates(long n) { CANDIDATES.setOpaque(this, this.candidates + n); }
+
+
+        /**
+         * Adds to the number of hashes cracked
+         * @param n Number of hashes
+         */
+        public void addCracked(long n) { CRACKED.setOpaque(this, this.cracked + n); }
+
+
+        /**
+         * Candidates getter
+         * @return Number of candidates tried by this worker
+         */
+        public long getCandidates() { return (long)CANDIDATES.getOpaque(this); }
+
+
+        /**
+         * Cracked getter
+         * @return Number of hashes cracked by this worker
+         */
+        public long getCracked() { return (long)CRACKED.getOpaque(this); }
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints the progress of a run at a fixed interval from its own thread. It
+ * only samples the lock free counters in Progress so the workers never wait
+ * on it
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: ProgressReporter.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class ProgressReporter {
+
+    // Instance variables
+    private Progress progress;
+    private ScheduledExecutorService executor;
+    private long lastCandidates;
+    private long lastNanos;
+
+
+    /**
+     * ProgressReporter constructor
+     * @param progress Progress to report on
+     */
+    ProgressReporter(Progress progress) {
+        this.progress = progress;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "progress-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+
+    /**
+     * Starts reporting
+     * @param interval Time between reports
+     * @param unit Unit of the interval
+     */
+    public void start(long interval, TimeUnit unit) {
+        this.lastNanos = this.progress.getElapsedNanos();
+        this.executor.scheduleAtFixedRate(this::report, interval, interval, unit);
+    }
+
+
+    /**
+     * Stops reporting and prints a final report
+     */
+    public void stop() {
+
+        this.executor.shutdownNow();
+        try {
+            this.executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Final report covers the whole run
+        this.lastCandidates = 0;
+        this.lastNanos = 0;
+        this.report();
+    }
+
+
+    /**
+     * Prints one line of progress with the speed since the last report
+     */
+    private void report() {
+
+        long candidates = this.progress.getCandidates();
+        long nanos = this.progress.getElapsedNanos();
+        double seconds = (nanos - this.lastNanos) / 1e9;
+        double rate = seconds > 0 ? (candidates - this.lastCandidates) / seconds : 0;
+
+        this.lastCandidates = candidates;
+        this.lastNanos = nanos;
+
+        System.err.println(String.format("Completion: %.2f%%, cracked %d/%d, %d candidates, %.0f H/s",
+                this.progress.getCompletion() * 100, this.progress.getCracked(),
+                this.progress.getTargets(), candidates, rate));
+    }
+}
@@ -0,0 +1,207 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary protocol between a Coordinator and its RemoteWorkers. Every message
+ * is a frame of a 4 byte length, a type byte and the payload; integers are
+ * big endian and strings are a 2 byte length followed by UTF-8
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Protocol.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Protocol {
+
+    static final int VERSION = 3;
+
+    // Largest frame either side accepts, a cracked bitmap of 128M targets
+    static final int MAX_FRAME = 1 << 24;
+
+    // Worker to coordinator: version, hash method, attack, keyspace, targets, fingerprint
+    static final byte HELLO = 1;
+
+    // Coordinator to worker: lease timeout in milliseconds, cracked bitmap
+    static final byte WELCOME = 2;
+
+    // Coordinator to worker: why the worker was turned away
+    static final byte ERROR = 3;
+
+    // Worker to coordinator: how many indices the worker would like
+    static final byte REQUEST = 4;
+
+    // Coordinator to worker: lease id, from, to
+    static final byte LEASE = 5;
+
+    // Coordinator to worker: there is nothing left to do
+    static final byte FINISHED = 6;
+
+    // Worker to coordinator: lease id, candidates tried since the last report
+    static final byte PROGRESS = 7;
+
+    // Worker to coordinator: lease id, from, to of a fully searched lease
+    static final byte COMPLETE = 8;
+
+    // Either way: target number and plaintext of a cracked hash
+    static final byte CRACKED = 9;
+
+
+    /**
+     * A message being built
+     */
+    static class Frame {
+
+        // Instance variables
+        private ByteBuffer buf;
+
+
+        /**
+         * Frame constructor
+         * @param type Type of the message
+         */
+        Frame(byte type) {
+            this.buf = ByteBuffer.allocate(64);
+            this.buf.putInt(0);
+            this.buf.put(type);
+        }
+
+
+        /**
+         * Appends an int
+         * @param v Value to append
+         * @return This frame
+         */
+        Frame putInt(int v) {
+            this.ensure(4).putInt(v);
+            return this;
+        }
+
+
+        /**
+         * Appends a long
+         * @param v Value to append
+         * @return This frame
+         */
+        Frame putLong(long v) {
+            this.ensure(8).putLong(v);
+            return this;
+        }
+
+
+        /**
+         * Appends a length prefixed byte array
+         * @param b Bytes to append
+         * @return This frame
+         */
+        Frame putBytes(byte[] b) {
+            this.ensure(4 + b.length).putInt(b.length).put(b);
+            return this;
+        }
+
+
+        /**
+         * Appends a string
+         * @param s String to append
+         * @return This frame
+         */
+        Frame putString(String s) {
+
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            this.ensure(2 + b.length).putShort((short)b.length).put(b);
+            return this;
+        }
+
+
+        /**
+         * Finishes the frame
+         * @return Buffer ready to be written to a channel
+         */
+        ByteBuffer finish() {
+            this.buf.putInt(0, this.buf.position() - 4);
+            this.buf.flip();
+            return this.buf;
+        }
+
+
+        /**
+         * Makes room in the buffer
+         * @param n Number of bytes about to be appended
+         * @return The buffer
+         */
+        private ByteBuffer ensure(int n) {
+
+            if(this.buf.remaining() < n) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(2 * this.buf.capacity(), this.buf.position() + n));
+                this.buf.flip();
+                bigger.put(this.buf);
+                this.buf = bigger;
+            }
+
+            return this.buf;
+        }
+    }
+
+
+    /**
+     * Reads a string
+     * @param buf Buffer positioned at the string
+     * @return The string
+     * @exception BufferUnderflowException thrown if the buffer ends early
+     */
+    static String getString(ByteBuffer buf) {
+
+        byte[] b = new byte[buf.getShort() & 0xffff];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Reads a length prefixed byte array
+     * @param buf Buffer positioned at the array
+     * @return The bytes
+     * @exception BufferUnderflowException thrown if the buffer ends early
+     * @exception IllegalArgumentException thrown if the length is negative or too large
+     */
+    static byte[] getBytes(ByteBuffer buf) {
+
+        int len = buf.getInt();
+        if(len < 0 || len > buf.remaining())
+            throw new IllegalArgumentException(String.format("Bad array length %d", len));
+
+        byte[] b = new byte[len];
+        buf.get(b);
+        return b;
+    }
+
+
+    /**
+     * Packs a bitmap into bytes
+     * @param words Bitmap words
+     * @return The words as big endian bytes
+     */
+    static byte[] pack(long[] words) {
+
+        ByteBuffer buf = ByteBuffer.allocate(8 * words.length);
+        for(long word : words)
+            buf.putLong(word);
+
+        return buf.array();
+    }
+
+
+    /**
+     * Unpacks a bitmap packed by pack()
+     * @param b Packed bitmap
+     * @return Bitmap words
+     */
+    static long[] unpack(byte[] b) {
+
+        ByteBuffer buf = ByteBuffer.wrap(b);
+        long[] words = new long[b.length / 8];
+        for(int i = 0; i < words.length; i++)
+            words[i] = buf.getLong();
+
+        return words;
+    }
+}
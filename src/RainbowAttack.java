@@ -0,0 +1,170 @@
+/**
+ * Lookup of the targets in rainbow tables. Every index of the keyspace is a
+ * guess that a target sits at some position of some table's chains: the
+ * target is walked from that position to the end of the chain and the end is
+ * looked up in the table, and only when a chain ends there is it regenerated
+ * from its start to produce the plaintext as a candidate. The Cracker hashes
+ * that candidate like any other, so false alarms from merged chains simply
+ * miss. Within a table the guesses are ordered by how far they walk, so the
+ * cheap ones for every target come first, and ranges of the keyspace cover
+ * batches of targets that the Crackers look up concurrently
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: RainbowAttack.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class RainbowAttack implements AttackMode {
+
+    // Instance variables
+    private RainbowTable[] tables;
+    private HashAlgorithm algorithm;
+    private TargetIndex targets;
+    private CrackedSet cracked;
+    private long[] tableStarts;
+
+
+    /**
+     * RainbowAttack constructor
+     * @param tables Tables to look the targets up in
+     * @param algorithm Algorithm the hashes were made with
+     * @param targets Index of the hashes to crack
+     * @exception IllegalArgumentException thrown if a table was made with another
+     *                                      algorithm or the keyspace does not fit in a long
+     */
+    RainbowAttack(RainbowTable[] tables, HashAlgorithm algorithm, TargetIndex targets) {
+        this.tables = tables;
+        this.algorithm = algorithm;
+        this.targets = targets;
+
+        if(algorithm.getDigestLength() < 8)
+            throw new IllegalArgumentException(String.format(
+                    "Rainbow tables need digests of at least 8 bytes, %s has %d",
+                    algorithm.getName(), algorithm.getDigestLength()));
+
+        // Each table's guesses follow on from the previous table's
+        this.tableStarts = new long[tables.length + 1];
+        for(int t = 0; t < tables.length; t++) {
+
+            if(!tables[t].getHashMethod().equals(algorithm.getName()))
+                throw new IllegalArgumentException(String.format("Table %s was made for %s, not %s",
+                        tables[t].getName(), tables[t].getHashMethod(), algorithm.getName()));
+
+            try {
+                this.tableStarts[t + 1] = Math.addExact(this.tableStarts[t],
+                        Math.multiplyExact((long)tables[t].getChainLength(), targets.size()));
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Too many targets to look up in the tables");
+            }
+        }
+    }
+
+
+    @Override
+    public String getName() {
+
+        StringBuilder sb = new StringBuilder("rainbow");
+        for(RainbowTable table : this.tables)
+            sb.append(' ').append(table.getName());
+
+        return sb.toString();
+    }
+
+
+    @Override
+    public long getKeyspace() { return this.tableStarts[this.tables.length]; }
+
+
+    @Override
+    public long getCost() {
+
+        // A guess walks half a chain on average
+        long cost = 1;
+        for(RainbowTable table : this.tables)
+            cost = Math.max(cost, table.getChainLength() / 2);
+
+        return cost;
+    }
+
+
+    @Override
+    public CandidateGenerator newGenerator() { return new Generator(); }
+
+
+    /**
+     * Sets the targets cracked so far, guesses for them are skipped
+     * @param cracked Targets cracked so far
+     */
+    public void setCracked(CrackedSet cracked) { this.cracked = cracked; }
+
+
+    /**
+     * Walks the guesses of a range, only stopping at those whose chain is in
+     * a table
+     */
+    class Generator implements CandidateGenerator {
+
+        // Instance variables
+        private RainbowTable.Walker[] walkers;
+        private TargetIndex targets;
+        private byte[] digest;
+        private int numTargets;
+        private long index;
+
+
+        /**
+         * Generator constructor
+         */
+        Generator() {
+            RainbowTable[] tables = RainbowAttack.this.tables;
+            this.walkers = new RainbowTable.Walker[tables.length];
+            for(int t = 0; t < tables.length; t++)
+                this.walkers[t] = tables[t].newWalker(RainbowAttack.this.algorithm);
+
+            this.targets = RainbowAttack.this.targets;
+            this.digest = new byte[this.targets.getWidth()];
+            this.numTargets = this.targets.size();
+        }
+
+
+        @Override
+        public void seek(long index) { this.index = index; }
+
+
+        @Override
+        public int next(byte[] buf, long end) {
+
+            RainbowTable[] tables = RainbowAttack.this.tables;
+            long[] tableStarts = RainbowAttack.this.tableStarts;
+            CrackedSet cracked = RainbowAttack.this.cracked;
+
+            int t = 0;
+            while(this.index < end) {
+
+                long i = this.index++;
+                while(i >= tableStarts[t + 1])
+                    t++;
+
+                long local = i - tableStarts[t];
+                int target = (int)(local % this.numTargets);
+                if(cracked != null && cracked.contains(target))
+                    continue;
+
+                // Walk from the guessed position to the end of the chain
+                RainbowTable table = tables[t];
+                int pos = table.getChainLength() - 1 - (int)(local / this.numTargets);
+                this.targets.getDigest(target, this.digest, 0);
+                long chainEnd = this.walkers[t].walk(table.reduce(this.digest, 0, pos),
+                        pos + 1, table.getChainLength());
+
+                long start = table.find(chainEnd);
+                if(start < 0)
+                    continue;
+
+                // Regenerate the chain up to the guessed position
+                return table.plain(this.walkers[t].walk(start, 0, pos), buf);
+            }
+
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rainbow table over the plaintexts of a mask, optionally including the
+ * mask's shorter prefixes down to a minimum length. A chain starts at a
+ * plaintext index and alternates hashing with a reduction, which turns a
+ * digest back into a plaintext index. The reduction is different at every
+ * position of the chain and depends on a salt drawn when the table is
+ * generated, so separately generated tables cover different chains. Only
+ * the start and end of every chain are kept, as 16 byte records (end, start)
+ * sorted by end and memory mapped for lookups. Chains that merge into the
+ * same end are kept once, since they'd regenerate the same plaintexts from
+ * there on
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: RainbowTable.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class RainbowTable {
+
+    // Table file header
+    static final int MAGIC = 0x4c515254;
+    static final int VERSION = 1;
+
+    // Each record is a chain end and its start
+    static final int RECORD = 16;
+
+    // Each mapped window covers 1GB of records
+    static final int WINDOW_BITS = 30;
+    static final long WINDOW_MASK = (1L << WINDOW_BITS) - 1;
+
+    // Most chains a table can be generated with, they're sorted in an array
+    static final int MAX_CHAINS = Integer.MAX_VALUE - 8;
+
+    // Chains a generating thread takes at a time
+    static final int GENERATE_BLOCK = 1024;
+
+    // Instance variables
+    private File file;
+    private String hashMethod;
+    private String mask;
+    private byte[][] positions;
+    private int minLength;
+    private long[] lengthStarts;
+    private long space;
+    private long salt;
+    private int chainLength;
+    private long count;
+    private MappedByteBuffer[] windows;
+
+
+    /**
+     * RainbowTable constructor, for generating a table or from an opened one's header
+     * @param file The table file
+     * @param hashMethod Name of the algorithm the table was made with
+     * @param mask Mask the plaintexts come from
+     * @param minLength Length of the shortest plaintexts
+     * @param chainLength Number of hashes in every chain
+     * @param salt Salt of the reduction functions
+     * @exception IllegalArgumentException thrown if the mask or lengths are invalid
+     */
+    private RainbowTable(File file, String hashMethod, String mask, int minLength,
+                         int chainLength, long salt) {
+        this.file = file;
+        this.hashMethod = hashMethod;
+        this.mask = mask;
+        this.positions = MaskAttack.parse(mask);
+        this.minLength = minLength;
+        this.chainLength = chainLength;
+        this.salt = salt;
+        this.windows = new MappedByteBuffer[0];
+
+        if(minLength < 1 || minLength > this.positions.length)
+            throw new IllegalArgumentException(String.format(
+                    "Minimum length has to be between 1 and %d", this.positions.length));
+        if(chainLength < 1)
+            throw new IllegalArgumentException("Chain length has to be at least 1");
+
+        // Plaintexts of each length follow on from the shorter ones
+        this.lengthStarts = new long[this.positions.length + 2];
+        long size = 1;
+        long total = 0;
+        for(int len = 1; len <= this.positions.length; len++) {
+
+            try {
+                size = Math.multiplyExact(size, this.positions[len - 1].length);
+                if(len >= minLength)
+                    total = Math.addExact(total, size);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(String.format("Mask %s is too large", mask));
+            }
+
+            this.lengthStarts[len + 1] = total;
+        }
+        this.space = total;
+    }
+
+
+    /**
+     * Creates a new table that has no chains yet, see generate()
+     * @param file File the table will be written to
+     * @param algorithm Algorithm to hash the plaintexts with
+     * @param mask Mask the plaintexts come from
+     * @param minLength Length of the shortest plaintexts
+     * @param chainLength Number of hashes in every chain
+     * @return The new table
+     * @exception IllegalArgumentException thrown if the mask or lengths are invalid
+     */
+    public static RainbowTable create(File file, HashAlgorithm algorithm, String mask, int minLength,
+                                      int chainLength) {
+        return new RainbowTable(file, algorithm.getName(), mask, minLength, chainLength,
+                new Random().nextLong());
+    }
+
+
+    /**
+     * Generates the table's chains on a number of threads and writes it out
+     * @param algorithm Algorithm to hash the plaintexts with
+     * @param chains Number of chains to build, at most one per plaintext
+     * @param parallelism Number of threads to build chains on
+     * @param progress Progress of the generation, counts chains as its keyspace
+     * @return Number of chains written, after merged ones were dropped
+     * @throws IOException if the table cannot be written
+     */
+    public long generate(HashAlgorithm algorithm, long chains, int parallelism,
+                         Progress progress) throws IOException {
+
+        // Chains start at consecutive plaintexts from a random one
+        int n = (int)Math.min(Math.min(chains, this.space), MAX_CHAINS);
+        long base = (new Random().nextLong() >>> 1) % this.space;
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+
+        AtomicLong next = new AtomicLong();
+        Thread[] threads = new Thread[Math.max(1, parallelism)];
+        for(int t = 0; t < threads.length; t++) {
+
+            Progress.Counter counter = progress.newCounter();
+            threads[t] = new Thread(() -> {
+
+                Walker walker = this.newWalker(algorithm);
+                long from;
+                while((from = next.getAndAdd(GENERATE_BLOCK)) < n) {
+
+                    int to = (int)Math.min(n, from + GENERATE_BLOCK);
+                    for(int i = (int)from; i < to; i++) {
+                        long start = base - this.space + i;
+                        starts[i] = start < 0 ? start + this.space : start;
+                        ends[i] = walker.walk(starts[i], 0, this.chainLength);
+                    }
+
+                    counter.addCandidates((to - from) * this.chainLength);
+                    progress.rangeDone(to - from);
+                }
+            }, "table-generator-" + t);
+            threads[t].start();
+        }
+
+        try {
+            for(Thread thread : threads)
+                thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating chains", e);
+        }
+
+        // Of the chains sharing an end only the first is kept
+        long[][] sorted = PotfileCache.sort(ends, starts);
+        long[] sortedEnds = sorted[0];
+        long[] sortedStarts = sorted[1];
+        int unique = 0;
+        for(int i = 0; i < n; i++) {
+            if(unique == 0 || sortedEnds[i] != sortedEnds[unique - 1]) {
+                sortedEnds[unique] = sortedEnds[i];
+                sortedStarts[unique++] = sortedStarts[i];
+            }
+        }
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(this.file), 1 << 16))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(this.hashMethod);
+            out.writeUTF(this.mask);
+            out.writeInt(this.minLength);
+            out.writeInt(this.chainLength);
+            out.writeLong(this.salt);
+            out.writeLong(unique);
+
+            for(int i = 0; i < unique; i++) {
+                out.writeLong(sortedEnds[i]);
+                out.writeLong(sortedStarts[i]);
+            }
+        }
+
+        return unique;
+    }
+
+
+    /**
+     * Opens a table, mapping its records
+     * @param file The table file
+     * @return The table
+     * @throws IOException if the file cannot be read or isn't a table
+     */
+    public static RainbowTable open(File file) throws IOException {
+
+        RainbowTable table;
+        long count;
+        try(DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+
+            if(in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException("Not a rainbow table");
+
+            try {
+                table = new RainbowTable(file, in.readUTF(), in.readUTF(), in.readInt(),
+                        in.readInt(), in.readLong());
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            count = in.readLong();
+        }
+
+        // Records fill the rest of the file
+        long length = count * RECORD;
+        if(count < 0 || length > file.length())
+            throw new IOException("Table is truncated");
+
+        long header = file.length() - length;
+        table.count = count;
+        table.windows = new MappedByteBuffer[(int)((length + WINDOW_MASK) >>> WINDOW_BITS)];
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+            for(int i = 0; i < table.windows.length; i++) {
+
+                long start = (long)i << WINDOW_BITS;
+                table.windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, header + start,
+                        Math.min(length - start, 1L << WINDOW_BITS));
+            }
+        }
+
+        return table;
+    }
+
+
+    /**
+     * Name getter
+     * @return Name of the table file
+     */
+    public String getName() { return this.file.getName(); }
+
+
+    /**
+     * Hash method getter
+     * @return Name of the algorithm the table was made with
+     */
+    public String getHashMethod() { return this.hashMethod; }
+
+
+    /**
+     * Chain length getter
+     * @return Number of hashes in every chain
+     */
+    public int getChainLength() { return this.chainLength; }
+
+
+    /**
+     * Count getter
+     * @return Number of chains in the table
+     */
+    public long size() { return this.count; }
+
+
+    /**
+     * Space getter
+     * @return Number of plaintexts the table draws from
+     */
+    public long getSpace() { return this.space; }
+
+
+    /**
+     * Creates a walker for a single thread
+     * @param algorithm Algorithm the table was made with, the walker gets its own instance
+     * @return A new walker
+     */
+    public Walker newWalker(HashAlgorithm algorithm) { return new Walker(algorithm); }
+
+
+    /**
+     * Looks up the start of the chain ending at a plaintext index by
+     * binary searching the records
+     * @param end Index the chain ends at
+     * @return Index the chain starts at, or -1 if no chain ends there
+     */
+    public long find(long end) {
+
+        long lo = 0;
+        long hi = this.count - 1;
+        while(lo <= hi) {
+
+            long mid = (lo + hi) >>> 1;
+            long e = this.get(mid * RECORD);
+            if(e < end)
+                lo = mid + 1;
+            else if(e > end)
+                hi = mid - 1;
+            else
+                return this.get(mid * RECORD + 8);
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Reduces a digest to a plaintext index
+     * @param digest Buffer holding the digest
+     * @param off Offset of the digest
+     * @param pos Position in the chain the digest was made at
+     * @return Index of the next plaintext in the chain
+     */
+    public long reduce(byte[] digest, int off, int pos) {
+
+        long v = 0;
+        for(int i = 0; i < 8; i++)
+            v = (v << 8) | (digest[off + i] & 0xff);
+
+        return Long.remainderUnsigned(v + this.salt + pos, this.space);
+    }
+
+
+    /**
+     * Writes out the plaintext at an index
+     * @param index Index of the plaintext
+     * @param buf Buffer to write into
+     * @return Length of the plaintext
+     */
+    public int plain(long index, byte[] buf) {
+
+        int len = this.minLength;
+        while(index >= this.lengthStarts[len + 1])
+            len++;
+
+        // Same order as a MaskAttack over the first len positions
+        index -= this.lengthStarts[len];
+        for(int p = len - 1; p >= 0; p--) {
+            byte[] charset = this.positions[p];
+            buf[p] = charset[(int)(index % charset.length)];
+            index /= charset.length;
+        }
+
+        return len;
+    }
+
+
+    /**
+     * Reads a long of the records
+     * @param pos Offset into the records
+     * @return The long at that offset
+     */
+    private long get(long pos) {
+        return this.windows[(int)(pos >>> WINDOW_BITS)].getLong((int)(pos & WINDOW_MASK));
+    }
+
+
+    /**
+     * Walks chains of a table, holding the buffers a thread needs to do so
+     * without allocating
+     */
+    class Walker {
+
+        // Instance variables
+        private HashAlgorithm algorithm;
+        private byte[] plain;
+        private byte[] digest;
+
+
+        /**
+         * Walker constructor
+         * @param algorithm Algorithm the table was made with, the walker gets its own instance
+         */
+        Walker(HashAlgorithm algorithm) {
+            this.algorithm = algorithm.newInstance();
+            this.plain = new byte[CandidateGenerator.MAX_CANDIDATE];
+            this.digest = new byte[this.algorithm.getDigestLength()];
+        }
+
+
+        /**
+         * Walks part of a chain
+         * @param index Plaintext index at position from
+         * @param from Position to start at
+         * @param to Position to stop at
+         * @return Plaintext index at position to
+         */
+        long walk(long index, int from, int to) {
+
+            for(int pos = from; pos < to; pos++) {
+                int len = RainbowTable.this.plain(index, this.plain);
+                this.algorithm.hash(this.plain, 0, len, this.digest, 0);
+                index = RainbowTable.this.reduce(this.digest, 0, pos);
+            }
+
+            return index;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Set of completed keyspace ranges. Touching ranges are merged, so a run
+ * that mostly finishes in order only ever holds a handful of ranges
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: RangeSet.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class RangeSet {
+
+    // Instance variables
+    private TreeMap<Long, Long> ranges;
+    private long total;
+
+
+    /**
+     * RangeSet constructor
+     */
+    RangeSet() {
+        this.ranges = new TreeMap<>();
+        this.total = 0;
+    }
+
+
+    /**
+     * Adds a range. Parts of it already in the set are only counted once,
+     * so a range searched twice doesn't add to the total again
+     * @param from First index of the range
+     * @param to End of the range (exclusive)
+     */
+    public synchronized void add(long from, long to) {
+
+        if(from >= to)
+            return;
+
+        // Swallow every range overlapping or touching this one, taking
+        // back what they counted
+        Map.Entry<Long, Long> range = this.ranges.floorEntry(to);
+        while(range != null && range.getValue() >= from) {
+
+            from = Math.min(from, range.getKey());
+            to = Math.max(to, range.getValue());
+            this.total -= range.getValue() - range.getKey();
+            this.ranges.remove(range.getKey());
+            range = this.ranges.floorEntry(to);
+        }
+
+        this.total += to - from;
+        this.ranges.put(from, to);
+    }
+
+
+    /**
+     * Total getter
+     * @return Number of indices covered by the set
+     */
+    public synchronized long getTotal() { return this.total; }
+
+
+    /**
+     * Gets the ranges in the set
+     * @return List of [from, to) pairs in order
+     */
+    public synchronized ArrayList<long[]> getRanges() {
+
+        ArrayList<long[]> list = new ArrayList<>();
+        for(Map.Entry<Long, Long> range : this.ranges.entrySet())
+            list.add(new long[]{range.getKey(), range.getValue()});
+
+        return list;
+    }
+
+
+    /**
+     * Gets the ranges of a keyspace that are not in the set
+     * @param keyspace Number of indices in the keyspace
+     * @return List of [from, to) pairs in order
+     */
+    public synchronized ArrayList<long[]> getGaps(long keyspace) {
+
+        ArrayList<long[]> gaps = new ArrayList<>();
+        long pos = 0;
+
+        for(Map.Entry<Long, Long> range : this.ranges.entrySet()) {
+
+            if(range.getKey() > pos)
+                gaps.add(new long[]{pos, range.getKey()});
+            pos = range.getValue();
+        }
+
+        if(pos < keyspace)
+            gaps.add(new long[]{pos, keyspace});
+
+        return gaps;
+    }
+}
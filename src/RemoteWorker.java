@@ -0,0 +1,262 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cracks the leases a Coordinator hands out on a local CrackScheduler.
+ * Leases are sized to take about LEASE_NANOS at the rate measured on the
+ * previous ones, progress is reported often enough to keep the current lease
+ * alive, and hashes cracked here or anywhere else are shared through the
+ * coordinator so every worker stops once the last one falls
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: RemoteWorker.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class RemoteWorker implements Closeable {
+
+    // How long a lease should take to crack
+    static final long LEASE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    // Most a lease may grow by from one to the next while the rate settles
+    static final long MAX_GROWTH = 16;
+
+    // Queued by the reader once there are no more leases to come
+    private static final long[] NO_MORE = new long[0];
+
+    // Instance variables
+    private SocketChannel channel;
+    private Checkpoint checkpoint;
+    private Progress progress;
+    private ResultWriter results;
+    private BlockingQueue<long[]> leases;
+    private long leaseTimeout;
+    private long reported;
+    private volatile long currentLease;
+    private volatile IOException failure;
+
+
+    /**
+     * RemoteWorker constructor, connects and introduces itself. Hashes the
+     * coordinator already has cracked are marked cracked in the checkpoint
+     * @param host Host the coordinator runs on
+     * @param port Port the coordinator listens on
+     * @param checkpoint State of this worker's attack, must match the coordinator's
+     * @param progress Progress of this worker
+     * @param results Receives the cracked hashes, they are forwarded to the coordinator
+     * @throws IOException if the coordinator cannot be reached or turns the worker away
+     */
+    RemoteWorker(String host, int port, Checkpoint checkpoint, Progress progress,
+                 ResultWriter results) throws IOException {
+        this.checkpoint = checkpoint;
+        this.progress = progress;
+        this.results = results;
+        this.leases = new LinkedBlockingQueue<>();
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+
+        this.send(new Protocol.Frame(Protocol.HELLO).putInt(Protocol.VERSION)
+                .putString(checkpoint.getHashMethod()).putString(checkpoint.getAttackName())
+                .putLong(checkpoint.getKeyspace()).putInt(checkpoint.getCracked().size())
+                .putBytes(checkpoint.getFingerprint()));
+
+        try {
+
+            ByteBuffer reply = this.readFrame();
+            byte type = reply.get();
+            if(type == Protocol.ERROR)
+                throw new IOException(Protocol.getString(reply));
+            if(type != Protocol.WELCOME)
+                throw new IOException(String.format("Unexpected message type %d", type));
+
+            this.leaseTimeout = reply.getLong();
+            this.checkpoint.getCracked().addAll(Protocol.unpack(Protocol.getBytes(reply)));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Malformed message", e);
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Cracks leases until the coordinator has none left
+     * @param scheduler Scheduler to crack the leases on
+     * @throws IOException if the connection to the coordinator fails
+     */
+    public void run(CrackScheduler scheduler) throws IOException {
+
+        // Everything cracked here goes to the coordinator from the writer's thread
+        this.results.setForward((plain, target) -> {
+            try {
+                this.send(new Protocol.Frame(Protocol.CRACKED).putInt(target).putBytes(plain));
+            } catch (IOException e) {
+                this.failure = e;
+            }
+        });
+
+        Thread reader = new Thread(this::read, "coordinator-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        // Keep the current lease alive while it's being cracked
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, this.leaseTimeout / 3);
+        heartbeat.scheduleWithFixedDelay(() -> {
+            try {
+                this.reportProgress();
+            } catch (IOException e) {
+                this.failure = e;
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+
+        try {
+
+            long wanted = Coordinator.MIN_LEASE;
+            while(this.failure == null) {
+
+                this.send(new Protocol.Frame(Protocol.REQUEST).putLong(wanted));
+
+                long[] lease = this.leases.take();
+                if(lease == NO_MORE)
+                    break;
+
+                this.currentLease = lease[0];
+                long start = System.nanoTime();
+                boolean whole = scheduler.crack(lease[1], lease[2]);
+                long elapsed = Math.max(1, System.nanoTime() - start);
+                this.currentLease = 0;
+
+                // A lease cut short is left for the coordinator to reclaim
+                this.reportProgress();
+                if(whole)
+                    this.send(new Protocol.Frame(Protocol.COMPLETE).putLong(lease[0])
+                            .putLong(lease[1]).putLong(lease[2]));
+
+                // Size the next lease off the rate of this one
+                double rate = (double)(lease[2] - lease[1]) / elapsed;
+                wanted = Math.max(Coordinator.MIN_LEASE,
+                        Math.min(wanted * MAX_GROWTH, (long)(rate * LEASE_NANOS)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            heartbeat.shutdownNow();
+        }
+
+        // Forward whatever is still queued before the connection goes away
+        this.results.close();
+
+        if(this.failure != null)
+            throw this.failure;
+    }
+
+
+    @Override
+    public void close() throws IOException { this.channel.close(); }
+
+
+    /**
+     * Reader loop, takes in leases and hashes cracked by other workers
+     */
+    private void read() {
+
+        try {
+
+            while(true) {
+
+                ByteBuffer frame = this.readFrame();
+                byte type = frame.get();
+                if(type == Protocol.LEASE) {
+                    this.leases.add(new long[]{frame.getLong(), frame.getLong(), frame.getLong()});
+                } else if(type == Protocol.CRACKED) {
+                    this.checkpoint.getCracked().add(frame.getInt());
+                } else if(type == Protocol.FINISHED) {
+                    break;
+                } else {
+                    throw new IOException(String.format("Unexpected message type %d", type));
+                }
+            }
+        } catch (IOException e) {
+            this.failure = e;
+        } catch (BufferUnderflowException e) {
+            this.failure = new IOException("Malformed message", e);
+        } finally {
+            this.leases.add(NO_MORE);
+        }
+    }
+
+
+    /**
+     * Reports the candidates tried since the last report
+     * @throws IOException if the report cannot be sent
+     */
+    private synchronized void reportProgress() throws IOException {
+
+        long candidates = this.progress.getCandidates();
+        this.send(new Protocol.Frame(Protocol.PROGRESS).putLong(this.currentLease)
+                .putLong(candidates - this.reported));
+        this.reported = candidates;
+    }
+
+
+    /**
+     * Sends a message, messages from different threads are never interleaved
+     * @param frame Message to send
+     * @throws IOException if the connection fails
+     */
+    private void send(Protocol.Frame frame) throws IOException {
+
+        ByteBuffer buf = frame.finish();
+        synchronized(this.channel) {
+            while(buf.hasRemaining())
+                this.channel.write(buf);
+        }
+    }
+
+
+    /**
+     * Reads one whole message
+     * @return Buffer holding the type byte and payload
+     * @throws IOException if the connection fails or the frame is too big
+     */
+    private ByteBuffer readFrame() throws IOException {
+
+        ByteBuffer header = this.readFully(ByteBuffer.allocate(4));
+        int len = header.getInt();
+        if(len < 1 || len > Protocol.MAX_FRAME)
+            throw new IOException(String.format("Bad frame length %d", len));
+
+        return this.readFully(ByteBuffer.allocate(len));
+    }
+
+
+    /**
+     * Fills a buffer from the channel
+     * @param buf Buffer to fill
+     * @return The buffer, flipped
+     * @throws IOException if the connection fails or closes first
+     */
+    private ByteBuffer readFully(ByteBuffer buf) throws IOException {
+
+        while(buf.hasRemaining())
+            if(this.channel.read(buf) < 0)
+                throw new EOFException("Coordinator closed the connection");
+
+        buf.flip();
+        return buf;
+    }
+}
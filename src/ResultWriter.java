@@ -0,0 +1,222 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Writes cracked hashes from a single background thread. Workers only copy
+ * the plaintext and push it onto a lock free queue; the writer drains the
+ * queue in batches into buffered stdout and an optional potfile
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: ResultWriter.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class ResultWriter {
+
+    // How long the writer sleeps when there is nothing to write
+    static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Instance variables
+    private ConcurrentLinkedQueue<Result> queue;
+    private AtomicInteger depth;
+    private IntFunction<String> targets;
+    private Writer stdout;
+    private Writer potfile;
+    private Thread thread;
+    private volatile ObjIntConsumer<byte[]> forward;
+    private volatile boolean closed;
+
+
+    /**
+     * ResultWriter constructor
+     * @param targets Formats the hash of a cracked target number
+     * @param potfilePath Potfile to append results to, may be null
+     * @throws IOException if the potfile cannot be opened
+     */
+    ResultWriter(IntFunction<String> targets, String potfilePath) throws IOException {
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.depth = new AtomicInteger();
+        this.targets = targets;
+        this.stdout = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+        if(potfilePath != null)
+            this.potfile = new BufferedWriter(new FileWriter(potfilePath, StandardCharsets.UTF_8, true));
+
+        this.thread = new Thread(this::run, "result-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+
+    /**
+     * Queues a cracked hash. Safe to call from any thread
+     * @param target Target number of the cracked hash
+     * @param plain Buffer holding the plaintext
+     * @param len Length of the plaintext
+     */
+    public void add(int target, byte[] plain, int len) {
+        this.queue.offer(new Result(target, Arrays.copyOf(plain, len)));
+        this.depth.incrementAndGet();
+    }
+
+
+    /**
+     * Sets a hook the writer thread passes every result to after writing it,
+     * so forwarding results elsewhere stays off the workers' hot path
+     * @param forward Receives the plaintext and target number of each result
+     */
+    public void setForward(ObjIntConsumer<byte[]> forward) { this.forward = forward; }
+
+
+    /**
+     * Gets how many results are waiting to be written from a counter kept
+     * alongside the queue, counting the queue itself would walk all of it
+     * @return Number of queued results
+     */
+    public long getQueueDepth() { return Math.max(0, this.depth.get()); }
+
+
+    /**
+     * Writes everything still queued and closes the output
+     */
+    public void close() {
+
+        this.closed = true;
+        LockSupport.unpark(this.thread);
+
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Writer loop, drains the queue until closed
+     */
+    private void run() {
+
+        try {
+
+            while(true) {
+
+                // Read closed first so nothing queued before close() is missed
+                boolean last = this.closed;
+
+                Result result;
+                int batch = 0;
+                while((result = this.queue.poll()) != null) {
+                    this.depth.decrementAndGet();
+                    this.write(result);
+                    batch++;
+                }
+
+                // Flush once per batch rather than once per line
+                if(batch > 0)
+                    this.flush();
+
+                if(last)
+                    break;
+
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+
+            if(this.potfile != null)
+                this.potfile.close();
+        } catch (IOException e) {
+            System.err.println(String.format("Unable to write results: %s", e.getMessage()));
+        }
+    }
+
+
+    /**
+     * Writes one result as a potfile line
+     * @param result Result to write
+     * @throws IOException if the output cannot be written
+     */
+    private void write(Result result) throws IOException {
+
+        String line = this.targets.apply(result.target) + ":" + formatPlain(result.plain) + "\n";
+        this.stdout.write(line);
+        if(this.potfile != null)
+            this.potfile.write(line);
+
+        ObjIntConsumer<byte[]> forward = this.forward;
+        if(forward != null)
+            forward.accept(result.plain, result.target);
+    }
+
+
+    /**
+     * Flushes the buffered output
+     * @throws IOException if the output cannot be written
+     */
+    private void flush() throws IOException {
+
+        this.stdout.flush();
+        if(this.potfile != null)
+            this.potfile.flush();
+    }
+
+
+    /**
+     * Formats a plaintext the way potfiles do. Plaintexts that would break
+     * the line format or aren't valid UTF-8 are written as $HEX[...]
+     * @param plain The plaintext
+     * @return Plaintext as it should appear in the potfile
+     */
+    static String formatPlain(byte[] plain) {
+
+        boolean hex = plain.length >= 5 && plain[0] == '$' && plain[1] == 'H' &&
+                plain[2] == 'E' && plain[3] == 'X' && plain[4] == '[';
+        for(byte b : plain)
+            hex |= (b >= 0 && b < 0x20) || b == 0x7f;
+
+        if(!hex) {
+
+            // A decoder reports bytes that aren't UTF-8 rather than replacing them
+            try {
+                return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(plain)).toString();
+            } catch (CharacterCodingException e) {
+                // Written as hex below
+            }
+        }
+
+        return "$HEX[" + Hex.encode(plain, 0, plain.length) + "]";
+    }
+
+
+    /**
+     * A cracked hash waiting to be written
+     */
+    static class Result {
+
+        // Instance variables
+        private int target;
+        private byte[] plain;
+
+
+        /**
+         * Result constructor
+         * @param target Target number of the cracked hash
+         * @param plain The plaintext
+         */
+        Result(int target, byte[] plain) {
+            this.target = target;
+            this.plain = plain;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Dictionary attack with mangling rules. Every word of the wordlist is tried
+ * with every rule, candidate i being rule i % rules applied to the word at
+ * offset i / rules, so ranges of the keyspace still map onto ranges of the
+ * wordlist and a word is mangled by all of its rules back to back
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: RuleAttack.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class RuleAttack implements AttackMode {
+
+    // Instance variables
+    private WordlistAttack words;
+    private RuleSet rules;
+    private long keyspace;
+
+
+    /**
+     * RuleAttack constructor
+     * @param words Wordlist attack to mangle the words of
+     * @param rules Rules to apply to every word
+     * @exception IllegalArgumentException thrown if the keyspace does not fit in a long
+     */
+    RuleAttack(WordlistAttack words, RuleSet rules) {
+        this.words = words;
+        this.rules = rules;
+
+        try {
+            this.keyspace = Math.multiplyExact(words.getKeyspace(), rules.size());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Wordlist and rules are too large to combine");
+        }
+    }
+
+
+    @Override
+    public String getName() { return this.words.getName() + " rules " + this.rules.getPath(); }
+
+
+    @Override
+    public long getKeyspace() { return this.keyspace; }
+
+
+    @Override
+    public CandidateGenerator newGenerator() { return new Generator(this.words.newGenerator(), this.rules); }
+
+
+    @Override
+    public boolean usesFiles() { return true; }
+
+
+    @Override
+    public long prefetch(long from, long to) {
+
+        int numRules = this.rules.size();
+        return this.words.prefetch(from / numRules, Math.floorDiv(to - 1, numRules) + 1);
+    }
+
+
+    /**
+     * Applies every rule to a word copied once out of the wordlist
+     */
+    static class Generator implements CandidateGenerator {
+
+        // Instance variables
+        private WordlistAttack.Generator words;
+        private RuleSet rules;
+        private byte[] word;
+        private int wordLen;
+        private long wordIndex;
+        private int rule;
+
+
+        /**
+         * Generator constructor
+         * @param words Generator over the words of the wordlist
+         * @param rules Rules to apply to every word
+         */
+        Generator(WordlistAttack.Generator words, RuleSet rules) {
+            this.words = words;
+            this.rules = rules;
+            this.word = new byte[CandidateGenerator.MAX_CANDIDATE];
+            this.wordLen = -1;
+        }
+
+
+        @Override
+        public void seek(long index) {
+
+            int numRules = this.rules.size();
+            long offset = index / numRules;
+
+            // Start on the word at offset if there is one, otherwise with the first rule of the next word
+            this.words.seek(offset);
+            this.rule = (int)(index % numRules);
+            this.wordLen = -1;
+            this.wordIndex = offset;
+        }
+
+
+        @Override
+        public int next(byte[] buf, long end) {
+
+            int numRules = this.rules.size();
+
+            while(true) {
+
+                // Move on to the next word once every rule has been applied
+                if(this.wordLen < 0 || this.rule == numRules) {
+
+                    // Only words starting before index end have candidates left in the range
+                    long offset = this.wordIndex;
+                    this.wordLen = this.words.next(this.word, Math.floorDiv(end - 1, numRules) + 1);
+                    if(this.wordLen < 0)
+                        return -1;
+
+                    // A seek into the middle of a word's rules only applies to that word
+                    if(this.words.getStart() != offset)
+                        this.rule = 0;
+                    this.wordIndex = this.words.getStart();
+                }
+
+                long index = this.wordIndex * numRules + this.rule;
+                if(index >= end)
+                    return -1;
+
+                // Rules work in place, so every rule starts from a fresh copy of the word
+                System.arraycopy(this.word, 0, buf, 0, this.wordLen);
+                int len = this.rules.apply(this.rule++, buf, this.wordLen);
+                if(len >= 0)
+                    return len;
+            }
+        }
+    }
+}
@@ -0,0 +1,585 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Word mangling rules in the hashcat/John syntax, i.e. 'c $1 $2' or
+ * 'sa4 se3'. Every rule is compiled once into a compact bytecode, the
+ * function character followed by its decoded operands, and interpreted in
+ * place on the caller's candidate buffer, so applying a rule allocates
+ * nothing
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: RuleSet.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class RuleSet {
+
+    // Operands of every supported function: N is a position, X and Y are characters
+    private static final String[] OPERANDS = new String[128];
+
+    static {
+        for(char op : ":lucCtrdf{}[]qkKE".toCharArray())
+            OPERANDS[op] = "";
+        for(char op : "TpDzZ'LR+-.,yY<>_".toCharArray())
+            OPERANDS[op] = "N";
+        for(char op : "$^@!/()e".toCharArray())
+            OPERANDS[op] = "X";
+        for(char op : "xO*".toCharArray())
+            OPERANDS[op] = "NN";
+        for(char op : "io=%".toCharArray())
+            OPERANDS[op] = "NX";
+        OPERANDS['s'] = "XX";
+    }
+
+    // Instance variables
+    private byte[] code;
+    private int[] starts;
+    private String path;
+
+
+    /**
+     * RuleSet constructor
+     * @param rules One rule per entry, blank entries and '#' comments are skipped
+     * @param path Where the rules came from, used in names and errors
+     * @exception IllegalArgumentException thrown if a rule is malformed
+     */
+    RuleSet(List<String> rules, String path) {
+        this.path = path;
+
+        ArrayList<Integer> starts = new ArrayList<>();
+        byte[] code = new byte[256];
+        int size = 0;
+
+        for(int line = 0; line < rules.size(); line++) {
+
+            String rule = rules.get(line);
+            if(rule.trim().isEmpty() || rule.startsWith("#"))
+                continue;
+
+            // A rule never compiles to more bytes than it has characters
+            if(code.length < size + rule.length())
+                code = Arrays.copyOf(code, Math.max(2 * code.length, size + rule.length()));
+
+            starts.add(size);
+            size = compile(rule, code, size, line + 1);
+        }
+
+        this.code = Arrays.copyOf(code, size);
+        this.starts = new int[starts.size() + 1];
+        for(int i = 0; i < starts.size(); i++)
+            this.starts[i] = starts.get(i);
+        this.starts[starts.size()] = size;
+    }
+
+
+    /**
+     * Loads a rules file
+     * @param file File holding one rule per line
+     * @return The compiled rules
+     * @throws IOException if the file cannot be read
+     * @exception IllegalArgumentException thrown if a rule is malformed or there are none
+     */
+    public static RuleSet load(File file) throws IOException {
+
+        RuleSet rules = new RuleSet(Files.readAllLines(file.toPath(), StandardCharsets.ISO_8859_1),
+                file.getAbsolutePath());
+        if(rules.size() == 0)
+            throw new IllegalArgumentException(String.format("%s holds no rules", file));
+
+        return rules;
+    }
+
+
+    /**
+     * Compiles a single rule
+     * @param rule Text of the rule
+     * @param code Buffer the bytecode is written to
+     * @param pos Offset to write at
+     * @param line Line the rule is on, for errors
+     * @return Offset behind the compiled rule
+     * @exception IllegalArgumentException thrown if the rule is malformed
+     */
+    private static int compile(String rule, byte[] code, int pos, int line) {
+
+        int i = 0;
+        while(i < rule.length()) {
+
+            // Functions may be separated by spaces, operands are taken literally
+            char op = rule.charAt(i++);
+            if(op == ' ' || op == '\t')
+                continue;
+
+            String operands = op < 128 ? OPERANDS[op] : null;
+            if(operands == null)
+                throw new IllegalArgumentException(String.format(
+                        "Unsupported rule function '%c' on line %d", op, line));
+
+            if(i + operands.length() > rule.length())
+                throw new IllegalArgumentException(String.format(
+                        "Rule function '%c' on line %d is missing operands", op, line));
+
+            code[pos++] = (byte)op;
+            for(int j = 0; j < operands.length(); j++) {
+
+                char c = rule.charAt(i++);
+                if(operands.charAt(j) == 'N') {
+
+                    int n = position(c);
+                    if(n < 0)
+                        throw new IllegalArgumentException(String.format(
+                                "Bad position '%c' in rule on line %d", c, line));
+                    code[pos++] = (byte)n;
+                } else {
+                    code[pos++] = (byte)c;
+                }
+            }
+        }
+
+        return pos;
+    }
+
+
+    /**
+     * Decodes a position operand
+     * @param c 0-9 for 0 to 9, A-Z for 10 to 35
+     * @return The position, -1 if c isn't one
+     */
+    static int position(char c) {
+
+        if(c >= '0' && c <= '9')
+            return c - '0';
+        if(c >= 'A' && c <= 'Z')
+            return c - 'A' + 10;
+
+        return -1;
+    }
+
+
+    /**
+     * Applies a rule to a word in place. Functions whose positions fall
+     * outside the word leave it unchanged, as hashcat does
+     * @param rule Number of the rule
+     * @param buf Buffer of at least MAX_CANDIDATE bytes holding the word
+     * @param len Length of the word
+     * @return Length of the mangled word, -1 if the rule rejected the word or
+     *         it grew past MAX_CANDIDATE
+     */
+    public int apply(int rule, byte[] buf, int len) {
+
+        final int max = CandidateGenerator.MAX_CANDIDATE;
+        byte[] code = this.code;
+        int pc = this.starts[rule];
+        int end = this.starts[rule + 1];
+
+        while(pc < end) {
+
+            int op = code[pc++];
+            switch(op) {
+
+                case ':':
+                    break;
+
+                case 'l':
+                    for(int i = 0; i < len; i++)
+                        buf[i] = lower(buf[i]);
+                    break;
+
+                case 'u':
+                    for(int i = 0; i < len; i++)
+                        buf[i] = upper(buf[i]);
+                    break;
+
+                case 'c':
+                    for(int i = 0; i < len; i++)
+                        buf[i] = i == 0 ? upper(buf[i]) : lower(buf[i]);
+                    break;
+
+                case 'C':
+                    for(int i = 0; i < len; i++)
+                        buf[i] = i == 0 ? lower(buf[i]) : upper(buf[i]);
+                    break;
+
+                case 't':
+                    for(int i = 0; i < len; i++)
+                        buf[i] = toggle(buf[i]);
+                    break;
+
+                case 'T': {
+                    int n = code[pc++];
+                    if(n < len)
+                        buf[n] = toggle(buf[n]);
+                    break;
+                }
+
+                case 'E':
+                case 'e': {
+                    byte sep = op == 'E' ? (byte)' ' : code[pc++];
+                    for(int i = 0; i < len; i++)
+                        buf[i] = i == 0 || buf[i - 1] == sep ? upper(buf[i]) : lower(buf[i]);
+                    break;
+                }
+
+                case 'r':
+                    reverse(buf, 0, len);
+                    break;
+
+                case 'd':
+                    if(2 * len > max)
+                        return -1;
+                    System.arraycopy(buf, 0, buf, len, len);
+                    len *= 2;
+                    break;
+
+                case 'p': {
+                    int n = code[pc++];
+                    if(len * (n + 1) > max)
+                        return -1;
+                    for(int i = 1; i <= n; i++)
+                        System.arraycopy(buf, 0, buf, i * len, len);
+                    len *= n + 1;
+                    break;
+                }
+
+                case 'f':
+                    if(2 * len > max)
+                        return -1;
+                    for(int i = 0; i < len; i++)
+                        buf[len + i] = buf[len - 1 - i];
+                    len *= 2;
+                    break;
+
+                case 'q':
+                    if(2 * len > max)
+                        return -1;
+                    for(int i = len - 1; i >= 0; i--) {
+                        buf[2 * i] = buf[i];
+                        buf[2 * i + 1] = buf[i];
+                    }
+                    len *= 2;
+                    break;
+
+                case '{':
+                    if(len > 1) {
+                        byte first = buf[0];
+                        System.arraycopy(buf, 1, buf, 0, len - 1);
+                        buf[len - 1] = first;
+                    }
+                    break;
+
+                case '}':
+                    if(len > 1) {
+                        byte last = buf[len - 1];
+                        System.arraycopy(buf, 0, buf, 1, len - 1);
+                        buf[0] = last;
+                    }
+                    break;
+
+                case '$':
+                    if(len + 1 > max)
+                        return -1;
+                    buf[len++] = code[pc++];
+                    break;
+
+                case '^':
+                    if(len + 1 > max)
+                        return -1;
+                    System.arraycopy(buf, 0, buf, 1, len++);
+                    buf[0] = code[pc++];
+                    break;
+
+                case '[':
+                    if(len > 0)
+                        System.arraycopy(buf, 1, buf, 0, --len);
+                    break;
+
+                case ']':
+                    if(len > 0)
+                        len--;
+                    break;
+
+                case 'D': {
+                    int n = code[pc++];
+                    if(n < len)
+                        System.arraycopy(buf, n + 1, buf, n, --len - n);
+                    break;
+                }
+
+                case 'x': {
+                    int n = code[pc++];
+                    int m = code[pc++];
+                    if(n + m <= len) {
+                        System.arraycopy(buf, n, buf, 0, m);
+                        len = m;
+                    }
+                    break;
+                }
+
+                case 'O': {
+                    int n = code[pc++];
+                    int m = code[pc++];
+                    if(n + m <= len) {
+                        System.arraycopy(buf, n + m, buf, n, len - n - m);
+                        len -= m;
+                    }
+                    break;
+                }
+
+                case 'i': {
+                    int n = code[pc++];
+                    byte c = code[pc++];
+                    if(n <= len) {
+                        if(len + 1 > max)
+                            return -1;
+                        System.arraycopy(buf, n, buf, n + 1, len++ - n);
+                        buf[n] = c;
+                    }
+                    break;
+                }
+
+                case 'o': {
+                    int n = code[pc++];
+                    byte c = code[pc++];
+                    if(n < len)
+                        buf[n] = c;
+                    break;
+                }
+
+                case '\'': {
+                    int n = code[pc++];
+                    if(n < len)
+                        len = n;
+                    break;
+                }
+
+                case 's': {
+                    byte from = code[pc++];
+                    byte to = code[pc++];
+                    for(int i = 0; i < len; i++)
+                        if(buf[i] == from)
+                            buf[i] = to;
+                    break;
+                }
+
+                case '@': {
+                    byte c = code[pc++];
+                    int n = 0;
+                    for(int i = 0; i < len; i++)
+                        if(buf[i] != c)
+                            buf[n++] = buf[i];
+                    len = n;
+                    break;
+                }
+
+                case 'z':
+                case 'Z': {
+                    int n = code[pc++];
+                    if(len == 0)
+                        break;
+                    if(len + n > max)
+                        return -1;
+                    if(op == 'z') {
+                        System.arraycopy(buf, 0, buf, n, len);
+                        for(int i = 1; i <= n; i++)
+                            buf[i] = buf[0];
+                    } else {
+                        for(int i = 0; i < n; i++)
+                            buf[len + i] = buf[len - 1];
+                    }
+                    len += n;
+                    break;
+                }
+
+                case 'y':
+                case 'Y': {
+                    int n = code[pc++];
+                    if(n > len)
+                        break;
+                    if(len + n > max)
+                        return -1;
+                    if(op == 'y') {
+                        System.arraycopy(buf, 0, buf, n, len);
+                    } else {
+                        System.arraycopy(buf, len - n, buf, len, n);
+                    }
+                    len += n;
+                    break;
+                }
+
+                case 'k':
+                    if(len > 1)
+                        swap(buf, 0, 1);
+                    break;
+
+                case 'K':
+                    if(len > 1)
+                        swap(buf, len - 2, len - 1);
+                    break;
+
+                case '*': {
+                    int n = code[pc++];
+                    int m = code[pc++];
+                    if(n < len && m < len)
+                        swap(buf, n, m);
+                    break;
+                }
+
+                case 'L':
+                case 'R':
+                case '+':
+                case '-':
+                case '.':
+                case ',': {
+                    int n = code[pc++];
+                    if(n >= len)
+                        break;
+                    if(op == 'L')
+                        buf[n] = (byte)(buf[n] << 1);
+                    else if(op == 'R')
+                        buf[n] = (byte)((buf[n] & 0xff) >>> 1);
+                    else if(op == '+')
+                        buf[n]++;
+                    else if(op == '-')
+                        buf[n]--;
+                    else if(op == '.' && n + 1 < len)
+                        buf[n] = buf[n + 1];
+                    else if(op == ',' && n > 0)
+                        buf[n] = buf[n - 1];
+                    break;
+                }
+
+                // Rejections drop the word instead of changing it, a word of
+                // exactly N passes both '<N' and '>N' as it does in hashcat
+                case '<':
+                    if(len > code[pc++])
+                        return -1;
+                    break;
+
+                case '>':
+                    if(len < code[pc++])
+                        return -1;
+                    break;
+
+                case '_':
+                    if(len != code[pc++])
+                        return -1;
+                    break;
+
+                case '!':
+                case '/': {
+                    byte c = code[pc++];
+                    boolean found = false;
+                    for(int i = 0; i < len && !found; i++)
+                        found = buf[i] == c;
+                    if(found == (op == '!'))
+                        return -1;
+                    break;
+                }
+
+                case '(':
+                    if(len == 0 || buf[0] != code[pc++])
+                        return -1;
+                    break;
+
+                case ')':
+                    if(len == 0 || buf[len - 1] != code[pc++])
+                        return -1;
+                    break;
+
+                case '=': {
+                    int n = code[pc++];
+                    byte c = code[pc++];
+                    if(n >= len || buf[n] != c)
+                        return -1;
+                    break;
+                }
+
+                case '%': {
+                    int n = code[pc++];
+                    byte c = code[pc++];
+                    int count = 0;
+                    for(int i = 0; i < len; i++)
+                        if(buf[i] == c)
+                            count++;
+                    if(count < n)
+                        return -1;
+                    break;
+                }
+
+                default:
+                    throw new IllegalStateException(String.format("Bad rule opcode %d", op));
+            }
+        }
+
+        return len;
+    }
+
+
+    /**
+     * Gets the number of rules
+     * @return Number of compiled rules
+     */
+    public int size() { return this.starts.length - 1; }
+
+
+    /**
+     * Path getter
+     * @return Where the rules came from
+     */
+    public String getPath() { return this.path; }
+
+
+    /**
+     * Lower cases an ASCII letter
+     * @param c Character to convert
+     * @return The lower case character, or c if it isn't an upper case letter
+     */
+    private static byte lower(byte c) { return c >= 'A' && c <= 'Z' ? (byte)(c + 32) : c; }
+
+
+    /**
+     * Upper cases an ASCII letter
+     * @param c Character to convert
+     * @return The upper case character, or c if it isn't a lower case letter
+     */
+    private static byte upper(byte c) { return c >= 'a' && c <= 'z' ? (byte)(c - 32) : c; }
+
+
+    /**
+     * Toggles the case of an ASCII letter
+     * @param c Character to convert
+     * @return The character in the other case, or c if it isn't a letter
+     */
+    private static byte toggle(byte c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ? (byte)(c ^ 32) : c;
+    }
+
+
+    /**
+     * Reverses part of a buffer
+     * @param buf Buffer to reverse in
+     * @param from First byte to reverse
+     * @param to End of the bytes to reverse (exclusive)
+     */
+    private static void reverse(byte[] buf, int from, int to) {
+        for(int i = from, j = to - 1; i < j; i++, j--)
+            swap(buf, i, j);
+    }
+
+
+    /**
+     * Swaps two bytes
+     * @param buf Buffer holding the bytes
+     * @param i Position of the first byte
+     * @param j Position of the second byte
+     */
+    private static void swap(byte[] buf, int i, int j) {
+        byte t = buf[i];
+        buf[i] = buf[j];
+        buf[j] = t;
+    }
+}
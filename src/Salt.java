@@ -0,0 +1,69 @@
+import java.util.Arrays;
+
+/**
+ * Salt and cost parameters shared by a group of targets. Two targets with
+ * equal salts are hashed together, so a candidate is hashed once per salt
+ * rather than once per target. Salts are only equal if their setting text
+ * is too, so every target formats back to the hash it was loaded from
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Salt.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Salt {
+
+    // Instance variables
+    private byte[] bytes;
+    private int rounds;
+    private String setting;
+
+
+    /**
+     * Salt constructor
+     * @param bytes Salt as the algorithm uses it
+     * @param rounds Iteration count or cost, 0 for algorithms without one
+     * @param setting Text of the salt and parameters as they appear in the hash
+     */
+    Salt(byte[] bytes, int rounds, String setting) {
+        this.bytes = bytes;
+        this.rounds = rounds;
+        this.setting = setting;
+    }
+
+
+    /**
+     * Bytes getter
+     * @return Salt as the algorithm uses it
+     */
+    public byte[] getBytes() { return this.bytes; }
+
+
+    /**
+     * Rounds getter
+     * @return Iteration count or cost
+     */
+    public int getRounds() { return this.rounds; }
+
+
+    /**
+     * Setting getter
+     * @return Text of the salt and parameters as they appear in the hash
+     */
+    public String getSetting() { return this.setting; }
+
+
+    @Override
+    public boolean equals(Object o) {
+
+        if(!(o instanceof Salt))
+            return false;
+
+        Salt other = (Salt)o;
+        return this.rounds == other.rounds && Arrays.equals(this.bytes, other.bytes) &&
+                this.setting.equals(other.setting);
+    }
+
+
+    @Override
+    public int hashCode() { return 31 * (31 * Arrays.hashCode(this.bytes) + this.rounds) + this.setting.hashCode(); }
+}
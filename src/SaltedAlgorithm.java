@@ -0,0 +1,70 @@
+/**
+ * A hash function that mixes a per hash salt, and possibly an iteration
+ * count, into every digest. Like HashAlgorithm, implementations keep their
+ * working state in the instance and every worker gets its own from
+ * newInstance()
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: SaltedAlgorithm.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public interface SaltedAlgorithm {
+
+    /**
+     * Name getter
+     * @return Name of the algorithm as given to --hashMethod
+     */
+    String getName();
+
+
+    /**
+     * Digest length getter
+     * @return Length of a digest in bytes, as it is stored in the target index
+     */
+    int getDigestLength();
+
+
+    /**
+     * Checks if this is a deliberately slow, iterated hash
+     * @return True if a single hash takes thousands of rounds
+     */
+    boolean isIterated();
+
+
+    /**
+     * Parses a hash in the format this algorithm uses
+     * @param hash Text of the hash
+     * @param digest Buffer of getDigestLength() bytes the digest is written to
+     * @return Salt of the hash, or null if the hash is malformed
+     */
+    Salt parse(String hash, byte[] digest);
+
+
+    /**
+     * Formats a hash the way it was given to parse()
+     * @param salt Salt of the hash
+     * @param digest Buffer holding the digest
+     * @param off Offset of the digest
+     * @return Text of the hash
+     */
+    String format(Salt salt, byte[] digest, int off);
+
+
+    /**
+     * Hashes a candidate with a salt
+     * @param in Buffer holding the candidate
+     * @param off Offset of the candidate
+     * @param len Length of the candidate
+     * @param salt Salt to hash with
+     * @param out Buffer to write the digest to
+     * @param outOff Offset the digest should be written at
+     */
+    void hash(byte[] in, int off, int len, Salt salt, byte[] out, int outOff);
+
+
+    /**
+     * Creates a new instance with its own working state
+     * @return A fresh instance of this algorithm
+     */
+    SaltedAlgorithm newInstance();
+}
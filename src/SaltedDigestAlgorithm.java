@@ -0,0 +1,76 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Any unsalted HashAlgorithm over the candidate followed by a salt, for
+ * hashes given as 'hash:salt'. The candidate and salt are joined in a
+ * scratch buffer owned by the instance
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: SaltedDigestAlgorithm.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class SaltedDigestAlgorithm implements SaltedAlgorithm {
+
+    // Instance variables
+    private HashAlgorithm algorithm;
+    private byte[] joined;
+
+
+    /**
+     * SaltedDigestAlgorithm constructor
+     * @param algorithm Algorithm the salted candidates are hashed with
+     */
+    SaltedDigestAlgorithm(HashAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        this.joined = new byte[2 * CandidateGenerator.MAX_CANDIDATE];
+    }
+
+
+    @Override
+    public String getName() { return this.algorithm.getName() + " salted"; }
+
+
+    @Override
+    public int getDigestLength() { return this.algorithm.getDigestLength(); }
+
+
+    @Override
+    public boolean isIterated() { return false; }
+
+
+    @Override
+    public Salt parse(String hash, byte[] digest) {
+
+        // The salt is everything after the first ':' and may itself hold ':'
+        int colon = hash.indexOf(':');
+        int width = this.getDigestLength();
+        if(colon != 2 * width || !Hex.decode(hash.subSequence(0, colon), digest, 0, width))
+            return null;
+
+        String salt = hash.substring(colon + 1);
+        return new Salt(salt.getBytes(StandardCharsets.UTF_8), 0, salt);
+    }
+
+
+    @Override
+    public String format(Salt salt, byte[] digest, int off) {
+        return Hex.encode(digest, off, this.getDigestLength()) + ":" + salt.getSetting();
+    }
+
+
+    @Override
+    public void hash(byte[] in, int off, int len, Salt salt, byte[] out, int outOff) {
+
+        byte[] s = salt.getBytes();
+        if(this.joined.length < len + s.length)
+            this.joined = new byte[len + s.length];
+
+        System.arraycopy(in, off, this.joined, 0, len);
+        System.arraycopy(s, 0, this.joined, len, s.length);
+        this.algorithm.hash(this.joined, 0, len + s.length, out, outOff);
+    }
+
+
+    @Override
+    public SaltedAlgorithm newInstance() { return new SaltedDigestAlgorithm(this.algorithm.newInstance()); }
+}
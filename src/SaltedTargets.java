@@ -0,0 +1,290 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Salted targets grouped by their salt. Every group has its own TargetIndex,
+ * so a candidate is hashed once per unique salt and looked up among all the
+ * targets sharing it. Targets are numbered across groups in load order of
+ * their salts, the numbers index the shared CrackedSet
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: SaltedTargets.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class SaltedTargets {
+
+    // Chunk size of a salt group, most salts only have a target or two
+    static final int GROUP_CHUNK = 16;
+
+    // Instance variables
+    private SaltedAlgorithm algorithm;
+    private LinkedHashMap<Salt, ArrayList<HashChunk>> pending;
+    private Group[] groups;
+    private int[] bases;
+    private int size;
+    private long skipped;
+    private PotfileCache cache;
+    private Consumer<String> known;
+
+
+    /**
+     * SaltedTargets constructor, add the targets and then call build()
+     * @param algorithm Algorithm the hashes were made with
+     */
+    SaltedTargets(SaltedAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        this.pending = new LinkedHashMap<>();
+        this.size = 0;
+        this.skipped = 0;
+    }
+
+
+    /**
+     * Screens every hash added from now on against a potfile cache. Hashes
+     * already in it aren't added, their potfile line goes to known instead
+     * @param cache Cache of hashes cracked by earlier runs
+     * @param known Receives the potfile line of every hash already cracked
+     */
+    public void setCache(PotfileCache cache, Consumer<String> known) {
+        this.cache = cache;
+        this.known = known;
+    }
+
+
+    /**
+     * Adds a hash
+     * @param hash Text of the hash in the algorithm's format
+     * @return False if the hash is malformed and was skipped
+     */
+    public boolean add(String hash) {
+
+        byte[] digest = new byte[this.algorithm.getDigestLength()];
+        Salt salt = this.algorithm.parse(hash, digest);
+        if(salt == null) {
+            this.skipped++;
+            return false;
+        }
+
+        // Cracked by an earlier run
+        if(this.cache != null) {
+
+            String line = this.cache.find(this.algorithm.format(salt, digest, 0));
+            if(line != null) {
+                this.known.accept(line);
+                return true;
+            }
+        }
+
+        ArrayList<HashChunk> chunks = this.pending.computeIfAbsent(salt, s -> new ArrayList<>());
+        if(chunks.isEmpty() || chunks.get(chunks.size() - 1).isFull())
+            chunks.add(new HashChunk(digest.length, GROUP_CHUNK));
+
+        HashChunk chunk = chunks.get(chunks.size() - 1);
+        System.arraycopy(digest, 0, chunk.getDigests(), chunk.reserve(), digest.length);
+        chunk.commit();
+        return true;
+    }
+
+
+    /**
+     * Adds every hash in a file, one per line. Blank lines are ignored and
+     * malformed ones are counted as skipped
+     * @param file File to read
+     * @throws IOException if the file cannot be read
+     */
+    public void load(File file) throws IOException {
+
+        try(BufferedReader in = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+
+            String line;
+            while((line = in.readLine()) != null) {
+                line = line.trim();
+                if(!line.isEmpty())
+                    this.add(line);
+            }
+        }
+    }
+
+
+    /**
+     * Builds the index of every salt group. No more hashes can be added
+     * afterwards
+     */
+    public void build() {
+
+        ArrayList<Group> groups = new ArrayList<>();
+        int base = 0;
+
+        for(Map.Entry<Salt, ArrayList<HashChunk>> entry : this.pending.entrySet()) {
+
+            TargetIndex index = TargetIndex.build(this.algorithm.getDigestLength(), entry.getValue());
+            groups.add(new Group(entry.getKey(), index, base));
+            base += index.size();
+        }
+
+        this.groups = groups.toArray(new Group[0]);
+        this.bases = new int[this.groups.length];
+        for(int i = 0; i < this.groups.length; i++)
+            this.bases[i] = this.groups[i].base;
+
+        this.size = base;
+        this.pending = null;
+    }
+
+
+    /**
+     * Brings the groups up to date with targets cracked by an earlier run
+     * @param cracked Targets already cracked
+     */
+    public void setCracked(CrackedSet cracked) {
+
+        for(Group group : this.groups) {
+
+            int remaining = 0;
+            for(int i = 0; i < group.index.size(); i++)
+                if(!cracked.contains(group.base + i))
+                    remaining++;
+
+            group.remaining.set(remaining);
+        }
+    }
+
+
+    /**
+     * Formats a target the way it was loaded
+     * @param target Target number
+     * @return Text of the hash
+     */
+    public String format(int target) {
+
+        // Find the last group starting at or before the target
+        int i = Arrays.binarySearch(this.bases, target);
+        Group group = this.groups[i >= 0 ? i : -i - 2];
+
+        byte[] digest = new byte[group.index.getWidth()];
+        group.index.getDigest(target - group.base, digest, 0);
+        return this.algorithm.format(group.salt, digest, 0);
+    }
+
+
+    /**
+     * Digests every group in order, its salt and then its targets, so two
+     * sets of targets with the same fingerprint number them the same way
+     * @return SHA-256 of every group
+     */
+    public byte[] fingerprint() {
+
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        for(Group group : this.groups) {
+            byte[] setting = group.salt.getSetting().getBytes(StandardCharsets.UTF_8);
+            md.update(ByteBuffer.allocate(4).putInt(0, setting.length));
+            md.update(setting);
+            md.update(group.index.fingerprint());
+        }
+
+        return md.digest();
+    }
+
+
+    /**
+     * Groups getter
+     * @return Every salt group
+     */
+    public Group[] getGroups() { return this.groups; }
+
+
+    /**
+     * Gets the number of unique targets
+     * @return Number of targets over all groups
+     */
+    public int size() { return this.size; }
+
+
+    /**
+     * Skipped getter
+     * @return Number of malformed hashes that were skipped
+     */
+    public long getSkipped() { return this.skipped; }
+
+
+    /**
+     * Targets sharing a salt
+     */
+    static class Group {
+
+        // Instance variables
+        private Salt salt;
+        private TargetIndex index;
+        private int base;
+        private AtomicInteger remaining;
+
+
+        /**
+         * Group constructor
+         * @param salt Salt of every target in the group
+         * @param index Index of the group's digests
+         * @param base Number of the group's first target
+         */
+        Group(Salt salt, TargetIndex index, int base) {
+            this.salt = salt;
+            this.index = index;
+            this.base = base;
+            this.remaining = new AtomicInteger(index.size());
+        }
+
+
+        /**
+         * Salt getter
+         * @return Salt of every target in the group
+         */
+        public Salt getSalt() { return this.salt; }
+
+
+        /**
+         * Index getter
+         * @return Index of the group's digests
+         */
+        public TargetIndex getIndex() { return this.index; }
+
+
+        /**
+         * Base getter
+         * @return Number of the group's first target
+         */
+        public int getBase() { return this.base; }
+
+
+        /**
+         * Checks if any target of the group is left to crack, so the salt can
+         * be skipped once they all are
+         * @return True if the group still has uncracked targets
+         */
+        public boolean hasRemaining() { return this.remaining.get() > 0; }
+
+
+        /**
+         * Records that one of the group's targets was cracked
+         */
+        public void cracked() { this.remaining.decrementAndGet(); }
+    }
+}
@@ -0,0 +1,252 @@
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * SHA-512 crypt ('$6$', Drepper's SHA-crypt) as used in /etc/shadow. The
+ * digest kept in the target index is the 86 character crypt encoding rather
+ * than the raw bytes, so targets are compared exactly as they were written
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: Sha512CryptAlgorithm.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class Sha512CryptAlgorithm implements SaltedAlgorithm {
+
+    static final String PREFIX = "$6$";
+    static final String ROUNDS = "rounds=";
+    static final int DEFAULT_ROUNDS = 5000;
+    static final int MIN_ROUNDS = 1000;
+    static final int MAX_ROUNDS = 999999999;
+    static final int MAX_SALT = 16;
+    static final int ENCODED_LENGTH = 86;
+
+    // Characters of the crypt base64 encoding
+    static final byte[] ALPHABET =
+            "./0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+
+    // Order the digest bytes are encoded in, three at a time
+    private static final int[] ORDER = {
+            0, 21, 42, 22, 43, 1, 44, 2, 23, 3, 24, 45, 25, 46, 4, 47, 5, 26, 6, 27, 48,
+            28, 49, 7, 50, 8, 29, 9, 30, 51, 31, 52, 10, 53, 11, 32, 12, 33, 54, 34, 55,
+            13, 56, 14, 35, 15, 36, 57, 37, 58, 16, 59, 17, 38, 18, 39, 60, 40, 61, 19,
+            62, 20, 41};
+
+    // Instance variables
+    private MessageDigest sha;
+    private byte[] a, b, c, dp, ds;
+    private byte[] p, s;
+
+
+    /**
+     * Sha512CryptAlgorithm constructor
+     */
+    Sha512CryptAlgorithm() {
+
+        try {
+            this.sha = MessageDigest.getInstance("SHA-512");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Hash method SHA-512 is not available in this JVM", e);
+        }
+
+        this.a = new byte[64];
+        this.b = new byte[64];
+        this.c = new byte[64];
+        this.dp = new byte[64];
+        this.ds = new byte[64];
+        this.p = new byte[CandidateGenerator.MAX_CANDIDATE];
+        this.s = new byte[MAX_SALT];
+    }
+
+
+    @Override
+    public String getName() { return "sha512crypt"; }
+
+
+    @Override
+    public int getDigestLength() { return ENCODED_LENGTH; }
+
+
+    @Override
+    public boolean isIterated() { return true; }
+
+
+    @Override
+    public Salt parse(String hash, byte[] digest) {
+
+        if(!hash.startsWith(PREFIX))
+            return null;
+
+        int pos = PREFIX.length();
+        int rounds = DEFAULT_ROUNDS;
+
+        // Optional rounds=N$, clamped to the allowed range like crypt(3) does
+        if(hash.startsWith(ROUNDS, pos)) {
+
+            int end = hash.indexOf('$', pos);
+            if(end < 0)
+                return null;
+
+            try {
+                long n = Long.parseLong(hash.substring(pos + ROUNDS.length(), end));
+                rounds = (int)Math.max(MIN_ROUNDS, Math.min(MAX_ROUNDS, n));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            pos = end + 1;
+        }
+
+        // The encoded digest follows the last '$'
+        int dollar = hash.lastIndexOf('$');
+        if(dollar < pos || dollar - pos > MAX_SALT || hash.length() - dollar - 1 != ENCODED_LENGTH)
+            return null;
+
+        byte[] encoded = hash.substring(dollar + 1).getBytes(StandardCharsets.US_ASCII);
+        for(byte e : encoded)
+            if(indexOf(e) < 0)
+                return null;
+
+        // crypt(3) uses at most 16 bytes of salt
+        byte[] saltBytes = hash.substring(pos, dollar).getBytes(StandardCharsets.UTF_8);
+        if(saltBytes.length > MAX_SALT)
+            saltBytes = Arrays.copyOf(saltBytes, MAX_SALT);
+
+        System.arraycopy(encoded, 0, digest, 0, ENCODED_LENGTH);
+        return new Salt(saltBytes, rounds, hash.substring(0, dollar + 1));
+    }
+
+
+    @Override
+    public String format(Salt salt, byte[] digest, int off) {
+        return salt.getSetting() + new String(digest, off, ENCODED_LENGTH, StandardCharsets.US_ASCII);
+    }
+
+
+    @Override
+    public void hash(byte[] in, int off, int len, Salt salt, byte[] out, int outOff) {
+
+        MessageDigest sha = this.sha;
+        byte[] saltBytes = salt.getBytes();
+        int saltLen = saltBytes.length;
+
+        // B = H(password, salt, password)
+        sha.update(in, off, len);
+        sha.update(saltBytes);
+        sha.update(in, off, len);
+        this.digest(this.b);
+
+        // A = H(password, salt, B repeated to the password length, then B or
+        // the password for every bit of the password length)
+        sha.update(in, off, len);
+        sha.update(saltBytes);
+        int n;
+        for(n = len; n > 64; n -= 64)
+            sha.update(this.b);
+        sha.update(this.b, 0, n);
+
+        for(n = len; n > 0; n >>>= 1) {
+            if((n & 1) != 0)
+                sha.update(this.b);
+            else
+                sha.update(in, off, len);
+        }
+        this.digest(this.a);
+
+        // P = H(password repeated password length times), cut to the password length
+        for(int i = 0; i < len; i++)
+            sha.update(in, off, len);
+        this.digest(this.dp);
+        for(int i = 0; i < len; i++)
+            this.p[i] = this.dp[i % 64];
+
+        // S = H(salt repeated 16 + A[0] times), cut to the salt length
+        for(int i = 0; i < 16 + (this.a[0] & 0xff); i++)
+            sha.update(saltBytes);
+        this.digest(this.ds);
+        System.arraycopy(this.ds, 0, this.s, 0, saltLen);
+
+        // The rounds, each mixing the previous digest with P and S
+        byte[] c = this.c;
+        System.arraycopy(this.a, 0, c, 0, 64);
+        for(int i = 0; i < salt.getRounds(); i++) {
+
+            if((i & 1) != 0)
+                sha.update(this.p, 0, len);
+            else
+                sha.update(c);
+
+            if(i % 3 != 0)
+                sha.update(this.s, 0, saltLen);
+
+            if(i % 7 != 0)
+                sha.update(this.p, 0, len);
+
+            if((i & 1) != 0)
+                sha.update(c);
+            else
+                sha.update(this.p, 0, len);
+
+            this.digest(c);
+        }
+
+        // Encode three bytes at a time, the last byte gets two characters of its own
+        int o = outOff;
+        for(int i = 0; i < ORDER.length; i += 3)
+            o = encode(out, o, (c[ORDER[i]] & 0xff) << 16 | (c[ORDER[i + 1]] & 0xff) << 8 | (c[ORDER[i + 2]] & 0xff), 4);
+        encode(out, o, c[63] & 0xff, 2);
+    }
+
+
+    @Override
+    public SaltedAlgorithm newInstance() { return new Sha512CryptAlgorithm(); }
+
+
+    /**
+     * Finishes the running digest into a buffer
+     * @param dst Buffer of 64 bytes
+     */
+    private void digest(byte[] dst) {
+
+        try {
+            this.sha.digest(dst, 0, 64);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Digest buffer is too small", e);
+        }
+    }
+
+
+    /**
+     * Writes the low bits of a value as crypt base64, least significant first
+     * @param out Buffer to write to
+     * @param pos Offset to write at
+     * @param v Value to encode
+     * @param n Number of characters to write
+     * @return Offset behind the written characters
+     */
+    static int encode(byte[] out, int pos, int v, int n) {
+
+        for(int i = 0; i < n; i++) {
+            out[pos++] = ALPHABET[v & 0x3f];
+            v >>>= 6;
+        }
+
+        return pos;
+    }
+
+
+    /**
+     * Finds a character in the crypt base64 alphabet
+     * @param c Character to look for
+     * @return Its value, -1 if it isn't in the alphabet
+     */
+    static int indexOf(byte c) {
+
+        for(int i = 0; i < ALPHABET.length; i++)
+            if(ALPHABET[i] == c)
+                return i;
+
+        return -1;
+    }
+}
@@ -0,0 +1,621 @@
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Read-only index of every target digest, shared by all workers. Digests are
+ * packed back to back in sorted order, and a directory with a bucket per
+ * target says where the digests of each slice of the key range start, so a
+ * lookup reads one directory entry and a cache line of digests no matter how
+ * many targets are loaded. Large indexes live off the heap, at little more
+ * than the digests themselves and with nothing for the garbage collector to
+ * trace, and can be saved and mapped straight back in by later runs. Target
+ * numbers are positions in the sorted order, so they don't depend on the
+ * order the hashes were loaded in
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: TargetIndex.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class TargetIndex {
+
+    // Saved index header, followed by the name of the hash method
+    static final int MAGIC = 0x4c515449;
+    static final int VERSION = 2;
+    static final int HEADER = 20;
+
+    // Each window of digests covers at most 1GB, a whole number of digests
+    static final int WINDOW_BITS = 30;
+
+    // The directory has to fit in a single buffer, past this many targets
+    // buckets hold more than one
+    static final int MAX_BUCKETS = 1 << 28;
+
+    // Buckets bigger than this are binary searched rather than walked
+    static final int SCAN_TARGETS = 8;
+
+    // Buckets bigger than this are sorted out of place
+    static final int INSERTION_SORT = 16;
+
+    // Indexes at least this big are allocated off the heap, smaller ones
+    // like most salt groups' aren't worth a direct buffer
+    static final int DIRECT_BYTES = 1 << 16;
+
+    // Instance variables
+    private ByteBuffer[] windows;
+    private ByteBuffer directoryBytes;
+    private IntBuffer directory;
+    private int shift;
+    private int mask;
+    private int buckets;
+    private int width;
+    private int count;
+
+
+    /**
+     * TargetIndex constructor, use build() or open() to create one
+     * @param width Length of a digest in bytes
+     * @param buckets Number of buckets in the directory
+     * @param count Number of digests
+     * @param windows The digests, sorted and unique, split as windowBits() says
+     * @param directoryBytes Start of every bucket and the end of the last, as ints
+     */
+    private TargetIndex(int width, int buckets, int count, ByteBuffer[] windows, ByteBuffer directoryBytes) {
+        this.width = width;
+        this.buckets = buckets;
+        this.count = count;
+        this.windows = windows;
+        this.shift = windowBits(width);
+        this.mask = (1 << this.shift) - 1;
+        this.directoryBytes = directoryBytes;
+        this.directory = directoryBytes.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+
+    /**
+     * Builds an index over a set of chunks. Duplicate digests are only
+     * indexed once. Chunks are removed from the list as they are copied,
+     * so their memory can be reclaimed while the index is built
+     * @param width Length of a digest in bytes
+     * @param chunks Chunks holding the target digests
+     * @return The new index
+     * @exception IllegalArgumentException thrown if there are too many digests to number
+     */
+    public static TargetIndex build(int width, ArrayList<HashChunk> chunks) {
+
+        long total = 0;
+        for(HashChunk chunk : chunks)
+            total += chunk.getCount();
+
+        if(total > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException(String.format(
+                    "Too many targets (%d) for the index", total));
+
+        int buckets = (int)Math.max(1, Math.min(total, MAX_BUCKETS));
+        ByteBuffer[] windows = allocateWindows(width, (int)total);
+        ByteBuffer directoryBytes = allocate((buckets + 1) * 4);
+        IntBuffer directory = directoryBytes.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        TargetIndex index = new TargetIndex(width, buckets, 0, windows, directoryBytes);
+
+        // Count the digests of every bucket, then turn the counts into where each bucket starts
+        for(HashChunk chunk : chunks) {
+            for(int i = 0; i < chunk.getCount(); i++) {
+                int b = bucket(key(chunk.getDigests(), i * width, width), buckets);
+                directory.put(b + 1, directory.get(b + 1) + 1);
+            }
+        }
+
+        for(int b = 1; b <= buckets; b++)
+            directory.put(b, directory.get(b) + directory.get(b - 1));
+
+        // Copy every digest into its bucket, each bucket's entry moving along
+        // to where the next one starts
+        for(int c = 0; c < chunks.size(); c++) {
+
+            HashChunk chunk = chunks.set(c, null);
+            for(int i = 0; i < chunk.getCount(); i++) {
+
+                int b = bucket(key(chunk.getDigests(), i * width, width), buckets);
+                int pos = directory.get(b);
+                directory.put(b, pos + 1);
+                index.setDigest(pos, chunk.getDigests(), i * width);
+            }
+        }
+        chunks.clear();
+
+        for(int b = buckets - 1; b > 0; b--)
+            directory.put(b, directory.get(b - 1));
+        directory.put(0, 0);
+
+        // Sort every bucket and squeeze out the duplicates, which always share a bucket
+        int count = 0;
+        int start = 0;
+        for(int b = 0; b < buckets; b++) {
+
+            int end = directory.get(b + 1);
+            index.sort(start, end);
+            directory.put(b, count);
+
+            for(int t = start; t < end; t++) {
+                if(count > directory.get(b) && index.compare(t, count - 1) == 0)
+                    continue;
+                index.move(t, count++);
+            }
+
+            start = end;
+        }
+
+        directory.put(buckets, count);
+        index.count = count;
+        return index;
+    }
+
+
+    /**
+     * Maps an index saved with save(). Nothing is read until it is looked up
+     * in, so reopening even a very large index is instant
+     * @param file File the index was saved to
+     * @param hashMethod Name of the hash method the targets have to be made with
+     * @return The index
+     * @throws IOException if the file cannot be read, isn't a saved index or
+     * holds hashes of another method
+     */
+    public static TargetIndex open(File file, String hashMethod) throws IOException {
+
+        int width;
+        int buckets;
+        int count;
+        String saved;
+        try(DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+
+            if(in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException("Not a saved target index");
+
+            width = in.readInt();
+            buckets = in.readInt();
+            count = in.readInt();
+
+            byte[] name = new byte[in.readUnsignedShort()];
+            in.readFully(name);
+            saved = new String(name, StandardCharsets.UTF_8);
+        }
+
+        if(!saved.equals(hashMethod))
+            throw new IOException(String.format("Target index holds %s hashes, not %s", saved, hashMethod));
+
+        if(width <= 0 || width > 1 << WINDOW_BITS || buckets < 1 || buckets > MAX_BUCKETS || count < 0)
+            throw new IOException("Target index header is corrupt");
+
+        long header = HEADER + 2 + saved.getBytes(StandardCharsets.UTF_8).length;
+        long directoryLength = ((long)buckets + 1) * 4;
+        long digestsLength = (long)width * count;
+        if(file.length() != header + directoryLength + digestsLength)
+            throw new IOException("Target index is truncated");
+
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+            ByteBuffer directoryBytes = channel.map(FileChannel.MapMode.READ_ONLY, header, directoryLength);
+
+            // Map the digests a window at a time, each a whole number of digests
+            long windowLength = (long)width << windowBits(width);
+            ByteBuffer[] windows = new ByteBuffer[(int)Math.max(1, (digestsLength + windowLength - 1) / windowLength)];
+            for(int i = 0; i < windows.length; i++) {
+
+                long start = i * windowLength;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, header + directoryLength + start,
+                        Math.min(digestsLength - start, windowLength));
+            }
+
+            return new TargetIndex(width, buckets, count, windows, directoryBytes);
+        }
+    }
+
+
+    /**
+     * Saves the index, replacing the file atomically
+     * @param file File to save to
+     * @param hashMethod Name of the hash method the targets were made with
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file, String hashMethod) throws IOException {
+
+        byte[] name = hashMethod.getBytes(StandardCharsets.UTF_8);
+        File tmp = new File(file.getPath() + ".tmp");
+        try(FileChannel channel = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER + 2 + name.length);
+            header.putInt(MAGIC).putInt(VERSION).putInt(this.width).putInt(this.buckets).putInt(this.count);
+            header.putShort((short)name.length).put(name);
+            header.flip();
+
+            ArrayList<ByteBuffer> bufs = new ArrayList<>();
+            bufs.add(header);
+            bufs.add(this.directoryBytes.duplicate());
+            bufs.addAll(Arrays.asList(this.getDigests()));
+
+            for(ByteBuffer buf : bufs)
+                while(buf.hasRemaining())
+                    channel.write(buf);
+        }
+
+        Files.move(tmp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /**
+     * Looks up a digest
+     * @param digest Buffer holding the digest
+     * @param off Offset of the digest
+     * @return Target number of the digest, or -1 if it is not a target
+     */
+    public int find(byte[] digest, int off) {
+
+        long key = key(digest, off, this.width);
+        int b = bucket(key, this.buckets);
+        int start = this.directory.get(b);
+        int end = this.directory.get(b + 1);
+
+        // Hashes far from uniform can pile into a bucket, search those, and
+        // the rare bucket split between two windows
+        if(end - start > SCAN_TARGETS || (start ^ (end - 1)) >>> this.shift != 0)
+            return start < end ? this.search(start, end, key, digest, off) : -1;
+
+        // Walk the bucket until the digests sort after this one
+        ByteBuffer window = this.windows[start >>> this.shift];
+        int pos = (start & this.mask) * this.width;
+        for(int t = start; t < end; t++, pos += this.width) {
+
+            long k = this.key(window, pos);
+            if(k == key && this.matches(window, pos, digest, off))
+                return t;
+            if(Long.compareUnsigned(k, key) > 0)
+                break;
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Size getter
+     * @return Number of unique targets
+     */
+    public int size() { return this.count; }
+
+
+    /**
+     * Width getter
+     * @return Length of a digest in bytes
+     */
+    public int getWidth() { return this.width; }
+
+
+    /**
+     * Copies a target's digest out of the index
+     * @param target Target number
+     * @param dst Buffer to copy the digest to
+     * @param off Offset to copy it to
+     */
+    public void getDigest(int target, byte[] dst, int off) {
+
+        ByteBuffer window = this.windows[target >>> this.shift];
+        int pos = (target & this.mask) * this.width;
+        for(int i = 0; i < this.width; i++)
+            dst[off + i] = window.get(pos + i);
+    }
+
+
+    /**
+     * Digests every target in target number order, so two indexes with the
+     * same fingerprint number their targets the same way
+     * @return SHA-256 of the width and the sorted digests
+     */
+    public byte[] fingerprint() {
+
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        md.update(ByteBuffer.allocate(4).putInt(0, this.width));
+        for(ByteBuffer digests : this.getDigests())
+            md.update(digests);
+
+        return md.digest();
+    }
+
+
+    /**
+     * Gets a target as a hex string
+     * @param target Target number
+     * @return Hex representation of the target's digest
+     */
+    public String toHex(int target) {
+
+        byte[] digest = new byte[this.width];
+        this.getDigest(target, digest, 0);
+        return Hex.encode(digest, 0, this.width);
+    }
+
+
+    /**
+     * Gets views of the stored digests, leaving out any room past the last
+     * @return A buffer per window that holds digests, positioned over them
+     */
+    private ByteBuffer[] getDigests() {
+
+        int used = Math.max(1, (int)(((long)this.count + this.mask) >>> this.shift));
+        ByteBuffer[] digests = new ByteBuffer[used];
+        for(int i = 0; i < used; i++) {
+
+            int targets = Math.min(this.count - (i << this.shift), 1 << this.shift);
+            digests[i] = this.windows[i].duplicate();
+            digests[i].position(0).limit(Math.max(0, targets) * this.width);
+        }
+
+        return digests;
+    }
+
+
+    /**
+     * Binary searches a run of stored targets for a digest
+     * @param from First target of the run
+     * @param to End of the run (exclusive)
+     * @param key Key of the digest
+     * @param digest Buffer holding the digest
+     * @param off Offset of the digest
+     * @return Target number of the digest, or -1 if it is not in the run
+     */
+    private int search(int from, int to, long key, byte[] digest, int off) {
+
+        int lo = from;
+        int hi = to - 1;
+        while(lo <= hi) {
+
+            int mid = (lo + hi) >>> 1;
+            ByteBuffer window = this.windows[mid >>> this.shift];
+            int pos = (mid & this.mask) * this.width;
+            int c = Long.compareUnsigned(this.key(mid), key);
+            for(int i = 8; c == 0 && i < this.width; i++)
+                c = Integer.compare(window.get(pos + i) & 0xff, digest[off + i] & 0xff);
+
+            if(c < 0)
+                lo = mid + 1;
+            else if(c > 0)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Compares a stored digest against a digest past the leading 8 bytes,
+     * which the caller has already compared
+     * @param window Window holding the stored digest
+     * @param pos Offset of the stored digest in the window
+     * @param digest Buffer holding the digest
+     * @param off Offset of the digest
+     * @return True if they are equal
+     */
+    private boolean matches(ByteBuffer window, int pos, byte[] digest, int off) {
+
+        for(int i = 8; i < this.width; i++)
+            if(window.get(pos + i) != digest[off + i])
+                return false;
+
+        return true;
+    }
+
+
+    /**
+     * Reads the key of a stored target
+     * @param target Target number
+     * @return The key of its digest
+     */
+    private long key(int target) {
+        return this.key(this.windows[target >>> this.shift], (target & this.mask) * this.width);
+    }
+
+
+    /**
+     * Reads the key of a stored digest
+     * @param window Window holding the digest
+     * @param pos Offset of the digest in the window
+     * @return The key of the digest
+     */
+    private long key(ByteBuffer window, int pos) {
+
+        if(this.width >= 8)
+            return window.getLong(pos);
+
+        long key = 0;
+        for(int i = 0; i < 8; i++)
+            key = (key << 8) | (i < this.width ? window.get(pos + i) & 0xff : 0);
+
+        return key;
+    }
+
+
+    /**
+     * Compares two stored targets as unsigned bytes
+     * @param a Target number of the first
+     * @param b Target number of the second
+     * @return Negative, zero or positive as the first sorts before, with or after the second
+     */
+    private int compare(int a, int b) {
+
+        ByteBuffer windowA = this.windows[a >>> this.shift];
+        ByteBuffer windowB = this.windows[b >>> this.shift];
+        int posA = (a & this.mask) * this.width;
+        int posB = (b & this.mask) * this.width;
+
+        int c = Long.compareUnsigned(this.key(a), this.key(b));
+        for(int i = 8; c == 0 && i < this.width; i++)
+            c = Integer.compare(windowA.get(posA + i) & 0xff, windowB.get(posB + i) & 0xff);
+
+        return c;
+    }
+
+
+    /**
+     * Copies a digest into the index
+     * @param target Target number to overwrite
+     * @param src Buffer holding the digest
+     * @param off Offset of the digest
+     */
+    private void setDigest(int target, byte[] src, int off) {
+
+        ByteBuffer window = this.windows[target >>> this.shift];
+        int pos = (target & this.mask) * this.width;
+        for(int i = 0; i < this.width; i++)
+            window.put(pos + i, src[off + i]);
+    }
+
+
+    /**
+     * Copies a stored target over another
+     * @param from Target number to copy
+     * @param to Target number to overwrite
+     */
+    private void move(int from, int to) {
+
+        if(from == to)
+            return;
+
+        ByteBuffer src = this.windows[from >>> this.shift];
+        ByteBuffer dst = this.windows[to >>> this.shift];
+        int srcPos = (from & this.mask) * this.width;
+        int dstPos = (to & this.mask) * this.width;
+        for(int i = 0; i < this.width; i++)
+            dst.put(dstPos + i, src.get(srcPos + i));
+    }
+
+
+    /**
+     * Sorts a run of stored targets. Buckets hold a few digests unless the
+     * hashes are far from uniform, so those are insertion sorted in place
+     * and only the rare big bucket is copied out and sorted
+     * @param from First target of the run
+     * @param to End of the run (exclusive)
+     */
+    private void sort(int from, int to) {
+
+        if(to - from <= INSERTION_SORT) {
+
+            byte[] held = new byte[this.width];
+            for(int i = from + 1; i < to; i++) {
+
+                int j = i;
+                while(j > from && this.compare(j - 1, i) > 0)
+                    j--;
+                if(j == i)
+                    continue;
+
+                // Shift the bigger ones up and drop the digest in the gap
+                this.getDigest(i, held, 0);
+                for(int k = i; k > j; k--)
+                    this.move(k - 1, k);
+                this.setDigest(j, held, 0);
+            }
+
+            return;
+        }
+
+        Integer[] order = new Integer[to - from];
+        for(int i = 0; i < order.length; i++)
+            order[i] = from + i;
+        Arrays.sort(order, this::compare);
+
+        byte[] sorted = new byte[order.length * this.width];
+        for(int i = 0; i < order.length; i++)
+            this.getDigest(order[i], sorted, i * this.width);
+
+        for(int i = 0; i < order.length; i++)
+            this.setDigest(from + i, sorted, i * this.width);
+    }
+
+
+    /**
+     * Gets how many digests a window holds, a power of two so a target's
+     * window and offset in it are a shift and a mask
+     * @param width Length of a digest in bytes
+     * @return Log2 of the number of digests in a window
+     */
+    static int windowBits(int width) {
+        return 31 - Integer.numberOfLeadingZeros((1 << WINDOW_BITS) / width);
+    }
+
+
+    /**
+     * Allocates the windows for a number of digests
+     * @param width Length of a digest in bytes
+     * @param count Number of digests
+     * @return Zeroed windows, the last only as big as it needs to be
+     */
+    private static ByteBuffer[] allocateWindows(int width, int count) {
+
+        int bits = windowBits(width);
+        ByteBuffer[] windows = new ByteBuffer[Math.max(1, (int)(((long)count + (1 << bits) - 1) >>> bits))];
+        for(int i = 0; i < windows.length; i++)
+            windows[i] = allocate(Math.min(count - (i << bits), 1 << bits) * width);
+
+        return windows;
+    }
+
+
+    /**
+     * Allocates a buffer, off the heap if it is big enough to be worth it
+     * @param size Size in bytes
+     * @return A zeroed buffer
+     */
+    private static ByteBuffer allocate(int size) {
+        return size >= DIRECT_BYTES ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+
+
+    /**
+     * Gets the bucket of a key. Buckets split the range of keys evenly and
+     * in order, so digests sorted by key are sorted by bucket too
+     * @param key Key of the digest
+     * @param buckets Number of buckets in the directory
+     * @return The bucket
+     */
+    static int bucket(long key, int buckets) { return (int)(((key >>> 32) * buckets) >>> 32); }
+
+
+    /**
+     * Reads the leading 8 bytes of a digest as a big endian long
+     * @param digest Buffer holding the digest
+     * @param off Offset of the digest
+     * @param width Length of the digest
+     * @return The key of the digest
+     */
+    static long key(byte[] digest, int off, int width) {
+
+        long key = 0;
+        for(int i = 0; i < 8; i++)
+            key = (key << 8) | (i < width ? digest[off + i] & 0xff : 0);
+
+        return key;
+    }
+}
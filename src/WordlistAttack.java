@@ -0,0 +1,123 @@
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Dictionary attack over a memory mapped wordlist. The keyspace is the byte
+ * offsets of the file and a range [from, to) covers every word that starts
+ * inside it, so ranges can be handed out without indexing the lines first
+ * Author: Grant Miller <gem1086@rit.edu>
+ * File: WordlistAttack.java
+ * Date: 18 October 2026
+ * Version: 0.1
+ */
+public class WordlistAttack implements AttackMode {
+
+    // Instance variables
+    private MappedFile wordlist;
+    private String path;
+
+
+    /**
+     * WordlistAttack constructor
+     * @param file Wordlist to read, one word per line
+     * @throws IOException if the wordlist cannot be mapped
+     */
+    WordlistAttack(File file) throws IOException {
+        this.wordlist = new MappedFile(file);
+        this.path = file.getAbsolutePath();
+    }
+
+
+    @Override
+    public String getName() { return "wordlist " + this.path; }
+
+
+    @Override
+    public long getKeyspace() { return this.wordlist.size(); }
+
+
+    @Override
+    public Generator newGenerator() { return new Generator(this.wordlist); }
+
+
+    @Override
+    public boolean usesFiles() { return true; }
+
+
+    @Override
+    public long prefetch(long from, long to) {
+
+        // The last word of the range may run past its end
+        return this.wordlist.prefetch(from, to + CandidateGenerator.MAX_CANDIDATE);
+    }
+
+
+    /**
+     * Reads words straight out of the mapping
+     */
+    static class Generator implements CandidateGenerator {
+
+        // Instance variables
+        private MappedFile wordlist;
+        private long pos;
+        private long start;
+
+
+        /**
+         * Generator constructor
+         * @param wordlist The mapped wordlist
+         */
+        Generator(MappedFile wordlist) {
+            this.wordlist = wordlist;
+            this.pos = 0;
+            this.start = 0;
+        }
+
+
+        /**
+         * Gets where the last word returned by next() starts
+         * @return Offset of the word in the wordlist, which is its index
+         */
+        long getStart() { return this.start; }
+
+
+        @Override
+        public void seek(long index) {
+
+            // Words start at the beginning of the file or right after a newline
+            if(index == 0)
+                this.pos = 0;
+            else
+                this.pos = this.wordlist.indexOf((byte)'\n', index - 1, this.wordlist.size()) + 1;
+        }
+
+
+        @Override
+        public int next(byte[] buf, long end) {
+
+            long size = this.wordlist.size();
+
+            while(this.pos < end && this.pos < size) {
+
+                long start = this.pos;
+                long eol = this.wordlist.indexOf((byte)'\n', start, size);
+                this.pos = eol + 1;
+
+                // Drop the \r of windows line endings
+                if(eol > start && this.wordlist.get(eol - 1) == '\r')
+                    eol--;
+
+                // Words that don't fit in a candidate are skipped
+                int len = (int)Math.min(eol - start, Integer.MAX_VALUE);
+                if(len > CandidateGenerator.MAX_CANDIDATE)
+                    continue;
+
+                this.wordlist.copy(start, buf, 0, len);
+                this.start = start;
+                return len;
+            }
+
+            return -1;
+        }
+    }
+}